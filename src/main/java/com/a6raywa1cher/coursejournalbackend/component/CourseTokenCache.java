@@ -0,0 +1,81 @@
+package com.a6raywa1cher.coursejournalbackend.component;
+
+import com.a6raywa1cher.coursejournalbackend.model.repo.CourseTokenRepository;
+import com.a6raywa1cher.coursejournalbackend.utils.BoundedCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Course id per course token, for authenticating {@code ctbearer} requests without a database round trip.
+ * Unknown tokens are remembered too, in a separate and shorter-lived cache, so probing random tokens
+ * neither reaches the database nor pushes valid tokens out. Whoever creates or deletes a token must
+ * invalidate it; entries are dropped once more when the changing transaction completes.
+ * <p>
+ * Invalidation reaches only this instance, so the application is meant to run as a single instance. Known tokens
+ * are kept for seconds only, which bounds how long another instance would accept a deleted token.
+ */
+@Component
+public class CourseTokenCache {
+    private final CourseTokenRepository repository;
+
+    private final BoundedCache<String, Long> known;
+
+    private final BoundedCache<String, Boolean> unknown;
+
+    public CourseTokenCache(CourseTokenRepository repository, MeterRegistry meterRegistry,
+                            @Value("${app.course-token-cache.maximum-size:10000}") int maximumSize,
+                            @Value("${app.course-token-cache.ttl:PT10S}") Duration ttl,
+                            @Value("${app.course-token-cache.unknown-maximum-size:10000}") int unknownMaximumSize,
+                            @Value("${app.course-token-cache.unknown-ttl:PT1M}") Duration unknownTtl) {
+        this.repository = repository;
+        this.known = new BoundedCache<String, Long>(maximumSize, ttl)
+                .registerMetrics(meterRegistry, "course-token");
+        this.unknown = new BoundedCache<String, Boolean>(unknownMaximumSize, unknownTtl)
+                .registerMetrics(meterRegistry, "course-token-unknown");
+    }
+
+    public Optional<Long> getCourseId(String token) {
+        Long courseId = known.getIfPresent(token);
+        if (courseId != null) return Optional.of(courseId);
+        if (unknown.getIfPresent(token) != null) return Optional.empty();
+        long knownLoadedAt = known.generation();
+        long unknownLoadedAt = unknown.generation();
+        Optional<Long> loaded = repository.findCourseIdByToken(token);
+        if (loaded.isPresent()) {
+            known.put(token, loaded.get(), knownLoadedAt);
+        } else {
+            unknown.put(token, Boolean.TRUE, unknownLoadedAt);
+        }
+        return loaded;
+    }
+
+    public void invalidate(String token) {
+        known.invalidate(token);
+        unknown.invalidate(token);
+        afterCompletion(() -> {
+            known.invalidate(token);
+            unknown.invalidate(token);
+        });
+    }
+
+    public void invalidateCourse(long courseId) {
+        known.invalidateIf((token, id) -> id == courseId);
+        afterCompletion(() -> known.invalidateIf((token, id) -> id == courseId));
+    }
+
+    private void afterCompletion(Runnable runnable) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) return;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                runnable.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,204 @@
+package com.a6raywa1cher.coursejournalbackend.component;
+
+import com.a6raywa1cher.coursejournalbackend.model.repo.PendingScoreRecalculationRepository;
+import com.a6raywa1cher.coursejournalbackend.service.SubmissionService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs {@link SubmissionService#recalculateMainScoreForTask} in the background. Requests for the same task
+ * are coalesced: a task waits in the queue at most once, and every edit made before its run starts is covered by it.
+ * The run is queued only after the requesting transaction commits, so it always sees the committed edit.
+ * The cached scoring context of the task is dropped right away.
+ * <p>
+ * Each request is also persisted as a {@link com.a6raywa1cher.coursejournalbackend.model.PendingScoreRecalculation}
+ * in the requesting transaction and cleared once a run covering it succeeds. Failed runs are retried with
+ * a growing delay, marks left by a crash or restart are queued again on startup.
+ * <p>
+ * With {@code app.score-recalculation.async=false} the recalculation happens synchronously in the caller.
+ */
+@Component
+@Slf4j
+public class ScoreRecalculationQueue {
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+
+    private final SubmissionService submissionService;
+
+    private final TaskScoringContextCache contextCache;
+
+    private final PendingScoreRecalculationRepository pendingRepository;
+
+    private final boolean async;
+
+    private final Duration delay;
+
+    private final Duration maxRetryDelay;
+
+    private final ScheduledExecutorService executor;
+
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+
+    private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+
+    private final Map<Long, Integer> running = new ConcurrentHashMap<>();
+
+    private final Map<Long, Integer> failures = new ConcurrentHashMap<>();
+
+    public ScoreRecalculationQueue(@Lazy SubmissionService submissionService, TaskScoringContextCache contextCache,
+                                   PendingScoreRecalculationRepository pendingRepository,
+                                   @Value("${app.score-recalculation.async:true}") boolean async,
+                                   @Value("${app.score-recalculation.delay:PT0.5S}") Duration delay,
+                                   @Value("${app.score-recalculation.max-retry-delay:PT1M}") Duration maxRetryDelay,
+                                   @Value("${app.score-recalculation.threads:2}") int threads) {
+        this.submissionService = submissionService;
+        this.contextCache = contextCache;
+        this.pendingRepository = pendingRepository;
+        this.async = async;
+        this.delay = delay;
+        this.maxRetryDelay = maxRetryDelay;
+        this.executor = Executors.newScheduledThreadPool(threads, new RecalculationThreadFactory());
+    }
+
+    public void schedule(long taskId) {
+        contextCache.invalidate(taskId);
+        if (!async) {
+            submissionService.recalculateMainScoreForTask(taskId);
+            return;
+        }
+        pendingRepository.mark(taskId);
+        pending.add(taskId);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueue(taskId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                enqueue(taskId);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    removePendingUnlessQueued(taskId);
+                }
+            }
+        });
+    }
+
+    /**
+     * Queues the tasks whose recalculation didn't succeed before the last shutdown.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumePending() {
+        List<Long> taskIds = pendingRepository.getAllTaskIds();
+        if (taskIds.isEmpty()) return;
+        log.info("Resuming score recalculation of {} tasks", taskIds.size());
+        taskIds.forEach(this::enqueue);
+    }
+
+    /**
+     * @return true if the task has an edit whose scores aren't recalculated yet
+     */
+    public boolean isPending(long taskId) {
+        return pending.contains(taskId);
+    }
+
+    private void enqueue(long taskId) {
+        enqueue(taskId, delay);
+    }
+
+    private synchronized void enqueue(long taskId, Duration after) {
+        pending.add(taskId);
+        if (queued.add(taskId)) {
+            executor.schedule(() -> run(taskId), after.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void run(long taskId) {
+        synchronized (this) {
+            // from now on new edits are not covered by this run and queue the task again
+            queued.remove(taskId);
+            running.merge(taskId, 1, Integer::sum);
+        }
+        try {
+            // no mark means the task is gone or a previous run has already covered it
+            Optional<Long> version = pendingRepository.getVersion(taskId);
+            if (version.isPresent()) {
+                submissionService.recalculateMainScoreForTask(taskId);
+                pendingRepository.clear(taskId, version.get());
+            }
+        } catch (RuntimeException e) {
+            int attempt = failures.merge(taskId, 1, Integer::sum);
+            Duration retryDelay = getRetryDelay(attempt);
+            log.warn("Score recalculation for task {} failed, attempt {}, retrying in {}", taskId, attempt, retryDelay, e);
+            enqueue(taskId, retryDelay);
+            finish(taskId);
+            return;
+        }
+        failures.remove(taskId);
+        finish(taskId);
+    }
+
+    private synchronized void finish(long taskId) {
+        running.computeIfPresent(taskId, (id, count) -> count > 1 ? count - 1 : null);
+        removePendingUnlessQueued(taskId);
+    }
+
+    // scores are fresh only when no run is waiting or in progress
+    private synchronized void removePendingUnlessQueued(long taskId) {
+        if (!queued.contains(taskId) && !running.containsKey(taskId)) {
+            pending.remove(taskId);
+        }
+    }
+
+    private Duration getRetryDelay(int attempt) {
+        Duration retryDelay = delay.multipliedBy(1L << Math.min(attempt, 20));
+        return retryDelay.compareTo(maxRetryDelay) > 0 ? maxRetryDelay : retryDelay;
+    }
+
+    /**
+     * Waiting and retried runs are dropped, their marks are resumed on the next startup.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        try {
+            if (!executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                log.warn("Score recalculation didn't stop in {} seconds", SHUTDOWN_TIMEOUT_SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class RecalculationThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "score-recalculation-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
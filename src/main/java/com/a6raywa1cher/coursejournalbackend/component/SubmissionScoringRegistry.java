@@ -0,0 +1,40 @@
+package com.a6raywa1cher.coursejournalbackend.component;
+
+import com.a6raywa1cher.coursejournalbackend.model.ScoringPolicy;
+import com.a6raywa1cher.coursejournalbackend.service.SubmissionScoringService;
+import com.a6raywa1cher.coursejournalbackend.service.TaskScoringContext;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.a6raywa1cher.coursejournalbackend.utils.CommonUtils.coalesce;
+
+/**
+ * Picks the {@link SubmissionScoringService} of a course scoring policy, courses without one are scored linearly.
+ */
+@Component
+public class SubmissionScoringRegistry {
+    private final Map<ScoringPolicy, SubmissionScoringService> services = new EnumMap<>(ScoringPolicy.class);
+
+    public SubmissionScoringRegistry(List<SubmissionScoringService> services) {
+        for (SubmissionScoringService service : services) {
+            if (this.services.put(service.getPolicy(), service) != null) {
+                throw new IllegalStateException("Several scoring services for policy " + service.getPolicy());
+            }
+        }
+    }
+
+    public SubmissionScoringService get(ScoringPolicy policy) {
+        SubmissionScoringService service = services.get(coalesce(policy, ScoringPolicy.LINEAR));
+        if (service == null) {
+            throw new IllegalStateException("No scoring service for policy " + policy);
+        }
+        return service;
+    }
+
+    public double getMainScore(TaskScoringContext task, long submittedAt, long[] satisfiedCriteriaIds, int count) {
+        return get(task.policy()).getMainScore(task, submittedAt, satisfiedCriteriaIds, count);
+    }
+}
@@ -0,0 +1,67 @@
+package com.a6raywa1cher.coursejournalbackend.component;
+
+import com.a6raywa1cher.coursejournalbackend.dto.mapper.MapStructMapper;
+import com.a6raywa1cher.coursejournalbackend.model.Task;
+import com.a6raywa1cher.coursejournalbackend.model.repo.CriteriaRepository;
+import com.a6raywa1cher.coursejournalbackend.service.TaskScoringContext;
+import com.a6raywa1cher.coursejournalbackend.utils.BoundedCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * Compiled {@link TaskScoringContext} per task id. Whoever changes a task, its criteria or the scoring policy
+ * of its course must invalidate the entry. The entry is dropped once more when the changing transaction completes,
+ * so a context built from its uncommitted (or rolled back) state doesn't outlive it. A context built while
+ * an invalidation happens is used but not stored, see {@link BoundedCache}.
+ */
+@Component
+public class TaskScoringContextCache {
+    private final BoundedCache<Long, TaskScoringContext> contexts;
+
+    private final CriteriaRepository criteriaRepository;
+
+    private final MapStructMapper mapper;
+
+    public TaskScoringContextCache(CriteriaRepository criteriaRepository, MapStructMapper mapper,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${app.task-scoring-cache.maximum-size:10000}") int maximumSize,
+                                   @Value("${app.task-scoring-cache.ttl:PT1H}") Duration ttl) {
+        this.criteriaRepository = criteriaRepository;
+        this.mapper = mapper;
+        this.contexts = new BoundedCache<Long, TaskScoringContext>(maximumSize, ttl)
+                .registerMetrics(meterRegistry, "task-scoring");
+    }
+
+    public TaskScoringContext get(Task task) {
+        return contexts.get(task.getId(), id -> TaskScoringContext.of(
+                mapper.map(task),
+                criteriaRepository.getAllByTask(task).stream().map(mapper::map).toList(),
+                task.getCourse().getScoringPolicy()
+        ));
+    }
+
+    public void invalidate(long taskId) {
+        contexts.invalidate(taskId);
+        afterCompletion(() -> contexts.invalidate(taskId));
+    }
+
+    public void invalidateAll() {
+        contexts.invalidateAll();
+        afterCompletion(contexts::invalidateAll);
+    }
+
+    private void afterCompletion(Runnable runnable) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) return;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                runnable.run();
+            }
+        });
+    }
+}
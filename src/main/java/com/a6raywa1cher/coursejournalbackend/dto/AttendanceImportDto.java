@@ -0,0 +1,10 @@
+package com.a6raywa1cher.coursejournalbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class AttendanceImportDto {
+    private Long imported;
+}
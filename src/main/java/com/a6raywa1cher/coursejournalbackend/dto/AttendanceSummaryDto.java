@@ -0,0 +1,16 @@
+package com.a6raywa1cher.coursejournalbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+@AllArgsConstructor
+public class AttendanceSummaryDto {
+    private Long student;
+
+    private Integer attended;
+
+    private Integer seriousReason;
+}
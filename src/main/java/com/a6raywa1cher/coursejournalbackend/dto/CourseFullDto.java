@@ -1,5 +1,6 @@
 package com.a6raywa1cher.coursejournalbackend.dto;
 
+import com.a6raywa1cher.coursejournalbackend.model.ScoringPolicy;
 import lombok.Builder;
 import lombok.Data;
 
@@ -17,6 +18,8 @@ public class CourseFullDto {
 
     private Long owner;
 
+    private ScoringPolicy scoringPolicy;
+
     private ZonedDateTime createdAt;
 
     private ZonedDateTime lastModifiedAt;
@@ -0,0 +1,94 @@
+package com.a6raywa1cher.coursejournalbackend.dto;
+
+import lombok.Data;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Everything the grade sheet of a course shows, laid out column by column: the i-th element of every list
+ * in a section describes the same task, criteria, student or submission. Criteria and submissions refer
+ * to their task and student by index into the corresponding section.
+ */
+@Data
+public class GradeSheetDto {
+    private TaskColumns tasks = new TaskColumns();
+
+    private CriteriaColumns criteria = new CriteriaColumns();
+
+    private StudentColumns students = new StudentColumns();
+
+    private SubmissionColumns submissions = new SubmissionColumns();
+
+    @Data
+    public static class TaskColumns {
+        private List<Long> id = new ArrayList<>();
+        private List<Integer> taskNumber = new ArrayList<>();
+        private List<String> title = new ArrayList<>();
+        private List<Integer> maxScore = new ArrayList<>();
+
+        public int add(Long id, Integer taskNumber, String title, Integer maxScore) {
+            this.id.add(id);
+            this.taskNumber.add(taskNumber);
+            this.title.add(title);
+            this.maxScore.add(maxScore);
+            return this.id.size() - 1;
+        }
+    }
+
+    @Data
+    public static class CriteriaColumns {
+        private List<Long> id = new ArrayList<>();
+        private List<Integer> task = new ArrayList<>();
+        private List<String> name = new ArrayList<>();
+        private List<Integer> criteriaPercent = new ArrayList<>();
+
+        public void add(Long id, int task, String name, Integer criteriaPercent) {
+            this.id.add(id);
+            this.task.add(task);
+            this.name.add(name);
+            this.criteriaPercent.add(criteriaPercent);
+        }
+    }
+
+    @Data
+    public static class StudentColumns {
+        private List<Long> id = new ArrayList<>();
+        private List<String> lastName = new ArrayList<>();
+        private List<String> firstName = new ArrayList<>();
+        private List<String> middleName = new ArrayList<>();
+        private List<Long> group = new ArrayList<>();
+
+        public int add(Long id, String lastName, String firstName, String middleName, Long group) {
+            this.id.add(id);
+            this.lastName.add(lastName);
+            this.firstName.add(firstName);
+            this.middleName.add(middleName);
+            this.group.add(group);
+            return this.id.size() - 1;
+        }
+    }
+
+    @Data
+    public static class SubmissionColumns {
+        private List<Long> id = new ArrayList<>();
+        private List<Integer> task = new ArrayList<>();
+        private List<Integer> student = new ArrayList<>();
+        private List<ZonedDateTime> submittedAt = new ArrayList<>();
+        private List<Double> mainScore = new ArrayList<>();
+        private List<Double> additionalScore = new ArrayList<>();
+        private List<List<Long>> satisfiedCriteria = new ArrayList<>();
+
+        public void add(Long id, int task, int student, ZonedDateTime submittedAt, Double mainScore,
+                        Double additionalScore, List<Long> satisfiedCriteria) {
+            this.id.add(id);
+            this.task.add(task);
+            this.student.add(student);
+            this.submittedAt.add(submittedAt);
+            this.mainScore.add(mainScore);
+            this.additionalScore.add(additionalScore);
+            this.satisfiedCriteria.add(satisfiedCriteria);
+        }
+    }
+}
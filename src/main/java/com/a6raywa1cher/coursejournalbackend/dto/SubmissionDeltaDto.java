@@ -0,0 +1,24 @@
+package com.a6raywa1cher.coursejournalbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+
+/**
+ * Submissions of a course changed or deleted since a watermark.
+ * {@code watermark} is the value to pass as {@code since} on the next request. It is held behind the start of
+ * every transaction running at the time of the request, so the same changes may be returned by consecutive requests.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+public class SubmissionDeltaDto {
+    private List<SubmissionDto> changed;
+
+    private List<Long> deleted;
+
+    private ZonedDateTime watermark;
+}
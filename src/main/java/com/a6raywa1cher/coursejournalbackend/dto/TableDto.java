@@ -47,6 +47,10 @@ public class TableDto {
 
     private List<TableHeaderElement> header = new ArrayList<>();
     private List<TableBodyElement> body = new ArrayList<>();
+    /**
+     * Cursor of the next column window, null if the table is complete or the last window is returned
+     */
+    private String next;
 
     public void addTableHeaderElement(LocalDate date, Integer classNumber) {
         TableHeaderElement newHeaderElement = new TableHeaderElement();
@@ -0,0 +1,87 @@
+package com.a6raywa1cher.coursejournalbackend.dto;
+
+import com.a6raywa1cher.coursejournalbackend.model.AttendanceType;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Collects attendance cells into a dense {@code byte} matrix of {@link AttendanceType} ordinals
+ * (0 means an empty cell) indexed by hashed column and row lookups. The {@link TableDto} shape is
+ * only materialized in {@link #build()}.
+ * <p>
+ * All columns and rows must be added before the first {@link #set} call.
+ */
+public class TableDtoBuilder {
+    private static final AttendanceType[] TYPES = AttendanceType.values();
+
+    private final Map<TableDto.TableHeaderElement, Integer> columnIndex = new HashMap<>();
+    private final List<TableDto.TableHeaderElement> header = new ArrayList<>();
+
+    private final Map<Long, Integer> rowIndex = new HashMap<>();
+    private final List<TableDto.TableBodyElement> body = new ArrayList<>();
+
+    private byte[] cells;
+
+    public int addColumn(LocalDate date, Integer classNumber) {
+        TableDto.TableHeaderElement element = new TableDto.TableHeaderElement(date, classNumber);
+        Integer index = columnIndex.get(element);
+        if (index != null) {
+            return index;
+        }
+        assertNotAllocated();
+        header.add(element);
+        columnIndex.put(element, header.size() - 1);
+        return header.size() - 1;
+    }
+
+    public void addRow(long studentId, String studentName, long studentGroup) {
+        assertNotAllocated();
+        if (rowIndex.containsKey(studentId)) {
+            return;
+        }
+        body.add(new TableDto.TableBodyElement(studentId, null, studentName, studentGroup));
+        rowIndex.put(studentId, body.size() - 1);
+    }
+
+    /**
+     * @return false if the student or the column wasn't registered, the cell is skipped then
+     */
+    public boolean set(long studentId, LocalDate date, Integer classNumber, AttendanceType attendanceType) {
+        Integer row = rowIndex.get(studentId);
+        Integer column = columnIndex.get(new TableDto.TableHeaderElement(date, classNumber));
+        if (row == null || column == null) {
+            return false;
+        }
+        if (cells == null) {
+            cells = new byte[body.size() * header.size()];
+        }
+        cells[row * header.size() + column] = attendanceType == null ? 0 : (byte) (attendanceType.ordinal() + 1);
+        return true;
+    }
+
+    public TableDto build() {
+        int width = header.size();
+        for (int row = 0; row < body.size(); row++) {
+            AttendanceType[] attendances = new AttendanceType[width];
+            if (cells != null) {
+                int offset = row * width;
+                for (int column = 0; column < width; column++) {
+                    byte value = cells[offset + column];
+                    attendances[column] = value == 0 ? null : TYPES[value - 1];
+                }
+            }
+            body.get(row).setAttendances(Arrays.asList(attendances));
+        }
+        TableDto tableDto = new TableDto();
+        tableDto.setHeader(header);
+        tableDto.setBody(body);
+        return tableDto;
+    }
+
+    private void assertNotAllocated() {
+        if (cells != null) {
+            throw new IllegalStateException("Table matrix is already allocated");
+        }
+    }
+}
@@ -35,4 +35,9 @@ public class TaskDto {
     private ZonedDateTime createdAt;
 
     private ZonedDateTime lastModifiedAt;
+
+    /**
+     * True while submission scores of the task aren't recalculated after its last edit yet.
+     */
+    private Boolean scoresPending;
 }
@@ -0,0 +1,11 @@
+package com.a6raywa1cher.coursejournalbackend.dto.exc;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class AttendanceOutOfPeriodException extends RuntimeException {
+    public AttendanceOutOfPeriodException(String date, String fromDate, String toDate) {
+        super("Attendance date %s is out of period: fromDate = %s, toDate = %s".formatted(date, fromDate, toDate));
+    }
+}
@@ -0,0 +1,15 @@
+package com.a6raywa1cher.coursejournalbackend.dto.exc;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class WrongImportDataException extends RuntimeException {
+    public WrongImportDataException(String reason) {
+        super("Unable to import data: %s".formatted(reason));
+    }
+
+    public WrongImportDataException(String reason, Throwable cause) {
+        super("Unable to import data: %s".formatted(reason), cause);
+    }
+}
@@ -0,0 +1,25 @@
+package com.a6raywa1cher.coursejournalbackend.dto.exc;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class WrongPageRequestException extends RuntimeException {
+    public WrongPageRequestException(String cursor) {
+        super(
+                "Unable to parse cursor with value = %s"
+                        .formatted(
+                                cursor
+                        )
+        );
+    }
+
+    public WrongPageRequestException(int limit) {
+        super(
+                "Limit must be positive: limit = %s"
+                        .formatted(
+                                limit
+                        )
+        );
+    }
+}
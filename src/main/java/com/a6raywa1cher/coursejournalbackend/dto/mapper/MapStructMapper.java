@@ -106,6 +106,7 @@ public abstract class MapStructMapper {
     @Mapping(target = "announcementAt", qualifiedByName = {"MapperHelper", "FromLocalDateTime"})
     @Mapping(target = "softDeadlineAt", qualifiedByName = {"MapperHelper", "FromLocalDateTime"})
     @Mapping(target = "hardDeadlineAt", qualifiedByName = {"MapperHelper", "FromLocalDateTime"})
+    @Mapping(target = "scoresPending", ignore = true)
     public abstract TaskDto map(Task task);
 
     @CreatedModifiedRestrictMapping
@@ -18,7 +18,7 @@ import java.util.Objects;
 @Table(
         name = "attendance",
         uniqueConstraints = @UniqueConstraint(name = "one_attendance_per_class_date_student",
-                columnNames = {"attended_class", "attended_date", "student_id"})
+                columnNames = {"student_id", "attended_date", "attended_class"})
 )
 
 @Getter
@@ -27,7 +27,8 @@ import java.util.Objects;
 @RequiredArgsConstructor
 public class Attendance implements IdEntity<Long> {
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "attendance_seq")
+    @SequenceGenerator(name = "attendance_seq", sequenceName = "attendance_seq", allocationSize = 50)
     @Column(name = "id", nullable = false)
     @ReadOnlyProperty
     private Long id;
@@ -0,0 +1,60 @@
+package com.a6raywa1cher.coursejournalbackend.model;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.Hibernate;
+import org.springframework.data.annotation.ReadOnlyProperty;
+
+import javax.persistence.*;
+import java.util.Objects;
+
+@Entity
+@Table(
+        name = "attendance_summary",
+        uniqueConstraints = @UniqueConstraint(name = "one_attendance_summary_per_course_student",
+                columnNames = {"course_id", "student_id"})
+)
+
+@Getter
+@Setter
+@ToString
+@RequiredArgsConstructor
+public class AttendanceSummary implements IdEntity<Long> {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "attendance_summary_seq")
+    @SequenceGenerator(name = "attendance_summary_seq", sequenceName = "attendance_summary_seq", allocationSize = 1)
+    @Column(name = "id", nullable = false)
+    @ReadOnlyProperty
+    private Long id;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "course_id")
+    @ToString.Exclude
+    private Course course;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "student_id")
+    @ToString.Exclude
+    private Student student;
+
+    @Column(name = "attended", nullable = false)
+    private int attended;
+
+    @Column(name = "serious_reason", nullable = false)
+    private int seriousReason;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) return false;
+        AttendanceSummary that = (AttendanceSummary) o;
+        return id != null && Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+}
@@ -58,6 +58,10 @@ public class Course implements IdEntity<Long> {
     @OneToOne(mappedBy = "course", cascade = CascadeType.ALL, orphanRemoval = true)
     private CourseToken courseToken;
 
+    @Column(name = "scoring_policy")
+    @Enumerated(EnumType.STRING)
+    private ScoringPolicy scoringPolicy;
+
     @Column(name = "created_at")
     @CreatedDate
     @ReadOnlyProperty
@@ -0,0 +1,70 @@
+package com.a6raywa1cher.coursejournalbackend.model;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+import org.springframework.data.annotation.ReadOnlyProperty;
+
+import javax.persistence.*;
+import java.util.Objects;
+
+/**
+ * Sum of main and additional scores of all submissions of a student in a course.
+ * Rows are rewritten by {@link com.a6raywa1cher.coursejournalbackend.model.repo.CustomCourseStudentScoreRepository}
+ * after every submission write, students without submissions have no row.
+ */
+@Entity
+@Table(
+        name = "course_student_score",
+        uniqueConstraints = @UniqueConstraint(name = "one_course_student_score_per_course_student",
+                columnNames = {"course_id", "student_id"}),
+        indexes = @Index(name = "course_student_score_course_total_idx", columnList = "course_id, total_score")
+)
+@Getter
+@Setter
+@ToString
+@RequiredArgsConstructor
+public class CourseStudentScore implements IdEntity<Long> {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "course_student_score_seq")
+    @SequenceGenerator(name = "course_student_score_seq", sequenceName = "course_student_score_seq", allocationSize = 1)
+    @Column(name = "id", nullable = false)
+    @ReadOnlyProperty
+    private Long id;
+
+    // submissions are removed by entity cascades on course and student deletion, the totals go with them
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "course_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @ToString.Exclude
+    private Course course;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "student_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @ToString.Exclude
+    private Student student;
+
+    @Column(name = "total_score", nullable = false)
+    private double totalScore;
+
+    @Column(name = "submission_count", nullable = false)
+    private int submissionCount;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) return false;
+        CourseStudentScore that = (CourseStudentScore) o;
+        return id != null && Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+}
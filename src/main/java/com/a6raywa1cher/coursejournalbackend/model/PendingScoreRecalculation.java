@@ -0,0 +1,52 @@
+package com.a6raywa1cher.coursejournalbackend.model;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import javax.persistence.*;
+import java.util.Objects;
+
+/**
+ * Marks a task whose submission scores are stale until its queued recalculation succeeds, so a restart
+ * can pick up what the in-memory queue lost. {@code version} grows with every new request for the task.
+ * Rows are written by {@link com.a6raywa1cher.coursejournalbackend.model.repo.CustomPendingScoreRecalculationRepository}.
+ */
+@Entity
+@Table(name = "pending_score_recalculation")
+@Getter
+@Setter
+@ToString
+@RequiredArgsConstructor
+public class PendingScoreRecalculation {
+    @Id
+    @Column(name = "task_id", nullable = false)
+    private Long taskId;
+
+    @OneToOne(optional = false, fetch = FetchType.LAZY)
+    @MapsId
+    @JoinColumn(name = "task_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @ToString.Exclude
+    private Task task;
+
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) return false;
+        PendingScoreRecalculation that = (PendingScoreRecalculation) o;
+        return taskId != null && Objects.equals(taskId, that.taskId);
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+}
@@ -0,0 +1,24 @@
+package com.a6raywa1cher.coursejournalbackend.model;
+
+/**
+ * How the late penalty of a submission grows between the soft and the hard deadline of its task.
+ */
+public enum ScoringPolicy {
+    /**
+     * Penalty grows linearly from zero at the soft deadline to the max penalty at the hard one.
+     */
+    LINEAR,
+    /**
+     * Half of the max penalty after the soft deadline, the whole one after the hard deadline.
+     */
+    STEP,
+    /**
+     * Penalty approaches the max penalty exponentially, reaching 95% of it at the hard deadline.
+     */
+    EXPONENTIAL_DECAY,
+    /**
+     * Equal penalty for every started day of delay, the soft-hard window is split into whole days
+     * and the sum is capped with the max penalty.
+     */
+    CAPPED_LATE_PENALTY
+}
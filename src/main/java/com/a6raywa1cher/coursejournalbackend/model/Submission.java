@@ -18,7 +18,8 @@ import java.util.Objects;
 @Entity
 @Table(
         name = "submission",
-        uniqueConstraints = @UniqueConstraint(name = "one_sub_per_task_student", columnNames = {"task_id", "student_id"})
+        uniqueConstraints = @UniqueConstraint(name = "one_sub_per_task_student", columnNames = {"task_id", "student_id"}),
+        indexes = @Index(name = "submission_task_updated_at_idx", columnList = "task_id, updated_at")
 )
 @Getter
 @Setter
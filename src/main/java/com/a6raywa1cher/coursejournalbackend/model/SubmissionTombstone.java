@@ -0,0 +1,62 @@
+package com.a6raywa1cher.coursejournalbackend.model;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+import org.springframework.data.annotation.ReadOnlyProperty;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Deletion log of submissions, lets delta sync clients drop submissions they have already seen.
+ * Rows are written by {@link com.a6raywa1cher.coursejournalbackend.model.repo.CustomSubmissionTombstoneRepository}.
+ */
+@Entity
+@Table(
+        name = "submission_tombstone",
+        indexes = @Index(name = "submission_tombstone_course_deleted_at_idx", columnList = "course_id, deleted_at")
+)
+@Getter
+@Setter
+@ToString
+@RequiredArgsConstructor
+public class SubmissionTombstone implements IdEntity<Long> {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "submission_tombstone_seq")
+    @SequenceGenerator(name = "submission_tombstone_seq", sequenceName = "submission_tombstone_seq", allocationSize = 1)
+    @Column(name = "id", nullable = false)
+    @ReadOnlyProperty
+    private Long id;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "course_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @ToString.Exclude
+    private Course course;
+
+    // the submission itself is gone, so no foreign key
+    @Column(name = "submission_id", nullable = false)
+    private Long submissionId;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) return false;
+        SubmissionTombstone that = (SubmissionTombstone) o;
+        return id != null && Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+}
@@ -16,7 +16,7 @@ import java.util.List;
 import java.util.Objects;
 
 @Entity
-@Table(name = "task", uniqueConstraints = @UniqueConstraint(columnNames = {"course_id", "task_number"}))
+@Table(name = "task", uniqueConstraints = @UniqueConstraint(name = "task_course_number_uniq", columnNames = {"course_id", "task_number"}))
 @Getter
 @Setter
 @ToString
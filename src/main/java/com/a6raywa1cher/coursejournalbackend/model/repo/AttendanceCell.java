@@ -0,0 +1,9 @@
+package com.a6raywa1cher.coursejournalbackend.model.repo;
+
+import com.a6raywa1cher.coursejournalbackend.model.AttendanceType;
+
+import java.time.LocalDate;
+
+public record AttendanceCell(Long studentId, LocalDate attendedDate, Integer attendedClass,
+                             AttendanceType attendanceType) {
+}
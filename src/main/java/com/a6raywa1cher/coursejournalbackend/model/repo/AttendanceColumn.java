@@ -0,0 +1,6 @@
+package com.a6raywa1cher.coursejournalbackend.model.repo;
+
+import java.time.LocalDate;
+
+public record AttendanceColumn(LocalDate attendedDate, Integer attendedClass) {
+}
@@ -0,0 +1,10 @@
+package com.a6raywa1cher.coursejournalbackend.model.repo;
+
+import com.a6raywa1cher.coursejournalbackend.model.AttendanceType;
+
+import java.time.LocalDate;
+
+public record AttendanceExportRow(Long courseId, String courseName, Long studentId, String lastName, String firstName, String middleName,
+                                  String groupName, LocalDate attendedDate, Integer attendedClass,
+                                  AttendanceType attendanceType) {
+}
@@ -0,0 +1,7 @@
+package com.a6raywa1cher.coursejournalbackend.model.repo;
+
+import java.time.LocalDate;
+
+public record AttendanceImportRow(Long courseId, Long studentId, LocalDate attendedDate, Integer attendedClass,
+                                  String attendanceType) {
+}
@@ -4,17 +4,25 @@ import com.a6raywa1cher.coursejournalbackend.model.Attendance;
 import com.a6raywa1cher.coursejournalbackend.model.Course;
 import com.a6raywa1cher.coursejournalbackend.model.Group;
 import com.a6raywa1cher.coursejournalbackend.model.Student;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 @Repository
-public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
+public interface AttendanceRepository extends JpaRepository<Attendance, Long>, CustomAttendanceRepository {
 
     List<Attendance> getAllByCourse(Course course, Sort sort);
 
@@ -25,17 +33,113 @@ public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
                                                                       Integer attendedClass
     );
 
-    List<Attendance> getAllByCourseAndAttendedDateBetween(Course course, LocalDate start, LocalDate end, Sort sort);
+    @Query("""
+            select new com.a6raywa1cher.coursejournalbackend.model.repo.AttendanceCell(
+            a.student.id, a.attendedDate, a.attendedClass, a.attendanceType
+            ) from Attendance a where
+            a.student.id in :studentIds and
+            a.attendedDate in :dates
+            """)
+    List<AttendanceCell> getAllCellsByStudentIdsAndDates(@Param("studentIds") Collection<Long> studentIds,
+                                                         @Param("dates") Collection<LocalDate> dates);
+
+    @Query("""
+            select distinct new com.a6raywa1cher.coursejournalbackend.model.repo.AttendanceColumn(
+            a.attendedDate, a.attendedClass
+            ) from Attendance a where
+            a.course = :course and
+            a.attendedDate <= :toDate and
+            (a.attendedDate > :afterDate or (a.attendedDate = :afterDate and a.attendedClass > :afterClass))
+            order by a.attendedDate, a.attendedClass
+            """)
+    List<AttendanceColumn> getColumnsByCourseAfter(@Param("course") Course course,
+                                                   @Param("afterDate") LocalDate afterDate,
+                                                   @Param("afterClass") Integer afterClass,
+                                                   @Param("toDate") LocalDate toDate,
+                                                   Pageable pageable);
+
+    @Query("""
+            select distinct new com.a6raywa1cher.coursejournalbackend.model.repo.AttendanceColumn(
+            a.attendedDate, a.attendedClass
+            ) from Attendance a where
+            a.course = :course and
+            a.student.group = :group and
+            a.attendedDate <= :toDate and
+            (a.attendedDate > :afterDate or (a.attendedDate = :afterDate and a.attendedClass > :afterClass))
+            order by a.attendedDate, a.attendedClass
+            """)
+    List<AttendanceColumn> getColumnsByCourseAndGroupAfter(@Param("course") Course course,
+                                                           @Param("group") Group group,
+                                                           @Param("afterDate") LocalDate afterDate,
+                                                           @Param("afterClass") Integer afterClass,
+                                                           @Param("toDate") LocalDate toDate,
+                                                           Pageable pageable);
+
+    @Query("""
+            select new com.a6raywa1cher.coursejournalbackend.model.repo.AttendanceCell(
+            a.student.id, a.attendedDate, a.attendedClass, a.attendanceType
+            ) from Attendance a where
+            a.course = :course and
+            a.attendedDate between :fromDate and :toDate
+            order by a.attendedDate, a.attendedClass
+            """)
+    List<AttendanceCell> getAllCellsByCourseAndDatePeriod(@Param("course") Course course,
+                                                          @Param("fromDate") LocalDate fromDate,
+                                                          @Param("toDate") LocalDate toDate);
+
+    @Query("""
+            select new com.a6raywa1cher.coursejournalbackend.model.repo.AttendanceCell(
+            a.student.id, a.attendedDate, a.attendedClass, a.attendanceType
+            ) from Attendance a where
+            a.course = :course and
+            a.student.group = :group and
+            a.attendedDate between :fromDate and :toDate
+            order by a.attendedDate, a.attendedClass
+            """)
+    List<AttendanceCell> getAllCellsByCourseAndGroupAndDatePeriod(@Param("course") Course course,
+                                                                  @Param("group") Group group,
+                                                                  @Param("fromDate") LocalDate fromDate,
+                                                                  @Param("toDate") LocalDate toDate);
 
-    List<Attendance> getAllByCourseAndStudentGroupAndAttendedDateBetween(Course course, Group group, LocalDate start, LocalDate end, Sort sort);
+    @Query("""
+            select new com.a6raywa1cher.coursejournalbackend.model.repo.AttendanceExportRow(
+            c.id, c.name, s.id, s.lastName, s.firstName, s.middleName, g.name, a.attendedDate, a.attendedClass, a.attendanceType
+            ) from Attendance a
+            join a.course c
+            join a.student s
+            join s.group g where
+            a.course = :course and
+            a.attendedDate between :fromDate and :toDate
+            order by s.lastName, s.firstName, s.id, a.attendedDate, a.attendedClass
+            """)
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    Stream<AttendanceExportRow> streamAllExportRowsByCourseAndDatePeriod(@Param("course") Course course,
+                                                                        @Param("fromDate") LocalDate fromDate,
+                                                                        @Param("toDate") LocalDate toDate);
+
+    @Query("""
+            select new com.a6raywa1cher.coursejournalbackend.model.repo.AttendanceExportRow(
+            c.id, c.name, s.id, s.lastName, s.firstName, s.middleName, g.name, a.attendedDate, a.attendedClass, a.attendanceType
+            ) from Attendance a
+            join a.course c
+            join a.student s
+            join s.group g where
+            c.id in (:courseIds) and
+            a.attendedDate between :fromDate and :toDate
+            order by c.id, s.lastName, s.firstName, s.id, a.attendedDate, a.attendedClass
+            """)
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    Stream<AttendanceExportRow> streamAllExportRowsByCourseIdsAndDatePeriod(@Param("courseIds") Collection<Long> courseIds,
+                                                                           @Param("fromDate") LocalDate fromDate,
+                                                                           @Param("toDate") LocalDate toDate);
 
     @Query("""
-            select a1 from Attendance a1, Attendance a2 where 
-            a1.attendedClass = a2.attendedClass and 
-            a1.attendedDate = a2.attendedDate and 
-            a1.attendedDate between :fromDate and :toDate and 
-            a1.student.id in (select s.id from Student s join s.courses c where c = :course) and 
-            a1.course <> :course group by a1.id
+            select a from Attendance a
+            join a.student s
+            join s.courses c where
+            c = :course and
+            a.course <> :course and
+            a.attendedDate between :fromDate and :toDate
             """)
     List<Attendance> getAllConflictsByCourseAndDatePeriod(Course course,
                                                           LocalDate fromDate,
@@ -44,13 +148,13 @@ public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
 
 
     @Query("""
-            select a1 from Attendance a1, Attendance a2 where 
-            a1.attendedClass = a2.attendedClass and 
-            a1.attendedDate = a2.attendedDate and 
-            a1.attendedDate between :fromDate and :toDate and 
-            a1.student.id in (select s.id from Student s join s.courses c where c = :course) and 
-            a1.student.group = :group and 
-            a1.course <> :course group by a1.id
+            select a from Attendance a
+            join a.student s
+            join s.courses c where
+            c = :course and
+            s.group = :group and
+            a.course <> :course and
+            a.attendedDate between :fromDate and :toDate
             """)
     List<Attendance> getAllConflictsByCourseAndGroupAndDatePeriod(Course course,
                                                           Group group,
@@ -0,0 +1,4 @@
+package com.a6raywa1cher.coursejournalbackend.model.repo;
+
+public record AttendanceSummaryDelta(long studentId, int attended, int seriousReason) {
+}
@@ -0,0 +1,21 @@
+package com.a6raywa1cher.coursejournalbackend.model.repo;
+
+import com.a6raywa1cher.coursejournalbackend.dto.AttendanceSummaryDto;
+import com.a6raywa1cher.coursejournalbackend.model.AttendanceSummary;
+import com.a6raywa1cher.coursejournalbackend.model.Course;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface AttendanceSummaryRepository extends JpaRepository<AttendanceSummary, Long>, CustomAttendanceSummaryRepository {
+    @Query("""
+            select new com.a6raywa1cher.coursejournalbackend.dto.AttendanceSummaryDto(
+            s.student.id, s.attended, s.seriousReason
+            ) from AttendanceSummary s where
+            s.course = :course
+            """)
+    List<AttendanceSummaryDto> getAllDtoByCourse(Course course);
+}
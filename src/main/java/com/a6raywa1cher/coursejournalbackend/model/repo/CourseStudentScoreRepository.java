@@ -0,0 +1,30 @@
+package com.a6raywa1cher.coursejournalbackend.model.repo;
+
+import com.a6raywa1cher.coursejournalbackend.dto.CourseStudentScoreDto;
+import com.a6raywa1cher.coursejournalbackend.model.Course;
+import com.a6raywa1cher.coursejournalbackend.model.CourseStudentScore;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CourseStudentScoreRepository extends JpaRepository<CourseStudentScore, Long>, CustomCourseStudentScoreRepository {
+    /**
+     * Whole roster of the course, students without submissions have zero totals.
+     * Sorted by the given {@link Pageable}: plain properties refer to the student,
+     * the total is reachable through {@code JpaSort.unsafe} as {@code css.totalScore}.
+     */
+    @Query(value = """
+            select new com.a6raywa1cher.coursejournalbackend.dto.CourseStudentScoreDto(
+            s.id, coalesce(css.totalScore, 0.0), coalesce(css.submissionCount, 0)
+            )
+            from Student s join s.courses c
+            left join CourseStudentScore css on css.course = c and css.student = s
+            where c = :course
+            """,
+            countQuery = "select count(s) from Student s join s.courses c where c = :course")
+    Page<CourseStudentScoreDto> getRankingByCourse(@Param("course") Course course, Pageable pageable);
+}
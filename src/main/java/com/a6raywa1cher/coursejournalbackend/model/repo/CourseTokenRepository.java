@@ -2,7 +2,9 @@ package com.a6raywa1cher.coursejournalbackend.model.repo;
 
 import com.a6raywa1cher.coursejournalbackend.model.Course;
 import com.a6raywa1cher.coursejournalbackend.model.CourseToken;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -14,4 +16,7 @@ public interface CourseTokenRepository extends CrudRepository<CourseToken, Long>
     Optional<CourseToken> findByCourse(Course course);
 
     Optional<CourseToken> findByToken(String token);
+
+    @Query("select t.course.id from CourseToken t where t.token = :token")
+    Optional<Long> findCourseIdByToken(@Param("token") String token);
 }
@@ -0,0 +1,37 @@
+package com.a6raywa1cher.coursejournalbackend.model.repo;
+
+import java.io.Reader;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface CustomAttendanceRepository {
+    void batchInsertCells(long courseId, List<AttendanceCell> cells, LocalDateTime now);
+
+    void batchUpdateCells(long courseId, List<AttendanceCell> cells, LocalDateTime now);
+
+    void batchDeleteCells(long courseId, List<AttendanceCell> cells);
+
+    /**
+     * Copies CSV rows (course_id, student_id, attended_date, attended_class, attendance_type, with a header line)
+     * into a staging table, which lives until the end of the current transaction.
+     *
+     * @return count of the staged rows
+     */
+    long stageImport(Reader csv);
+
+    Optional<AttendanceImportRow> findFirstIncompleteStagedRow(List<String> attendanceTypes);
+
+    Optional<AttendanceImportRow> findFirstStagedRowOutsideCourse();
+
+    Optional<AttendanceImportRow> findFirstDuplicateStagedRow();
+
+    Optional<AttendanceImportRow> findFirstStagedRowTakenByOtherCourse();
+
+    /**
+     * Upserts the staged rows into attendance and recounts attendance_summary of the touched students.
+     *
+     * @return count of inserted or updated attendances
+     */
+    long mergeStaged(LocalDateTime now);
+}
@@ -0,0 +1,211 @@
+package com.a6raywa1cher.coursejournalbackend.model.repo;
+
+import com.a6raywa1cher.coursejournalbackend.model.Attendance;
+import com.a6raywa1cher.coursejournalbackend.dto.exc.WrongImportDataException;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.postgresql.PGConnection;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import java.io.IOException;
+import java.io.Reader;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public class CustomAttendanceRepositoryImpl implements CustomAttendanceRepository {
+    private static final String INSERT_SQL = """
+            insert into attendance (id, course_id, student_id, attended_date, attended_class, attendance_type, created_at, updated_at)
+            values (?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String UPDATE_SQL = """
+            update attendance set attendance_type = ?, updated_at = ?
+            where student_id = ? and attended_date = ? and attended_class = ? and course_id = ?
+            """;
+
+    private static final String DELETE_SQL = """
+            delete from attendance
+            where student_id = ? and attended_date = ? and attended_class = ? and course_id = ?
+            """;
+
+    private static final String STAGE_CREATE_SQL = """
+            create temp table if not exists attendance_import (
+            course_id bigint, student_id bigint, attended_date date, attended_class integer, attendance_type varchar(255)
+            ) on commit drop
+            """;
+
+    private static final String STAGE_COPY_SQL = """
+            copy attendance_import (course_id, student_id, attended_date, attended_class, attendance_type)
+            from stdin with (format csv, header true)
+            """;
+
+    private static final String STAGE_INCOMPLETE_SQL = """
+            select * from attendance_import i where
+            i.course_id is null or i.student_id is null or i.attended_date is null or i.attended_class is null or
+            i.attendance_type is null or i.attendance_type not in (:types)
+            limit 1
+            """;
+
+    private static final String STAGE_OUTSIDE_COURSE_SQL = """
+            select * from attendance_import i where not exists (
+            select 1 from course_student cs where cs.course_id = i.course_id and cs.student_id = i.student_id
+            )
+            limit 1
+            """;
+
+    private static final String STAGE_DUPLICATE_SQL = """
+            select i.* from attendance_import i join (
+            select student_id, attended_date, attended_class from attendance_import
+            group by student_id, attended_date, attended_class having count(*) > 1
+            ) d using (student_id, attended_date, attended_class)
+            limit 1
+            """;
+
+    private static final String STAGE_TAKEN_SQL = """
+            select i.* from attendance_import i join attendance a on
+            a.student_id = i.student_id and a.attended_date = i.attended_date and a.attended_class = i.attended_class
+            where a.course_id <> i.course_id
+            limit 1
+            """;
+
+    // single-row nextval() skips the rest of a pooled block, which is harmless for bulk imports
+    private static final String MERGE_SQL = """
+            insert into attendance (id, course_id, student_id, attended_date, attended_class, attendance_type, created_at, updated_at)
+            select nextval('attendance_seq'), i.course_id, i.student_id, i.attended_date, i.attended_class, i.attendance_type, ?, ?
+            from attendance_import i
+            on conflict (attended_class, attended_date, student_id) do update set
+            attendance_type = excluded.attendance_type, updated_at = excluded.updated_at
+            where attendance.course_id = excluded.course_id
+            """;
+
+    // like applyDeltas of the summary repository, never leaves rows with nothing counted
+    private static final String MERGE_SUMMARY_SQL = """
+            insert into attendance_summary (id, course_id, student_id, attended, serious_reason)
+            select nextval('attendance_summary_seq'), a.course_id, a.student_id,
+            count(*) filter (where a.attendance_type = 'ATTENDED'),
+            count(*) filter (where a.attendance_type = 'SERIOUS_REASON')
+            from attendance a
+            where (a.course_id, a.student_id) in (select course_id, student_id from attendance_import)
+            group by a.course_id, a.student_id
+            having count(*) filter (where a.attendance_type in ('ATTENDED', 'SERIOUS_REASON')) > 0
+            on conflict (course_id, student_id) do update set
+            attended = excluded.attended, serious_reason = excluded.serious_reason
+            """;
+
+    private static final RowMapper<AttendanceImportRow> IMPORT_ROW_MAPPER = (rs, i) -> new AttendanceImportRow(
+            rs.getObject("course_id", Long.class),
+            rs.getObject("student_id", Long.class),
+            rs.getObject("attended_date", LocalDate.class),
+            rs.getObject("attended_class", Integer.class),
+            rs.getString("attendance_type")
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final EntityManager em;
+
+    public CustomAttendanceRepositoryImpl(JdbcTemplate jdbcTemplate, EntityManager em) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.em = em;
+    }
+
+    @Override
+    public void batchInsertCells(long courseId, List<AttendanceCell> cells, LocalDateTime now) {
+        if (cells.isEmpty()) return;
+        Timestamp timestamp = Timestamp.valueOf(now);
+        // ids come from the entity's pooled generator, so native and JPA inserts share allocated blocks
+        SessionImplementor session = em.unwrap(SessionImplementor.class);
+        IdentifierGenerator generator = session.getFactory().getIdentifierGenerator(Attendance.class.getName());
+        jdbcTemplate.batchUpdate(INSERT_SQL, cells.stream()
+                .map(c -> new Object[]{
+                        generator.generate(session, null), courseId, c.studentId(),
+                        Date.valueOf(c.attendedDate()), c.attendedClass(),
+                        c.attendanceType().name(), timestamp, timestamp
+                })
+                .toList());
+    }
+
+    @Override
+    public void batchUpdateCells(long courseId, List<AttendanceCell> cells, LocalDateTime now) {
+        if (cells.isEmpty()) return;
+        Timestamp timestamp = Timestamp.valueOf(now);
+        jdbcTemplate.batchUpdate(UPDATE_SQL, cells.stream()
+                .map(c -> new Object[]{
+                        c.attendanceType().name(), timestamp,
+                        c.studentId(), Date.valueOf(c.attendedDate()), c.attendedClass(), courseId
+                })
+                .toList());
+    }
+
+    @Override
+    public void batchDeleteCells(long courseId, List<AttendanceCell> cells) {
+        if (cells.isEmpty()) return;
+        jdbcTemplate.batchUpdate(DELETE_SQL, cells.stream()
+                .map(c -> new Object[]{
+                        c.studentId(), Date.valueOf(c.attendedDate()), c.attendedClass(), courseId
+                })
+                .toList());
+    }
+
+    @Override
+    public long stageImport(Reader csv) {
+        jdbcTemplate.execute(STAGE_CREATE_SQL);
+        jdbcTemplate.execute("truncate attendance_import");
+        try {
+            Long staged = jdbcTemplate.execute((ConnectionCallback<Long>) con -> {
+                try {
+                    return con.unwrap(PGConnection.class).getCopyAPI().copyIn(STAGE_COPY_SQL, csv);
+                } catch (IOException e) {
+                    throw new SQLException(e);
+                }
+            });
+            return staged == null ? 0 : staged;
+        } catch (DataAccessException e) {
+            throw new WrongImportDataException(e.getMostSpecificCause().getMessage(), e);
+        }
+    }
+
+    @Override
+    public Optional<AttendanceImportRow> findFirstIncompleteStagedRow(List<String> attendanceTypes) {
+        return new NamedParameterJdbcTemplate(jdbcTemplate)
+                .query(STAGE_INCOMPLETE_SQL, new MapSqlParameterSource("types", attendanceTypes), IMPORT_ROW_MAPPER)
+                .stream()
+                .findFirst();
+    }
+
+    @Override
+    public Optional<AttendanceImportRow> findFirstStagedRowOutsideCourse() {
+        return jdbcTemplate.query(STAGE_OUTSIDE_COURSE_SQL, IMPORT_ROW_MAPPER).stream().findFirst();
+    }
+
+    @Override
+    public Optional<AttendanceImportRow> findFirstDuplicateStagedRow() {
+        return jdbcTemplate.query(STAGE_DUPLICATE_SQL, IMPORT_ROW_MAPPER).stream().findFirst();
+    }
+
+    @Override
+    public Optional<AttendanceImportRow> findFirstStagedRowTakenByOtherCourse() {
+        return jdbcTemplate.query(STAGE_TAKEN_SQL, IMPORT_ROW_MAPPER).stream().findFirst();
+    }
+
+    @Override
+    public long mergeStaged(LocalDateTime now) {
+        Timestamp timestamp = Timestamp.valueOf(now);
+        long merged = jdbcTemplate.update(MERGE_SQL, timestamp, timestamp);
+        jdbcTemplate.update(MERGE_SUMMARY_SQL);
+        return merged;
+    }
+}
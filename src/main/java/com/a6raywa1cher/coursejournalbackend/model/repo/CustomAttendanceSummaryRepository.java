@@ -0,0 +1,7 @@
+package com.a6raywa1cher.coursejournalbackend.model.repo;
+
+import java.util.Collection;
+
+public interface CustomAttendanceSummaryRepository {
+    void applyDeltas(long courseId, Collection<AttendanceSummaryDelta> deltas);
+}
@@ -0,0 +1,38 @@
+package com.a6raywa1cher.coursejournalbackend.model.repo;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+
+@Repository
+public class CustomAttendanceSummaryRepositoryImpl implements CustomAttendanceSummaryRepository {
+    private static final String UPSERT_SQL = """
+            insert into attendance_summary (id, course_id, student_id, attended, serious_reason)
+            values (nextval('attendance_summary_seq'), ?, ?, ?, ?)
+            on conflict (course_id, student_id) do update set
+            attended = attendance_summary.attended + excluded.attended,
+            serious_reason = attendance_summary.serious_reason + excluded.serious_reason
+            """;
+
+    private static final String DELETE_EMPTY_SQL = """
+            delete from attendance_summary
+            where course_id = ? and attended = 0 and serious_reason = 0
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CustomAttendanceSummaryRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void applyDeltas(long courseId, Collection<AttendanceSummaryDelta> deltas) {
+        if (deltas.isEmpty()) return;
+        jdbcTemplate.batchUpdate(UPSERT_SQL, deltas.stream()
+                .map(d -> new Object[]{courseId, d.studentId(), d.attended(), d.seriousReason()})
+                .toList());
+        // empty rows would otherwise keep a foreign key on a course or student which has no attendances left
+        jdbcTemplate.update(DELETE_EMPTY_SQL, courseId);
+    }
+}
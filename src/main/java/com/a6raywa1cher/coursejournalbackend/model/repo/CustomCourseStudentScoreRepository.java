@@ -0,0 +1,18 @@
+package com.a6raywa1cher.coursejournalbackend.model.repo;
+
+import java.util.Collection;
+
+/**
+ * Recomputes course_student_score rows from the submissions of the given students,
+ * pending entity changes are flushed first.
+ */
+public interface CustomCourseStudentScoreRepository {
+    void refresh(long courseId, Collection<Long> studentIds);
+
+    /**
+     * Refreshes every student with a submission for the task.
+     */
+    void refreshForTask(long courseId, long taskId);
+
+    void refreshForCourse(long courseId);
+}
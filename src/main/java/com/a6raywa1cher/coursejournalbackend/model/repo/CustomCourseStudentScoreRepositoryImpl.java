@@ -0,0 +1,75 @@
+package com.a6raywa1cher.coursejournalbackend.model.repo;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.Collection;
+
+@Repository
+public class CustomCourseStudentScoreRepositoryImpl implements CustomCourseStudentScoreRepository {
+    // %1$s filters submission rows aliased as s
+    private static final String UPSERT_SQL = """
+            insert into course_student_score (id, course_id, student_id, total_score, submission_count)
+            select nextval('course_student_score_seq'), t.course_id, s.student_id,
+            sum(coalesce(s.main_score, 0) + coalesce(s.additional_score, 0)), count(*)
+            from submission s join task t on t.id = s.task_id
+            where t.course_id = :course and %1$s
+            group by t.course_id, s.student_id
+            on conflict (course_id, student_id) do update set
+            total_score = excluded.total_score, submission_count = excluded.submission_count
+            """;
+
+    // %1$s filters score rows aliased as s
+    private static final String DELETE_EMPTY_SQL = """
+            delete from course_student_score s
+            where s.course_id = :course and %1$s and not exists (
+            select 1 from submission sub join task t on t.id = sub.task_id
+            where t.course_id = s.course_id and sub.student_id = s.student_id
+            )
+            """;
+
+    private static final String STUDENTS_FILTER = "s.student_id in (:students)";
+
+    private static final String TASK_FILTER = "s.student_id in (select student_id from submission where task_id = :task)";
+
+    private static final String COURSE_FILTER = "true";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private final EntityManager em;
+
+    public CustomCourseStudentScoreRepositoryImpl(JdbcTemplate jdbcTemplate, EntityManager em) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.em = em;
+    }
+
+    @Override
+    @Transactional
+    public void refresh(long courseId, Collection<Long> studentIds) {
+        if (studentIds.isEmpty()) return;
+        refresh(STUDENTS_FILTER, new MapSqlParameterSource("course", courseId).addValue("students", studentIds));
+    }
+
+    @Override
+    @Transactional
+    public void refreshForTask(long courseId, long taskId) {
+        refresh(TASK_FILTER, new MapSqlParameterSource("course", courseId).addValue("task", taskId));
+    }
+
+    @Override
+    @Transactional
+    public void refreshForCourse(long courseId) {
+        refresh(COURSE_FILTER, new MapSqlParameterSource("course", courseId));
+    }
+
+    private void refresh(String filter, MapSqlParameterSource params) {
+        // the statements read submissions, which may still be pending in the persistence context
+        em.flush();
+        jdbcTemplate.update(UPSERT_SQL.formatted(filter), params);
+        jdbcTemplate.update(DELETE_EMPTY_SQL.formatted(filter), params);
+    }
+}
@@ -5,5 +5,11 @@ import com.a6raywa1cher.coursejournalbackend.model.Criteria;
 import java.util.List;
 
 public interface CustomCriteriaRepository {
-    List<Criteria> saveAllForTaskWithRename(List<Criteria> criteriaList);
+    /**
+     * Removes every submission_criteria row of the given criteria with one statement, so they can be deleted.
+     * The modification time of the affected submissions is bumped for delta sync clients.
+     * Pending entity changes are flushed first, submissions already loaded through
+     * {@link Criteria#getSubmissionList()} are refreshed afterwards.
+     */
+    void deleteSubmissionLinks(List<Criteria> criteriaList);
 }
@@ -1,12 +1,15 @@
 package com.a6raywa1cher.coursejournalbackend.model.repo;
 
 import com.a6raywa1cher.coursejournalbackend.model.Criteria;
+import com.a6raywa1cher.coursejournalbackend.model.Submission;
+import org.hibernate.Hibernate;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityManager;
-import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
 
 @Repository
 public class CustomCriteriaRepositoryImpl implements CustomCriteriaRepository {
@@ -17,23 +20,33 @@ public class CustomCriteriaRepositoryImpl implements CustomCriteriaRepository {
     }
 
     @Override
-    public List<Criteria> saveAllForTaskWithRename(List<Criteria> criteriaList) {
-        Map<Criteria, String> names = new HashMap<>();
-        for (int i = 0; i < criteriaList.size(); i++) {
-            Criteria criteria = criteriaList.get(i);
-            names.put(criteria, criteria.getName());
-
-            // unique constraint bypass: criteriaList contains all criteria for the task
-            // therefore we can rename all of them to some dummy string
-            // $tmp0, ... will not occur in db since dollar sign isn't allowed
-            criteria.setName("$tmp" + i);
-        }
-        criteriaList.forEach(em::merge);
+    @Transactional
+    public void deleteSubmissionLinks(List<Criteria> criteriaList) {
+        if (criteriaList.isEmpty()) return;
         em.flush();
-        return criteriaList
-                .stream()
-                .peek(c -> c.setName(names.get(c)))
-                .map(em::merge)
-                .toList();
+        // only lists loaded earlier are looked at, the point is not to load the submissions at all
+        Set<Submission> managed = new LinkedHashSet<>();
+        for (Criteria criteria : criteriaList) {
+            if (Hibernate.isInitialized(criteria.getSubmissionList())) {
+                managed.addAll(criteria.getSubmissionList());
+            }
+        }
+        List<Long> ids = criteriaList.stream().map(Criteria::getId).toList();
+        // the satisfied criteria of the submissions change, delta sync clients have to see them again
+        em.createNativeQuery("update submission set updated_at = clock_timestamp() " +
+                        "where id in (select submission_id from submission_criteria where criteria_id in (:ids))")
+                .setParameter("ids", ids)
+                .executeUpdate();
+        em.createNativeQuery("delete from submission_criteria where criteria_id in (:ids)")
+                .setParameter("ids", ids)
+                .executeUpdate();
+        for (Criteria criteria : criteriaList) {
+            if (Hibernate.isInitialized(criteria.getSubmissionList())) {
+                criteria.getSubmissionList().clear();
+            }
+        }
+        managed.stream()
+                .filter(em::contains)
+                .forEach(em::refresh);
     }
 }
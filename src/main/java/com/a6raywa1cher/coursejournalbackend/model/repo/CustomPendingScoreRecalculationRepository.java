@@ -0,0 +1,17 @@
+package com.a6raywa1cher.coursejournalbackend.model.repo;
+
+import java.util.Optional;
+
+public interface CustomPendingScoreRecalculationRepository {
+    /**
+     * Marks the task as pending or bumps the version of its mark. Pending entity changes are flushed first.
+     */
+    void mark(long taskId);
+
+    Optional<Long> getVersion(long taskId);
+
+    /**
+     * Removes the mark unless it was bumped past {@code version} meanwhile.
+     */
+    void clear(long taskId, long version);
+}
@@ -0,0 +1,47 @@
+package com.a6raywa1cher.coursejournalbackend.model.repo;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.Optional;
+
+@Repository
+public class CustomPendingScoreRecalculationRepositoryImpl implements CustomPendingScoreRecalculationRepository {
+    private static final String MARK_SQL = """
+            insert into pending_score_recalculation (task_id, version) values (?, 1)
+            on conflict (task_id) do update set version = pending_score_recalculation.version + 1
+            """;
+
+    private static final String VERSION_SQL = "select version from pending_score_recalculation where task_id = ?";
+
+    private static final String CLEAR_SQL = "delete from pending_score_recalculation where task_id = ? and version = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final EntityManager em;
+
+    public CustomPendingScoreRecalculationRepositoryImpl(JdbcTemplate jdbcTemplate, EntityManager em) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.em = em;
+    }
+
+    @Override
+    @Transactional
+    public void mark(long taskId) {
+        // the task may have been persisted in this transaction
+        em.flush();
+        jdbcTemplate.update(MARK_SQL, taskId);
+    }
+
+    @Override
+    public Optional<Long> getVersion(long taskId) {
+        return jdbcTemplate.queryForList(VERSION_SQL, Long.class, taskId).stream().findFirst();
+    }
+
+    @Override
+    public void clear(long taskId, long version) {
+        jdbcTemplate.update(CLEAR_SQL, taskId, version);
+    }
+}
@@ -0,0 +1,38 @@
+package com.a6raywa1cher.coursejournalbackend.model.repo;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface CustomSubmissionRepository {
+    /**
+     * Also bumps the modification time, so delta sync clients pick the new scores up.
+     */
+    void batchUpdateMainScores(List<SubmissionScoreUpdate> updates, LocalDateTime now);
+
+    /**
+     * The newest modification time every submission change not yet visible to the caller is guaranteed to be stamped
+     * after: the start of the oldest other running transaction of the database, or the current time.
+     * updated_at and deleted_at are stamped on the database clock after their transaction started, see schema.sql.
+     * Sessions of other roles are not visible without pg_read_all_stats, the application must use a single role.
+     */
+    LocalDateTime getDeltaWatermark();
+
+    /**
+     * Reserves ids for submissions that will be inserted by {@link #applyDiff}.
+     */
+    long[] nextIds(int count);
+
+    /**
+     * Writes a precomputed change set with a handful of statements per thousand rows: submissions are deleted together
+     * with their criteria, the rest is upserted by (task, student), and only the changed submission_criteria rows
+     * are touched.
+     * Already loaded submissions are refreshed or detached afterwards.
+     *
+     * @param deletedIds      submissions to delete
+     * @param upserts         new and changed submissions
+     * @param removedCriteria pairs to delete, must not reference deleted submissions
+     * @param addedCriteria   pairs to insert
+     */
+    void applyDiff(long[] deletedIds, List<SubmissionUpsert> upserts,
+                   SubmissionCriteriaPairs removedCriteria, SubmissionCriteriaPairs addedCriteria);
+}
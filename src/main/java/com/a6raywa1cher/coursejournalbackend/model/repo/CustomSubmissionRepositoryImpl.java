@@ -0,0 +1,189 @@
+package com.a6raywa1cher.coursejournalbackend.model.repo;
+
+import com.a6raywa1cher.coursejournalbackend.model.Submission;
+import org.hibernate.engine.spi.EntityKey;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.jpa.TypedParameterValue;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.type.StandardBasicTypes;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.StringJoiner;
+
+@Repository
+public class CustomSubmissionRepositoryImpl implements CustomSubmissionRepository {
+    // two bind parameters per row, stays far below the 32767 parameters allowed by the postgres protocol
+    private static final int ROWS_PER_STATEMENT = 1000;
+
+    private static final String UPDATE_MAIN_SCORE_SQL = """
+            update submission s set main_score = v.main_score, updated_at = ?1
+            from (values %s) as v(id, main_score)
+            where s.id = v.id
+            """;
+
+    // the reading transaction itself is excluded, it doesn't write submissions
+    private static final String DELTA_WATERMARK_SQL = """
+            select cast(least(clock_timestamp(), min(xact_start)) as timestamp)
+            from pg_stat_activity
+            where datname = current_database() and pid <> pg_backend_pid() and xact_start is not null
+            """;
+
+    // submission ids are issued by hibernate_sequence, see GenerationType.AUTO on Submission
+    private static final String NEXT_IDS_SQL = "select nextval('hibernate_sequence') from generate_series(1, :count)";
+
+    private static final String DELETE_CRITERIA_OF_SQL = "delete from submission_criteria where submission_id in (:ids)";
+
+    private static final String DELETE_SQL = "delete from submission where id in (:ids)";
+
+    private static final String DELETE_CRITERIA_SQL = "delete from submission_criteria where (submission_id, criteria_id) in (%s)";
+
+    private static final String INSERT_CRITERIA_SQL = "insert into submission_criteria (submission_id, criteria_id) values %s";
+
+    private static final String UPSERT_SQL = """
+            insert into submission (id, task_id, student_id, submitted_at, main_score, additional_score, created_at, updated_at)
+            values %s
+            on conflict (task_id, student_id) do update set
+            submitted_at = excluded.submitted_at, main_score = excluded.main_score,
+            additional_score = excluded.additional_score, updated_at = excluded.updated_at
+            """;
+
+    private final EntityManager em;
+
+    public CustomSubmissionRepositoryImpl(EntityManager em) {
+        this.em = em;
+    }
+
+    @Override
+    @Transactional
+    public void batchUpdateMainScores(List<SubmissionScoreUpdate> updates, LocalDateTime now) {
+        // native statements don't see pending entity changes
+        em.flush();
+        for (int from = 0; from < updates.size(); from += ROWS_PER_STATEMENT) {
+            List<SubmissionScoreUpdate> chunk = updates.subList(from, Math.min(updates.size(), from + ROWS_PER_STATEMENT));
+            Query query = em.createNativeQuery(UPDATE_MAIN_SCORE_SQL.formatted(placeholders(chunk.size(), 2, 2)));
+            query.setParameter(1, now);
+            int position = 2;
+            for (SubmissionScoreUpdate update : chunk) {
+                query.setParameter(position++, update.submissionId());
+                query.setParameter(position++, update.mainScore());
+            }
+            query.executeUpdate();
+        }
+        refreshManaged(updates);
+    }
+
+    @Override
+    public LocalDateTime getDeltaWatermark() {
+        return ((Timestamp) em.createNativeQuery(DELTA_WATERMARK_SQL).getSingleResult()).toLocalDateTime();
+    }
+
+    @Override
+    public long[] nextIds(int count) {
+        if (count == 0) return new long[0];
+        return ((List<?>) em.createNativeQuery(NEXT_IDS_SQL)
+                .setParameter("count", count)
+                .getResultList())
+                .stream()
+                .mapToLong(id -> ((Number) id).longValue())
+                .toArray();
+    }
+
+    @Override
+    @Transactional
+    public void applyDiff(long[] deletedIds, List<SubmissionUpsert> upserts,
+                          SubmissionCriteriaPairs removedCriteria, SubmissionCriteriaPairs addedCriteria) {
+        // native statements don't see pending entity changes
+        em.flush();
+        List<Submission> deleted = findManaged(Arrays.stream(deletedIds).boxed().toList());
+        deleted.forEach(s -> s.getSatisfiedCriteria().forEach(c -> c.getSubmissionList().remove(s)));
+
+        for (int from = 0; from < deletedIds.length; from += ROWS_PER_STATEMENT) {
+            List<Long> chunk = Arrays.stream(deletedIds, from, Math.min(deletedIds.length, from + ROWS_PER_STATEMENT))
+                    .boxed()
+                    .toList();
+            em.createNativeQuery(DELETE_CRITERIA_OF_SQL).setParameter("ids", chunk).executeUpdate();
+            em.createNativeQuery(DELETE_SQL).setParameter("ids", chunk).executeUpdate();
+        }
+        for (int from = 0; from < removedCriteria.size(); from += ROWS_PER_STATEMENT) {
+            executePairs(DELETE_CRITERIA_SQL, removedCriteria, from);
+        }
+        for (int from = 0; from < upserts.size(); from += ROWS_PER_STATEMENT) {
+            List<SubmissionUpsert> chunk = upserts.subList(from, Math.min(upserts.size(), from + ROWS_PER_STATEMENT));
+            Query query = em.createNativeQuery(UPSERT_SQL.formatted(placeholders(chunk.size(), 8)));
+            int position = 1;
+            for (SubmissionUpsert upsert : chunk) {
+                query.setParameter(position++, upsert.id());
+                query.setParameter(position++, upsert.taskId());
+                query.setParameter(position++, upsert.studentId());
+                query.setParameter(position++, upsert.submittedAt());
+                query.setParameter(position++, upsert.mainScore());
+                query.setParameter(position++, new TypedParameterValue(StandardBasicTypes.DOUBLE, upsert.additionalScore()));
+                query.setParameter(position++, upsert.createdAt());
+                query.setParameter(position++, upsert.lastModifiedAt());
+            }
+            query.executeUpdate();
+        }
+        for (int from = 0; from < addedCriteria.size(); from += ROWS_PER_STATEMENT) {
+            executePairs(INSERT_CRITERIA_SQL, addedCriteria, from);
+        }
+
+        deleted.forEach(em::detach);
+        findManaged(upserts.stream().map(SubmissionUpsert::id).toList()).forEach(em::refresh);
+    }
+
+    private void executePairs(String sql, SubmissionCriteriaPairs pairs, int from) {
+        int to = Math.min(pairs.size(), from + ROWS_PER_STATEMENT);
+        Query query = em.createNativeQuery(sql.formatted(placeholders(to - from, 2)));
+        int position = 1;
+        for (int i = from; i < to; i++) {
+            query.setParameter(position++, pairs.submissionId(i));
+            query.setParameter(position++, pairs.criteriaId(i));
+        }
+        query.executeUpdate();
+    }
+
+    // (?1, ?2), (?3, ?4), ...
+    private static String placeholders(int rows, int columns) {
+        return placeholders(rows, columns, 1);
+    }
+
+    private static String placeholders(int rows, int columns, int first) {
+        StringJoiner values = new StringJoiner(", ");
+        int position = first;
+        for (int i = 0; i < rows; i++) {
+            StringJoiner row = new StringJoiner(", ", "(", ")");
+            for (int j = 0; j < columns; j++) {
+                row.add("?" + position++);
+            }
+            values.add(row.toString());
+        }
+        return values.toString();
+    }
+
+    // the update bypasses the persistence context, already loaded submissions would keep the old score otherwise
+    private void refreshManaged(List<SubmissionScoreUpdate> updates) {
+        findManaged(updates.stream().map(SubmissionScoreUpdate::submissionId).toList()).forEach(em::refresh);
+    }
+
+    private List<Submission> findManaged(List<Long> ids) {
+        SessionImplementor session = em.unwrap(SessionImplementor.class);
+        EntityPersister persister = session.getFactory().getMetamodel().entityPersister(Submission.class);
+        List<Submission> managed = new ArrayList<>();
+        for (Long id : ids) {
+            EntityKey key = session.generateEntityKey(id, persister);
+            Object entity = session.getPersistenceContextInternal().getEntity(key);
+            if (entity != null) {
+                managed.add((Submission) entity);
+            }
+        }
+        return managed;
+    }
+}
@@ -0,0 +1,12 @@
+package com.a6raywa1cher.coursejournalbackend.model.repo;
+
+import java.util.Collection;
+
+public interface CustomSubmissionTombstoneRepository {
+    /**
+     * Logs the deletion of the given submissions, must be called while they are still stored.
+     * The deletion time is taken on the database clock, like submission.updated_at.
+     * Pending entity changes are flushed first.
+     */
+    void record(Collection<Long> submissionIds);
+}
@@ -0,0 +1,45 @@
+package com.a6raywa1cher.coursejournalbackend.model.repo;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public class CustomSubmissionTombstoneRepositoryImpl implements CustomSubmissionTombstoneRepository {
+    private static final int ROWS_PER_STATEMENT = 1000;
+
+    private static final String RECORD_SQL = """
+            insert into submission_tombstone (id, course_id, submission_id, deleted_at)
+            select nextval('submission_tombstone_seq'), t.course_id, s.id, clock_timestamp()::timestamp
+            from submission s join task t on t.id = s.task_id
+            where s.id in (:ids)
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private final EntityManager em;
+
+    public CustomSubmissionTombstoneRepositoryImpl(JdbcTemplate jdbcTemplate, EntityManager em) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.em = em;
+    }
+
+    @Override
+    @Transactional
+    public void record(Collection<Long> submissionIds) {
+        if (submissionIds.isEmpty()) return;
+        em.flush();
+        List<Long> ids = new ArrayList<>(submissionIds);
+        for (int from = 0; from < ids.size(); from += ROWS_PER_STATEMENT) {
+            List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + ROWS_PER_STATEMENT));
+            jdbcTemplate.update(RECORD_SQL, new MapSqlParameterSource("ids", chunk));
+        }
+    }
+}
@@ -1,9 +1,16 @@
 package com.a6raywa1cher.coursejournalbackend.model.repo;
 
-import com.a6raywa1cher.coursejournalbackend.model.Task;
-
 import java.util.Map;
 
 public interface CustomTaskRepository {
-    void reorderTasksWithFlush(Map<Task, Integer> remap);
+    /**
+     * Validates a reorder against the stored tasks with one query, pending entity changes are flushed first.
+     */
+    TaskReorderCheck checkReorder(long courseId, Map<Long, Integer> idToNumber);
+
+    /**
+     * Sets all numbers with one statement, relies on the deferrable (course_id, task_number) constraint.
+     * Already loaded tasks are refreshed.
+     */
+    void reorder(long courseId, Map<Long, Integer> idToNumber);
 }
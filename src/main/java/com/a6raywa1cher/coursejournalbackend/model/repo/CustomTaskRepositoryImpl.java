@@ -1,34 +1,117 @@
 package com.a6raywa1cher.coursejournalbackend.model.repo;
 
 import com.a6raywa1cher.coursejournalbackend.model.Task;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityManager;
-import java.util.Map;
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
 
 @Repository
 public class CustomTaskRepositoryImpl implements CustomTaskRepository {
+    private static final String CHECK_REORDER_SQL = """
+            with v(id, n) as (values %s)
+            select
+            (select array_agg(v.id order by v.id) from v where not exists (select 1 from task t where t.id = v.id)),
+            (select array_agg(t.course_id order by t.id) from v join task t on t.id = v.id),
+            (select array_agg(t.id order by t.id) from v join task t on t.id = v.id),
+            (select min(d.n) from (
+            select coalesce(v.n, t.task_number) as n
+            from task t left join v on v.id = t.id
+            where t.course_id = ?
+            group by coalesce(v.n, t.task_number)
+            having count(*) > 1
+            ) d)
+            """;
+
+    private static final String REORDER_SQL = """
+            update task t set task_number = v.n
+            from (values %s) as v(id, n)
+            where t.id = v.id and t.course_id = ?
+            """;
+
+    private static final String VALUES_ROW = "(cast(? as bigint), cast(? as integer))";
+
+    private final JdbcTemplate jdbcTemplate;
+
     private final EntityManager em;
 
-    public CustomTaskRepositoryImpl(EntityManager em) {
+    public CustomTaskRepositoryImpl(JdbcTemplate jdbcTemplate, EntityManager em) {
+        this.jdbcTemplate = jdbcTemplate;
         this.em = em;
     }
 
     @Override
     @Transactional
-    public void reorderTasksWithFlush(Map<Task, Integer> remap) {
-        for (Task task : remap.keySet()) {
-            task.setTaskNumber(null);
-            em.merge(task);
-        }
+    public TaskReorderCheck checkReorder(long courseId, Map<Long, Integer> idToNumber) {
+        if (idToNumber.isEmpty()) return new TaskReorderCheck(List.of(), Map.of(), null);
         em.flush();
-        for (var item : remap.entrySet()) {
-            Task task = item.getKey();
-            Integer number = item.getValue();
-            task.setTaskNumber(number);
-            em.merge(task);
-        }
+        return jdbcTemplate.queryForObject(withValues(CHECK_REORDER_SQL, idToNumber.size()), (rs, i) -> {
+            List<Long> missingIds = toList(rs.getArray(1));
+            List<Long> courseIds = toList(rs.getArray(2));
+            List<Long> taskIds = toList(rs.getArray(3));
+            Map<Long, List<Long>> courseToTasks = new HashMap<>();
+            for (int j = 0; j < taskIds.size(); j++) {
+                courseToTasks.computeIfAbsent(courseIds.get(j), k -> new ArrayList<>()).add(taskIds.get(j));
+            }
+            return new TaskReorderCheck(missingIds, courseToTasks, getInteger(rs, 4));
+        }, toArgs(idToNumber, courseId));
+    }
+
+    @Override
+    @Transactional
+    public void reorder(long courseId, Map<Long, Integer> idToNumber) {
+        if (idToNumber.isEmpty()) return;
         em.flush();
+        jdbcTemplate.update(withValues(REORDER_SQL, idToNumber.size()), toArgs(idToNumber, courseId));
+        // the update bypasses the persistence context, already loaded tasks would keep the old numbers otherwise
+        findManaged(idToNumber.keySet()).forEach(em::refresh);
+    }
+
+    private static String withValues(String sql, int rows) {
+        return sql.formatted(String.join(", ", Collections.nCopies(rows, VALUES_ROW)));
+    }
+
+    // id, number pairs followed by the course id
+    private static Object[] toArgs(Map<Long, Integer> idToNumber, long courseId) {
+        Object[] args = new Object[idToNumber.size() * 2 + 1];
+        int i = 0;
+        for (var entry : idToNumber.entrySet()) {
+            args[i++] = entry.getKey();
+            args[i++] = entry.getValue();
+        }
+        args[i] = courseId;
+        return args;
+    }
+
+    private static List<Long> toList(Array array) throws SQLException {
+        if (array == null) return List.of();
+        return Arrays.stream((Object[]) array.getArray())
+                .map(o -> ((Number) o).longValue())
+                .toList();
+    }
+
+    private static Integer getInteger(ResultSet rs, int column) throws SQLException {
+        int value = rs.getInt(column);
+        return rs.wasNull() ? null : value;
+    }
+
+    private List<Task> findManaged(Collection<Long> ids) {
+        SessionImplementor session = em.unwrap(SessionImplementor.class);
+        EntityPersister persister = session.getFactory().getMetamodel().entityPersister(Task.class);
+        List<Task> managed = new ArrayList<>();
+        for (Long id : ids) {
+            Object entity = session.getPersistenceContextInternal().getEntity(session.generateEntityKey(id, persister));
+            if (entity != null) {
+                managed.add((Task) entity);
+            }
+        }
+        return managed;
     }
 }
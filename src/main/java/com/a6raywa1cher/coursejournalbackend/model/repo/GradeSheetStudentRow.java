@@ -0,0 +1,4 @@
+package com.a6raywa1cher.coursejournalbackend.model.repo;
+
+public record GradeSheetStudentRow(Long studentId, String lastName, String firstName, String middleName, Long groupId) {
+}
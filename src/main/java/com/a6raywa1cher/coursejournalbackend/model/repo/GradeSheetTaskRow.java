@@ -0,0 +1,15 @@
+package com.a6raywa1cher.coursejournalbackend.model.repo;
+
+/**
+ * One (task, criteria) pair, a task without criteria comes with null criteria columns.
+ */
+public record GradeSheetTaskRow(
+        Long taskId,
+        Integer taskNumber,
+        String title,
+        Integer maxScore,
+        Long criteriaId,
+        String criteriaName,
+        Integer criteriaPercent
+) {
+}
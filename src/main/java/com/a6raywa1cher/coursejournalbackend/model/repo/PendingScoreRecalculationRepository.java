@@ -0,0 +1,15 @@
+package com.a6raywa1cher.coursejournalbackend.model.repo;
+
+import com.a6raywa1cher.coursejournalbackend.model.PendingScoreRecalculation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface PendingScoreRecalculationRepository extends JpaRepository<PendingScoreRecalculation, Long>,
+        CustomPendingScoreRecalculationRepository {
+    @Query("select p.taskId from PendingScoreRecalculation p order by p.taskId")
+    List<Long> getAllTaskIds();
+}
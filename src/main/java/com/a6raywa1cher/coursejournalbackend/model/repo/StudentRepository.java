@@ -21,5 +21,11 @@ public interface StudentRepository extends PagingAndSortingRepository<Student, L
     @Query("select s from Student s join s.courses c where c = :course")
     List<Student> getAllByCourse(@Param("course") Course course, Sort sort);
 
+    @Query("select s.id from Student s join s.courses c where c = :course")
+    List<Long> getIdsByCourse(@Param("course") Course course);
+
+    @Query("select s from Student s join s.courses c where c = :course and s.group = :group")
+    List<Student> getAllByCourseAndGroup(@Param("course") Course course, @Param("group") Group group, Sort sort);
+
     List<Student> getAllByGroup(Group group, Sort sort);
 }
\ No newline at end of file
@@ -0,0 +1,40 @@
+package com.a6raywa1cher.coursejournalbackend.model.repo;
+
+import java.util.Arrays;
+
+/**
+ * Growable list of (submission_id, criteria_id) rows of the submission_criteria table, kept in two primitive arrays.
+ */
+public class SubmissionCriteriaPairs {
+    private long[] submissionIds = new long[16];
+
+    private long[] criteriaIds = new long[16];
+
+    private int size;
+
+    public void add(long submissionId, long criteriaId) {
+        if (size == submissionIds.length) {
+            submissionIds = Arrays.copyOf(submissionIds, size * 2);
+            criteriaIds = Arrays.copyOf(criteriaIds, size * 2);
+        }
+        submissionIds[size] = submissionId;
+        criteriaIds[size] = criteriaId;
+        size++;
+    }
+
+    public long submissionId(int index) {
+        return submissionIds[index];
+    }
+
+    public long criteriaId(int index) {
+        return criteriaIds[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+}
@@ -10,11 +10,12 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface SubmissionRepository extends JpaRepository<Submission, Long> {
+public interface SubmissionRepository extends JpaRepository<Submission, Long>, CustomSubmissionRepository {
     @Query("from Submission where student = :student and task.course = :course")
     List<Submission> getAllByStudentAndCourse(@Param("student") Student student, @Param("course") Course course, Sort sort);
 
@@ -24,4 +25,53 @@ public interface SubmissionRepository extends JpaRepository<Submission, Long> {
     List<Submission> getAllByTask(Task task, Sort sort);
 
     Optional<Submission> findByTaskAndStudent(Task task, Student student);
+
+    @Query("""
+            select new com.a6raywa1cher.coursejournalbackend.model.repo.SubmissionScoreRow(s.id, s.submittedAt, s.mainScore, c.id)
+            from Submission s left join s.satisfiedCriteria c
+            where s.task = :task
+            order by s.id, c.id
+            """)
+    List<SubmissionScoreRow> getAllScoreRowsByTask(@Param("task") Task task);
+
+    @Query("""
+            select new com.a6raywa1cher.coursejournalbackend.model.repo.SubmissionStateRow(
+            s.id, s.task.id, s.student.id, s.submittedAt, s.mainScore, s.additionalScore, s.createdAt, s.lastModifiedAt, c.id
+            )
+            from Submission s left join s.satisfiedCriteria c
+            where s.task.course = :course
+            order by s.id, c.id
+            """)
+    List<SubmissionStateRow> getAllStateRowsByCourse(@Param("course") Course course);
+
+    @Query("""
+            select new com.a6raywa1cher.coursejournalbackend.model.repo.SubmissionStateRow(
+            s.id, s.task.id, s.student.id, s.submittedAt, s.mainScore, s.additionalScore, s.createdAt, s.lastModifiedAt, c.id
+            )
+            from Submission s left join s.satisfiedCriteria c
+            where s.task.course = :course and s.lastModifiedAt >= :since
+            order by s.id, c.id
+            """)
+    List<SubmissionStateRow> getAllStateRowsByCourseModifiedSince(@Param("course") Course course,
+                                                                  @Param("since") LocalDateTime since);
+
+    @Query("""
+            select new com.a6raywa1cher.coursejournalbackend.model.repo.GradeSheetTaskRow(
+            t.id, t.taskNumber, t.title, t.maxScore, c.id, c.name, c.criteriaPercent
+            )
+            from Task t left join t.criteria c
+            where t.course = :course
+            order by t.taskNumber, t.id, c.id
+            """)
+    List<GradeSheetTaskRow> getGradeSheetTaskRowsByCourse(@Param("course") Course course);
+
+    @Query("""
+            select new com.a6raywa1cher.coursejournalbackend.model.repo.GradeSheetStudentRow(
+            s.id, s.lastName, s.firstName, s.middleName, s.group.id
+            )
+            from Course c join c.students s
+            where c = :course
+            order by s.lastName, s.firstName, s.id
+            """)
+    List<GradeSheetStudentRow> getGradeSheetStudentRowsByCourse(@Param("course") Course course);
 }
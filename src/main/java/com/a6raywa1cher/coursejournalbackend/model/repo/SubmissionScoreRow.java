@@ -0,0 +1,9 @@
+package com.a6raywa1cher.coursejournalbackend.model.repo;
+
+import java.time.LocalDateTime;
+
+/**
+ * One (submission, satisfied criteria) pair, a submission without satisfied criteria comes with a null criteria.
+ */
+public record SubmissionScoreRow(Long submissionId, LocalDateTime submittedAt, Double mainScore, Long criteriaId) {
+}
@@ -0,0 +1,4 @@
+package com.a6raywa1cher.coursejournalbackend.model.repo;
+
+public record SubmissionScoreUpdate(long submissionId, double mainScore) {
+}
@@ -0,0 +1,20 @@
+package com.a6raywa1cher.coursejournalbackend.model.repo;
+
+import java.time.LocalDateTime;
+
+/**
+ * One (submission, satisfied criteria) pair with the stored state of the submission,
+ * a submission without satisfied criteria comes with a null criteria.
+ */
+public record SubmissionStateRow(
+        Long submissionId,
+        Long taskId,
+        Long studentId,
+        LocalDateTime submittedAt,
+        Double mainScore,
+        Double additionalScore,
+        LocalDateTime createdAt,
+        LocalDateTime lastModifiedAt,
+        Long criteriaId
+) {
+}
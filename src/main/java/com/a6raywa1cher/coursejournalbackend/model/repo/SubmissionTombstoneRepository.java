@@ -0,0 +1,21 @@
+package com.a6raywa1cher.coursejournalbackend.model.repo;
+
+import com.a6raywa1cher.coursejournalbackend.model.Course;
+import com.a6raywa1cher.coursejournalbackend.model.SubmissionTombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SubmissionTombstoneRepository extends JpaRepository<SubmissionTombstone, Long>, CustomSubmissionTombstoneRepository {
+    @Query("""
+            select t.submissionId from SubmissionTombstone t
+            where t.course = :course and t.deletedAt >= :since
+            order by t.submissionId
+            """)
+    List<Long> getSubmissionIdsByCourseDeletedSince(@Param("course") Course course, @Param("since") LocalDateTime since);
+}
@@ -0,0 +1,15 @@
+package com.a6raywa1cher.coursejournalbackend.model.repo;
+
+import java.time.LocalDateTime;
+
+public record SubmissionUpsert(
+        long id,
+        long taskId,
+        long studentId,
+        LocalDateTime submittedAt,
+        double mainScore,
+        Double additionalScore,
+        LocalDateTime createdAt,
+        LocalDateTime lastModifiedAt
+) {
+}
@@ -0,0 +1,12 @@
+package com.a6raywa1cher.coursejournalbackend.model.repo;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @param missingIds      requested ids without a task
+ * @param courseToTasks   course id to the requested task ids in it
+ * @param duplicateNumber a task number held by two tasks of the course after the reorder, if any
+ */
+public record TaskReorderCheck(List<Long> missingIds, Map<Long, List<Long>> courseToTasks, Integer duplicateNumber) {
+}
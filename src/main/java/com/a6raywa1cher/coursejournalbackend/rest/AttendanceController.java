@@ -2,6 +2,8 @@ package com.a6raywa1cher.coursejournalbackend.rest;
 
 import com.a6raywa1cher.coursejournalbackend.dto.AttendanceConflictListDto;
 import com.a6raywa1cher.coursejournalbackend.dto.AttendanceDto;
+import com.a6raywa1cher.coursejournalbackend.dto.AttendanceImportDto;
+import com.a6raywa1cher.coursejournalbackend.dto.AttendanceSummaryDto;
 import com.a6raywa1cher.coursejournalbackend.dto.TableDto;
 import com.a6raywa1cher.coursejournalbackend.dto.exc.WrongDatesException;
 import com.a6raywa1cher.coursejournalbackend.rest.dto.AttendanceRestDto;
@@ -13,12 +15,23 @@ import com.a6raywa1cher.coursejournalbackend.rest.dto.groups.OnPatch;
 import com.a6raywa1cher.coursejournalbackend.rest.dto.groups.OnUpdate;
 import com.a6raywa1cher.coursejournalbackend.service.AttendanceService;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
+import java.io.BufferedWriter;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
 import java.util.List;
@@ -52,22 +65,77 @@ public class AttendanceController {
         return service.getByCourseAndStudentIds(courseId, studentId, Sort.by("id"));
     }
 
+    @GetMapping("/summary/{courseId}")
+    @PreAuthorize("@accessChecker.readCourseAccess(#courseId, authentication)")
+    public List<AttendanceSummaryDto> getSummaryByCourse(@PathVariable long courseId) {
+        return service.getSummaryByCourseId(courseId);
+    }
+
     @GetMapping("/table/{courseId}")
     @PreAuthorize("@accessChecker.readCourseAccess(#courseId, authentication)")
     public TableDto getTableByCourseAndDatePeriod(@PathVariable long courseId, @RequestParam String fromDate,
-                                             @RequestParam String toDate) {
+                                             @RequestParam String toDate,
+                                             @RequestParam(required = false) String cursor,
+                                             @RequestParam(required = false) Integer limit) {
         LocalDate parsedFromDate = parseStringToLocalDate(fromDate);
         LocalDate parsedToDate = parseStringToLocalDate(toDate);
-        return service.getAttendancesTableByDatePeriod(courseId, parsedFromDate, parsedToDate);
+        if (limit == null) {
+            return service.getAttendancesTableByDatePeriod(courseId, parsedFromDate, parsedToDate);
+        }
+        return service.getAttendancesTablePageByDatePeriod(courseId, parsedFromDate, parsedToDate, cursor, limit);
     }
 
     @GetMapping("/table/{courseId}/group/{groupId}")
     @PreAuthorize("@accessChecker.readCourseByHeadman(#groupId, authentication)")
     public TableDto getTableByCourseAndGroupAndDatePeriod(@PathVariable long courseId, @PathVariable long groupId, @RequestParam String fromDate,
-                                                  @RequestParam String toDate) {
+                                                  @RequestParam String toDate,
+                                                  @RequestParam(required = false) String cursor,
+                                                  @RequestParam(required = false) Integer limit) {
+        LocalDate parsedFromDate = parseStringToLocalDate(fromDate);
+        LocalDate parsedToDate = parseStringToLocalDate(toDate);
+        if (limit == null) {
+            return service.getAttendancesTableByDatePeriodAndGroup(courseId, groupId, parsedFromDate, parsedToDate);
+        }
+        return service.getAttendancesTablePageByDatePeriodAndGroup(courseId, groupId, parsedFromDate, parsedToDate, cursor, limit);
+    }
+
+    @GetMapping("/export/{courseId}")
+    @PreAuthorize("@accessChecker.readCourseAccess(#courseId, authentication)")
+    public ResponseEntity<StreamingResponseBody> exportByCourseAndDatePeriod(@PathVariable long courseId, @RequestParam String fromDate,
+                                                                             @RequestParam String toDate) {
+        LocalDate parsedFromDate = parseStringToLocalDate(fromDate);
+        LocalDate parsedToDate = parseStringToLocalDate(toDate);
+        StreamingResponseBody body = outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            service.exportAttendancesToCsv(courseId, parsedFromDate, parsedToDate, writer);
+        };
+        return ResponseEntity.ok()
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("attendances-%d-%s-%s.csv".formatted(courseId, parsedFromDate, parsedToDate))
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
+    @GetMapping("/export")
+    @PreAuthorize("@accessChecker.readCoursesAccess(#courseIds, authentication)")
+    public ResponseEntity<StreamingResponseBody> exportByCoursesAndDatePeriod(@RequestParam("courseId") List<Long> courseIds,
+                                                                              @RequestParam String fromDate,
+                                                                              @RequestParam String toDate) {
         LocalDate parsedFromDate = parseStringToLocalDate(fromDate);
         LocalDate parsedToDate = parseStringToLocalDate(toDate);
-        return service.getAttendancesTableByDatePeriodAndGroup(courseId, groupId, parsedFromDate, parsedToDate);
+        StreamingResponseBody body = outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            service.exportAttendancesToCsv(courseIds, parsedFromDate, parsedToDate, writer);
+        };
+        return ResponseEntity.ok()
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("attendances-%s-%s.csv".formatted(parsedFromDate, parsedToDate))
+                        .build()
+                        .toString())
+                .body(body);
     }
 
     @GetMapping("/conflicts/{courseId}")
@@ -105,6 +173,12 @@ public class AttendanceController {
                 .toList());
     }
 
+    @PostMapping(value = "/import", consumes = "text/csv")
+    @PreAuthorize("@accessChecker.importAttendanceAccess(authentication)")
+    public AttendanceImportDto importFromCsv(InputStream body) {
+        return service.importFromCsv(new InputStreamReader(body, StandardCharsets.UTF_8));
+    }
+
     @PostMapping("/table/{courseId}")
     @PreAuthorize("@accessChecker.readCourseAccess(#courseId, authentication)")
     public TableDto saveTableToAttendances(@RequestBody TableRestDto dto, @PathVariable long courseId, @RequestParam String fromDate,
@@ -2,11 +2,14 @@ package com.a6raywa1cher.coursejournalbackend.rest;
 
 import com.a6raywa1cher.coursejournalbackend.dto.CourseDto;
 import com.a6raywa1cher.coursejournalbackend.dto.CourseFullDto;
+import com.a6raywa1cher.coursejournalbackend.model.Course;
 import com.a6raywa1cher.coursejournalbackend.rest.dto.CourseRestDto;
 import com.a6raywa1cher.coursejournalbackend.rest.dto.MapStructRestDtoMapper;
 import com.a6raywa1cher.coursejournalbackend.rest.dto.groups.OnCreate;
 import com.a6raywa1cher.coursejournalbackend.rest.dto.groups.OnPatch;
 import com.a6raywa1cher.coursejournalbackend.rest.dto.groups.OnUpdate;
+import com.a6raywa1cher.coursejournalbackend.security.AccessChecker;
+import com.a6raywa1cher.coursejournalbackend.security.ActionType;
 import com.a6raywa1cher.coursejournalbackend.service.CourseService;
 import org.springdoc.api.annotations.ParameterObject;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,11 +18,13 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.annotation.Secured;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Pattern;
+import java.util.List;
 
 import static com.a6raywa1cher.coursejournalbackend.validation.RegexLibrary.COMMON_NAME;
 
@@ -28,11 +33,13 @@ import static com.a6raywa1cher.coursejournalbackend.validation.RegexLibrary.COMM
 public class CourseController {
     private final CourseService service;
     private final MapStructRestDtoMapper mapper;
+    private final AccessChecker accessChecker;
 
     @Autowired
-    public CourseController(CourseService service, MapStructRestDtoMapper mapper) {
+    public CourseController(CourseService service, MapStructRestDtoMapper mapper, AccessChecker accessChecker) {
         this.service = service;
         this.mapper = mapper;
+        this.accessChecker = accessChecker;
     }
 
     @GetMapping("/")
@@ -47,6 +54,13 @@ public class CourseController {
         return service.getById(id);
     }
 
+    // the readable ones of the requested courses, checked with one ownership query for the whole list
+    @GetMapping("/batch")
+    @PreAuthorize("isAuthenticated()")
+    public List<CourseDto> getAllById(@RequestParam List<Long> ids, Authentication authentication) {
+        return service.getAllById(accessChecker.getPermittedIds(ids, Course.class, ActionType.READ, authentication));
+    }
+
     @GetMapping("/name")
     @Secured("ROLE_ADMIN")
     public Page<CourseDto> findByName(@RequestParam @Pattern(regexp = COMMON_NAME) @Valid String query,
@@ -1,5 +1,8 @@
 package com.a6raywa1cher.coursejournalbackend.rest;
 
+import com.a6raywa1cher.coursejournalbackend.dto.CourseStudentScoreDto;
+import com.a6raywa1cher.coursejournalbackend.dto.GradeSheetDto;
+import com.a6raywa1cher.coursejournalbackend.dto.SubmissionDeltaDto;
 import com.a6raywa1cher.coursejournalbackend.dto.SubmissionDto;
 import com.a6raywa1cher.coursejournalbackend.rest.dto.BatchSetSubmissionsForCourseRestDto;
 import com.a6raywa1cher.coursejournalbackend.rest.dto.BatchSetSubmissionsForStudentAndCourseRestDto;
@@ -9,14 +12,19 @@ import com.a6raywa1cher.coursejournalbackend.rest.dto.groups.OnCreate;
 import com.a6raywa1cher.coursejournalbackend.rest.dto.groups.OnPatch;
 import com.a6raywa1cher.coursejournalbackend.rest.dto.groups.OnUpdate;
 import com.a6raywa1cher.coursejournalbackend.service.SubmissionService;
+import org.springdoc.api.annotations.ParameterObject;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
+import java.time.ZonedDateTime;
 import java.util.Comparator;
 import java.util.List;
 
@@ -50,6 +58,27 @@ public class SubmissionController {
         return service.getByCourse(id, Sort.by("id"));
     }
 
+    @GetMapping(value = "/course/{id}", params = "since")
+    @PreAuthorize("@accessChecker.readCourseAccess(#id, authentication)")
+    public SubmissionDeltaDto getByCourseModifiedSince(@PathVariable long id,
+                                                       @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime since) {
+        return service.getByCourseModifiedSince(id, since);
+    }
+
+    @GetMapping("/course/{id}/sheet")
+    @PreAuthorize("@accessChecker.readCourseAccess(#id, authentication)")
+    public GradeSheetDto getGradeSheetByCourse(@PathVariable long id) {
+        return service.getGradeSheetByCourse(id);
+    }
+
+    @GetMapping("/course/{id}/ranking")
+    @PreAuthorize("@accessChecker.readCourseAccess(#id, authentication)")
+    public Page<CourseStudentScoreDto> getRankingByCourse(@PathVariable long id,
+                                                          @RequestParam(defaultValue = "DESC") Sort.Direction direction,
+                                                          @ParameterObject Pageable pageable) {
+        return service.getRankingByCourse(id, direction, pageable);
+    }
+
     @GetMapping("/course/{cid}/student/{sid}")
     @PreAuthorize("@accessChecker.readCourseAccess(#cid, authentication)")
     public List<SubmissionDto> getByCourseAndStudent(@PathVariable long cid, @PathVariable long sid) {
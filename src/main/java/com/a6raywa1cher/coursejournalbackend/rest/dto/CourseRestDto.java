@@ -1,5 +1,6 @@
 package com.a6raywa1cher.coursejournalbackend.rest.dto;
 
+import com.a6raywa1cher.coursejournalbackend.model.ScoringPolicy;
 import com.a6raywa1cher.coursejournalbackend.rest.dto.groups.OnCreate;
 import com.a6raywa1cher.coursejournalbackend.rest.dto.groups.OnUpdate;
 import com.a6raywa1cher.coursejournalbackend.validation.RegexLibrary;
@@ -25,4 +26,6 @@ public class CourseRestDto {
     @NotNull(groups = {OnCreate.class, OnUpdate.class})
     @UniqueElements
     private List<Long> students;
+
+    private ScoringPolicy scoringPolicy;
 }
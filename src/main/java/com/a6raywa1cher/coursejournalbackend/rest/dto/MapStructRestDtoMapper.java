@@ -22,6 +22,7 @@ public interface MapStructRestDtoMapper {
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "lastModifiedAt", ignore = true)
+    @Mapping(target = "scoresPending", ignore = true)
     TaskDto map(TaskRestDto dto);
 
     ShortTaskRestDto map(TaskDto dto);
@@ -102,5 +103,6 @@ public interface MapStructRestDtoMapper {
     @Mapping(target = "mainScore", ignore = true)
     SubmissionDto map(BatchSetSubmissionsForCourseRestDto.SubmissionSetForCourseRestDto dto);
 
+    @Mapping(target = "next", ignore = true)
     TableDto map(TableRestDto dto);
 }
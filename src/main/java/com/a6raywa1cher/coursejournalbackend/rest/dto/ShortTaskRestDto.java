@@ -31,4 +31,6 @@ public class ShortTaskRestDto {
     private ZonedDateTime createdAt;
 
     private ZonedDateTime lastModifiedAt;
+
+    private Boolean scoresPending;
 }
@@ -7,70 +7,33 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
 
-import javax.persistence.EntityManager;
-import java.util.Objects;
-import java.util.Optional;
-
-import static com.a6raywa1cher.coursejournalbackend.security.Permission.*;
+import java.util.*;
 
 @Component
 public class AccessChecker {
     private final CourseRepository courseRepository;
-    private final EntityManager em;
+    private final OwnershipResolver ownershipResolver;
 
     @Autowired
-    public AccessChecker(CourseRepository courseRepository, EntityManager em) {
+    public AccessChecker(CourseRepository courseRepository, OwnershipResolver ownershipResolver) {
         this.courseRepository = courseRepository;
-        this.em = em;
+        this.ownershipResolver = ownershipResolver;
     }
 
     private boolean isHeadman(Authentication authentication) {
-        return authentication != null && authentication.getAuthorities()
-                .stream()
-                .anyMatch(ga -> ga.getAuthority().equals("ROLE_HEADMAN"));
+        return PermissionIndex.of(authentication).hasAuthority("ROLE_HEADMAN");
     }
 
     private boolean isTeacher(Authentication authentication) {
-        return authentication != null && authentication.getAuthorities()
-                .stream()
-                .anyMatch(ga -> ga.getAuthority().equals("ROLE_TEACHER"));
+        return PermissionIndex.of(authentication).hasAuthority("ROLE_TEACHER");
     }
 
     private boolean isAdmin(Authentication authentication) {
-        return authentication != null && authentication.getAuthorities()
-                .stream()
-                .anyMatch(ga -> ga.getAuthority().equals("ROLE_ADMIN"));
-    }
-
-    private <T> String getPermission(T entity, ActionType type) {
-        if (entity instanceof Course course) {
-            return getPermissionForCourse(course, type);
-        } else if (entity instanceof Task task) {
-            return getPermissionForCourse(task.getCourse(), type);
-        } else if (entity instanceof Student student) {
-            return getPermissionForGroup(student.getGroup(), type);
-        } else if (entity instanceof Criteria criteria) {
-            return getPermissionForCourse(criteria.getTask().getCourse(), type);
-        } else if (entity instanceof Employee employee) {
-            return getPermissionForEmployee(employee, type);
-        } else if (entity instanceof AuthUser authUser) {
-            return getPermissionForAuthUser(authUser, type);
-        } else if (entity instanceof Attendance attendance) {
-            return getPermissionForCourse(attendance.getCourse(), type);
-        } else if (entity instanceof Submission submission) {
-            return getPermissionForCourse(submission.getTask().getCourse(), type);
-        } else if (entity instanceof CourseToken courseToken) {
-            return getPermissionForCourse(courseToken.getCourse(), type);
-        } else if (entity instanceof Group group) {
-            return getPermissionForGroup(group, type);
-        } else {
-            throw new IllegalArgumentException("Unknown entity " + entity.getClass().getSimpleName());
-        }
+        return PermissionIndex.of(authentication).hasAuthority("ROLE_ADMIN");
     }
 
     private boolean hasAuthority(String authority, Authentication authentication) {
-        return authentication.getAuthorities()
-                .stream().anyMatch(ga -> ga.getAuthority().equals(authority));
+        return PermissionIndex.of(authentication).hasAuthority(authority);
     }
 
     public <T> boolean hasAuthority(Long id, Class<T> clazz, String type, Authentication authentication) {
@@ -79,9 +42,36 @@ public class AccessChecker {
 
     public <T> boolean hasAuthority(Long id, Class<T> clazz, ActionType type, Authentication authentication) {
         if (id == null) return false;
-        if (isAdmin(authentication)) return true;
-        T byId = em.find(clazz, id);
-        return byId == null || hasAuthority(getPermission(byId, type), authentication);
+        PermissionIndex index = PermissionIndex.of(authentication);
+        if (index.hasAuthority("ROLE_ADMIN")) return true;
+        // missing entities are let through, the controller answers with 404
+        return ownershipResolver.resolve(clazz, id)
+                .map(owner -> owner.id() != null && index.has(owner.target(), owner.id(), type))
+                .orElse(true);
+    }
+
+    public <T> Set<Long> getPermittedIds(Collection<Long> ids, Class<T> clazz, String type, Authentication authentication) {
+        return getPermittedIds(ids, clazz, ActionType.valueOf(type), authentication);
+    }
+
+    /**
+     * Batch counterpart of {@link #hasAuthority(Long, Class, ActionType, Authentication)}: ownership of all ids
+     * is resolved with a single query. Like the single check, ids of missing entities are permitted.
+     *
+     * @return the permitted ids in the order of {@code ids}
+     */
+    public <T> Set<Long> getPermittedIds(Collection<Long> ids, Class<T> clazz, ActionType type, Authentication authentication) {
+        PermissionIndex index = PermissionIndex.of(authentication);
+        Map<Long, OwnershipResolver.Owner> owners = ownershipResolver.resolveAll(clazz, ids);
+        boolean admin = index.hasAuthority("ROLE_ADMIN");
+        Set<Long> out = new LinkedHashSet<>();
+        for (Long id : ids) {
+            OwnershipResolver.Owner owner = owners.get(id);
+            if (admin || owner == null || owner.id() != null && index.has(owner.target(), owner.id(), type)) {
+                out.add(id);
+            }
+        }
+        return out;
     }
 
     // ================================================================================================================
@@ -99,6 +89,11 @@ public class AccessChecker {
         return hasAuthority(id, Course.class, ActionType.READ, authentication);
     }
 
+    public boolean readCoursesAccess(Collection<Long> ids, Authentication authentication) {
+        if (ids == null || ids.isEmpty() || ids.contains(null)) return false;
+        return getPermittedIds(ids, Course.class, ActionType.READ, authentication).containsAll(ids);
+    }
+
     public boolean readCourseByHeadman(Long id, Authentication authentication) {
         return isAdmin(authentication) || isHeadman(authentication) && hasAuthority(id, Group.class, ActionType.READ, authentication);
     }
@@ -228,6 +223,10 @@ public class AccessChecker {
         return hasAuthority(id, Attendance.class, ActionType.WRITE, authentication);
     }
 
+    public boolean importAttendanceAccess(Authentication authentication) {
+        return isAdmin(authentication);
+    }
+
     public boolean createFacultyAccess(Authentication authentication) {
         return isAdmin(authentication);
     }
@@ -0,0 +1,42 @@
+package com.a6raywa1cher.coursejournalbackend.security;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Version of whatever the granted authorities of a user are computed from: the user itself (role, linked student
+ * and their group) and, for teachers, the employee's owned courses. It is kept in {@code auth_user.authority_version}
+ * and read on every request, so a change made through any instance reaches all of them.
+ * {@link GrantedAuthorityServiceImpl} keeps a snapshot per user and rebuilds it once the version it was built at moves.
+ * Whoever changes these must bump the version in the changing transaction; a rolled back change rolls the bump back.
+ */
+@Component
+public class AuthorityVersions {
+    private static final String GET_SQL = "select authority_version from auth_user where id = ?";
+
+    private static final String BUMP_USER_SQL = "update auth_user set authority_version = authority_version + 1 where id = ?";
+
+    private static final String BUMP_EMPLOYEE_SQL =
+            "update auth_user set authority_version = authority_version + 1 where employee_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AuthorityVersions(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public long ofUser(long authUserId) {
+        List<Long> versions = jdbcTemplate.queryForList(GET_SQL, Long.class, authUserId);
+        return versions.isEmpty() ? 0 : versions.get(0);
+    }
+
+    public void bumpUser(long authUserId) {
+        jdbcTemplate.update(BUMP_USER_SQL, authUserId);
+    }
+
+    public void bumpEmployee(long employeeId) {
+        jdbcTemplate.update(BUMP_EMPLOYEE_SQL, employeeId);
+    }
+}
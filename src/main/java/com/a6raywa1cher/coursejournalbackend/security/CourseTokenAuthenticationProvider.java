@@ -1,6 +1,5 @@
 package com.a6raywa1cher.coursejournalbackend.security;
 
-import com.a6raywa1cher.coursejournalbackend.dto.CourseTokenDto;
 import com.a6raywa1cher.coursejournalbackend.service.CourseTokenService;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -27,12 +26,11 @@ public class CourseTokenAuthenticationProvider implements AuthenticationProvider
         try {
             CourseTokenAuthentication auth = (CourseTokenAuthentication) authentication;
             String token = auth.getCredentials();
-            Optional<CourseTokenDto> byToken = courseTokenService.findByToken(token);
+            Optional<Long> byToken = courseTokenService.findCourseIdByToken(token);
             if (byToken.isEmpty()) {
                 throw new BadCredentialsException("Token isn't valid");
             }
-            CourseTokenDto courseTokenDto = byToken.get();
-            Long course = courseTokenDto.getCourse();
+            Long course = byToken.get();
             List<GrantedAuthority> grantedAuthorityList = List.of(
                     new SimpleGrantedAuthority(Permission.getPermissionForCourse(course, ActionType.READ)),
                     new SimpleGrantedAuthority("ANONYMOUS_COURSE_TOKEN")
@@ -4,25 +4,41 @@ import com.a6raywa1cher.coursejournalbackend.model.AuthUser;
 import com.a6raywa1cher.coursejournalbackend.model.Employee;
 import com.a6raywa1cher.coursejournalbackend.model.UserRole;
 import com.a6raywa1cher.coursejournalbackend.model.repo.CourseRepository;
+import com.a6raywa1cher.coursejournalbackend.utils.BoundedCache;
 import com.a6raywa1cher.jsonrestsecurity.component.authority.GrantedAuthorityService;
 import com.a6raywa1cher.jsonrestsecurity.component.checker.UserEnabledChecker;
 import com.a6raywa1cher.jsonrestsecurity.dao.model.IUser;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.util.*;
 
 import static com.a6raywa1cher.coursejournalbackend.security.Permission.*;
 
+/**
+ * Authorities are computed once per user and kept as a snapshot until the {@link AuthorityVersions} version
+ * it was built at moves, so steady-state requests read a single version instead of owned courses or
+ * the headman's group.
+ */
 @Service
 public class GrantedAuthorityServiceImpl implements GrantedAuthorityService {
     private final UserEnabledChecker userEnabledChecker;
     private final CourseRepository courseRepository;
+    private final AuthorityVersions versions;
+    private final BoundedCache<Long, Snapshot> snapshots;
 
-    public GrantedAuthorityServiceImpl(UserEnabledChecker userEnabledChecker, CourseRepository courseRepository) {
+    public GrantedAuthorityServiceImpl(UserEnabledChecker userEnabledChecker, CourseRepository courseRepository,
+                                       AuthorityVersions versions, MeterRegistry meterRegistry,
+                                       @Value("${app.authority-cache.maximum-size:10000}") int maximumSize,
+                                       @Value("${app.authority-cache.ttl:PT1H}") Duration ttl) {
         this.userEnabledChecker = userEnabledChecker;
         this.courseRepository = courseRepository;
+        this.versions = versions;
+        this.snapshots = new BoundedCache<Long, Snapshot>(maximumSize, ttl).registerMetrics(meterRegistry, "authorities");
     }
 
     private static GrantedAuthority newAuthority(String authority) {
@@ -69,13 +85,36 @@ public class GrantedAuthorityServiceImpl implements GrantedAuthorityService {
             throw new IllegalArgumentException("Unknown class " + iUser.getUsername());
         }
         AuthUser authUser = (AuthUser) iUser;
+        Snapshot snapshot = getSnapshot(authUser);
+        return userEnabledChecker.check(authUser) ? snapshot.enabled() : snapshot.disabled();
+    }
+
+    private Snapshot getSnapshot(AuthUser authUser) {
+        long userId = authUser.getId();
+        UserRole role = authUser.getUserRole();
+        Long employeeId = role == UserRole.TEACHER ? authUser.getEmployee().getId() : null;
+        // read before building, so a change committed meanwhile isn't hidden behind the new snapshot
+        long version = versions.ofUser(userId);
+
+        Snapshot snapshot = snapshots.getIfPresent(userId);
+        if (snapshot != null && snapshot.role() == role && Objects.equals(snapshot.employeeId(), employeeId) &&
+                snapshot.version() == version) {
+            return snapshot;
+        }
+
         Set<GrantedAuthority> set = getDirectAuthorities(authUser);
-        if (authUser.getUserRole() == UserRole.TEACHER) {
+        if (role == UserRole.TEACHER) {
             set.addAll(getCourseOwnedAuthorities(authUser.getEmployee()));
         }
-        if (userEnabledChecker.check(authUser)) {
-            set.add(new SimpleGrantedAuthority("ENABLED"));
-        }
-        return Collections.unmodifiableSet(set);
+        Set<GrantedAuthority> enabled = new HashSet<>(set);
+        enabled.add(new SimpleGrantedAuthority("ENABLED"));
+        snapshot = new Snapshot(role, employeeId, version,
+                Collections.unmodifiableSet(set), Collections.unmodifiableSet(enabled));
+        snapshots.put(userId, snapshot);
+        return snapshot;
+    }
+
+    private record Snapshot(UserRole role, Long employeeId, long version,
+                            Set<GrantedAuthority> disabled, Set<GrantedAuthority> enabled) {
     }
 }
@@ -0,0 +1,171 @@
+package com.a6raywa1cher.coursejournalbackend.security;
+
+import com.a6raywa1cher.coursejournalbackend.model.*;
+import com.a6raywa1cher.coursejournalbackend.utils.BoundedCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.EntityManager;
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Resolves an entity id to the course, group, employee or user whose permissions guard it, with a single
+ * projection query instead of loading the entity graph. Resolutions are kept in a {@link BoundedCache},
+ * whoever deletes an entity or moves it to another owner must invalidate it. Like {@link
+ * com.a6raywa1cher.coursejournalbackend.component.TaskScoringContextCache}, entries are dropped once more
+ * when the changing transaction completes.
+ * <p>
+ * Invalidation reaches only this instance, so the application is meant to run as a single instance. Another
+ * instance would keep serving an entry changed elsewhere for up to {@code app.ownership-cache.ttl}.
+ * <p>
+ * Hits and misses are published as the {@code cache.gets} meters with the {@code cache=ownership} tag.
+ */
+@Component
+public class OwnershipResolver {
+    private static final Map<Class<?>, Resolution> RESOLUTIONS = Map.of(
+            Course.class, new Resolution(PermissionTarget.COURSE, "Course c", "c.id", "c.id"),
+            Task.class, new Resolution(PermissionTarget.COURSE, "Task t", "t.id", "t.course.id"),
+            Criteria.class, new Resolution(PermissionTarget.COURSE, "Criteria c", "c.id", "c.task.course.id"),
+            Submission.class, new Resolution(PermissionTarget.COURSE, "Submission s", "s.id", "s.task.course.id"),
+            Attendance.class, new Resolution(PermissionTarget.COURSE, "Attendance a", "a.id", "a.course.id"),
+            CourseToken.class, new Resolution(PermissionTarget.COURSE, "CourseToken t", "t.id", "t.course.id"),
+            Student.class, new Resolution(PermissionTarget.GROUP, "Student s left join s.group g", "s.id", "g.id"),
+            Group.class, new Resolution(PermissionTarget.GROUP, "Group g", "g.id", "g.id"),
+            Employee.class, new Resolution(PermissionTarget.EMPLOYEE, "Employee e", "e.id", "e.id"),
+            AuthUser.class, new Resolution(PermissionTarget.AUTHUSER, "AuthUser u", "u.id", "u.id")
+    );
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final EntityManager em;
+
+    private final BoundedCache<Key, Owner> cache;
+
+    public OwnershipResolver(EntityManager em, MeterRegistry meterRegistry,
+                             @Value("${app.ownership-cache.maximum-size:10000}") int maximumSize,
+                             @Value("${app.ownership-cache.ttl:PT10M}") Duration ttl) {
+        this.em = em;
+        this.cache = new BoundedCache<Key, Owner>(maximumSize, ttl).registerMetrics(meterRegistry, "ownership");
+    }
+
+    /**
+     * @return empty if the entity doesn't exist
+     */
+    public Optional<Owner> resolve(Class<?> type, long id) {
+        return Optional.ofNullable(cache.get(new Key(type, id), this::load));
+    }
+
+    /**
+     * Batch counterpart of {@link #resolve}: cached ids are served from the cache, the rest is resolved
+     * with one {@code in} query per {@value #BATCH_SIZE} ids.
+     *
+     * @return owners by id, ids of missing entities are absent
+     */
+    public Map<Long, Owner> resolveAll(Class<?> type, Collection<Long> ids) {
+        Resolution resolution = getResolution(type);
+        Map<Long, Owner> out = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        long loadedAt = cache.generation();
+        for (Long id : new LinkedHashSet<>(ids)) {
+            if (id == null) continue;
+            Owner cached = cache.getIfPresent(new Key(type, id));
+            if (cached != null) {
+                out.put(id, cached);
+            } else {
+                missing.add(id);
+            }
+        }
+        for (int from = 0; from < missing.size(); from += BATCH_SIZE) {
+            List<Long> chunk = missing.subList(from, Math.min(from + BATCH_SIZE, missing.size()));
+            List<Object[]> rows = em.createQuery(resolution.batchQuery(), Object[].class)
+                    .setParameter("ids", chunk)
+                    .getResultList();
+            for (Object[] row : rows) {
+                long id = ((Number) row[0]).longValue();
+                Owner owner = resolution.owner(row[1]);
+                cache.put(new Key(type, id), owner, loadedAt);
+                out.put(id, owner);
+            }
+        }
+        return out;
+    }
+
+    public void invalidate(Class<?> type, long id) {
+        Key key = new Key(type, id);
+        cache.invalidate(key);
+        afterCompletion(() -> cache.invalidate(key));
+    }
+
+    /**
+     * Drops every entity guarded by the given owner, e.g. everything in a course.
+     */
+    public void invalidateOwnedBy(PermissionTarget target, long id) {
+        Owner owner = new Owner(target, id);
+        cache.invalidateIf((k, v) -> owner.equals(v));
+        afterCompletion(() -> cache.invalidateIf((k, v) -> owner.equals(v)));
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+        afterCompletion(cache::invalidateAll);
+    }
+
+    private Owner load(Key key) {
+        Resolution resolution = getResolution(key.type());
+        List<?> result = em.createQuery(resolution.query())
+                .setParameter("id", key.id())
+                .getResultList();
+        if (result.isEmpty()) return null;
+        return resolution.owner(result.get(0));
+    }
+
+    private Resolution getResolution(Class<?> type) {
+        Resolution resolution = RESOLUTIONS.get(type);
+        if (resolution == null) {
+            throw new IllegalArgumentException("Unknown entity " + type.getSimpleName());
+        }
+        return resolution;
+    }
+
+    private void afterCompletion(Runnable runnable) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) return;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                runnable.run();
+            }
+        });
+    }
+
+    /**
+     * @param id null if the entity has no owner, e.g. a student without a group
+     */
+    public record Owner(PermissionTarget target, Long id) {
+    }
+
+    private record Key(Class<?> type, long id) {
+    }
+
+    /**
+     * @param from  entity with alias, joins included
+     * @param id    path of the entity id
+     * @param owner path of the owner id
+     */
+    private record Resolution(PermissionTarget target, String from, String id, String owner) {
+        String query() {
+            return "select " + owner + " from " + from + " where " + id + " = :id";
+        }
+
+        String batchQuery() {
+            return "select " + id + ", " + owner + " from " + from + " where " + id + " in (:ids)";
+        }
+
+        Owner owner(Object ownerId) {
+            return new Owner(target, ownerId != null ? ((Number) ownerId).longValue() : null);
+        }
+    }
+}
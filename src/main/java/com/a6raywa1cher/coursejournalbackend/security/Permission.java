@@ -6,8 +6,12 @@ import com.a6raywa1cher.coursejournalbackend.model.Employee;
 import com.a6raywa1cher.coursejournalbackend.model.Group;
 
 public final class Permission {
+    public static String getPermission(PermissionTarget target, long id, ActionType type) {
+        return target.name() + '_' + id + '_' + type.name();
+    }
+
     public static String getPermissionForCourse(long id, ActionType type) {
-        return "COURSE_%s_%s".formatted(id, type);
+        return getPermission(PermissionTarget.COURSE, id, type);
     }
 
     public static String getPermissionForCourse(Course course, ActionType type) {
@@ -15,7 +19,7 @@ public final class Permission {
     }
 
     public static String getPermissionForEmployee(long id, ActionType type) {
-        return "EMPLOYEE_%s_%s".formatted(id, type);
+        return getPermission(PermissionTarget.EMPLOYEE, id, type);
     }
 
     public static String getPermissionForEmployee(Employee employee, ActionType type) {
@@ -23,7 +27,7 @@ public final class Permission {
     }
 
     public static String getPermissionForAuthUser(long id, ActionType type) {
-        return "AUTHUSER_%s_%s".formatted(id, type);
+        return getPermission(PermissionTarget.AUTHUSER, id, type);
     }
 
     public static String getPermissionForAuthUser(AuthUser authUser, ActionType type) {
@@ -31,7 +35,7 @@ public final class Permission {
     }
 
     public static String getPermissionForGroup(long id, ActionType type) {
-        return "GROUP_%s_%s".formatted(id, type);
+        return getPermission(PermissionTarget.GROUP, id, type);
     }
 
     public static String getPermissionForGroup(Group group, ActionType type) {
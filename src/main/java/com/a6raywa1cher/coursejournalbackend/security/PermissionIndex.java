@@ -0,0 +1,109 @@
+package com.a6raywa1cher.coursejournalbackend.security;
+
+import com.a6raywa1cher.coursejournalbackend.utils.LongHashSet;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Authorities of an authentication, parsed once: id-scoped permissions (see {@link Permission}) go to
+ * a primitive id set per target and action, everything else (roles, flags) to a plain string set.
+ * Immutable after construction.
+ */
+public final class PermissionIndex {
+    private static final PermissionTarget[] TARGETS = PermissionTarget.values();
+
+    private static final ActionType[] ACTIONS = ActionType.values();
+
+    private static final PermissionIndex EMPTY = new PermissionIndex(List.of());
+
+    // checks of the same request reuse the index built by the first one, it goes away with the request
+    private static final String REQUEST_ATTRIBUTE = PermissionIndex.class.getName();
+
+    private final LongHashSet[] ids = new LongHashSet[TARGETS.length * ACTIONS.length];
+
+    private final Set<String> other = new HashSet<>();
+
+    private PermissionIndex(Collection<? extends GrantedAuthority> authorities) {
+        for (GrantedAuthority authority : authorities) {
+            String value = authority.getAuthority();
+            if (value != null && !addPermission(value)) {
+                other.add(value);
+            }
+        }
+    }
+
+    public static PermissionIndex of(Collection<? extends GrantedAuthority> authorities) {
+        return new PermissionIndex(authorities);
+    }
+
+    /**
+     * @return the index of the authentication's authorities, kept in the current request and rebuilt when
+     * they are another collection than the last time in it; outside of a request built on every call
+     */
+    public static PermissionIndex of(Authentication authentication) {
+        if (authentication == null) return EMPTY;
+        Collection<? extends GrantedAuthority> authorities = authentication.getAuthorities();
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request == null) return new PermissionIndex(authorities);
+        if (request.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof CachedIndex cached &&
+                cached.authorities() == authorities) {
+            return cached.index();
+        }
+        PermissionIndex index = new PermissionIndex(authorities);
+        request.setAttribute(REQUEST_ATTRIBUTE, new CachedIndex(authorities, index), RequestAttributes.SCOPE_REQUEST);
+        return index;
+    }
+
+    public boolean has(PermissionTarget target, long id, ActionType type) {
+        LongHashSet set = ids[slot(target, type)];
+        return set != null && set.contains(id);
+    }
+
+    public boolean hasAuthority(String authority) {
+        return other.contains(authority);
+    }
+
+    // TARGET_ID_ACTION, e.g. COURSE_12_WRITE
+    private boolean addPermission(String value) {
+        int first = value.indexOf('_');
+        if (first < 0) return false;
+        PermissionTarget target = find(TARGETS, value, 0, first);
+        if (target == null) return false;
+        int second = value.indexOf('_', first + 1);
+        if (second < 0 || second == first + 1) return false;
+        long id = 0;
+        for (int i = first + 1; i < second; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') return false;
+            id = id * 10 + (c - '0');
+        }
+        ActionType type = find(ACTIONS, value, second + 1, value.length());
+        if (type == null) return false;
+        int slot = slot(target, type);
+        if (ids[slot] == null) ids[slot] = new LongHashSet();
+        ids[slot].add(id);
+        return true;
+    }
+
+    private static <E extends Enum<E>> E find(E[] values, String value, int from, int to) {
+        for (E e : values) {
+            String name = e.name();
+            if (name.length() == to - from && value.startsWith(name, from)) return e;
+        }
+        return null;
+    }
+
+    private static int slot(PermissionTarget target, ActionType type) {
+        return target.ordinal() * ACTIONS.length + type.ordinal();
+    }
+
+    private record CachedIndex(Collection<? extends GrantedAuthority> authorities, PermissionIndex index) {
+    }
+}
@@ -0,0 +1,8 @@
+package com.a6raywa1cher.coursejournalbackend.security;
+
+/**
+ * Kind of entity an id-scoped permission is granted on, the name is the prefix of the authority string.
+ */
+public enum PermissionTarget {
+    COURSE, EMPLOYEE, AUTHUSER, GROUP
+}
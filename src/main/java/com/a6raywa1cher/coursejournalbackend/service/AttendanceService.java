@@ -2,11 +2,17 @@ package com.a6raywa1cher.coursejournalbackend.service;
 
 import com.a6raywa1cher.coursejournalbackend.dto.AttendanceConflictListDto;
 import com.a6raywa1cher.coursejournalbackend.dto.AttendanceDto;
+import com.a6raywa1cher.coursejournalbackend.dto.AttendanceImportDto;
+import com.a6raywa1cher.coursejournalbackend.dto.AttendanceSummaryDto;
 import com.a6raywa1cher.coursejournalbackend.dto.TableDto;
 import com.a6raywa1cher.coursejournalbackend.model.Attendance;
 import org.springframework.data.domain.Sort;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,10 +25,21 @@ public interface AttendanceService {
 
     List<AttendanceDto> getByCourseId(long courseId, Sort sort);
 
+    List<AttendanceSummaryDto> getSummaryByCourseId(long courseId);
+
     TableDto getAttendancesTableByDatePeriod(long courseId, LocalDate start, LocalDate end);
 
     TableDto getAttendancesTableByDatePeriodAndGroup(long courseId, long groupId, LocalDate start, LocalDate end);
 
+    TableDto getAttendancesTablePageByDatePeriod(long courseId, LocalDate start, LocalDate end, String cursor, int limit);
+
+    TableDto getAttendancesTablePageByDatePeriodAndGroup(long courseId, long groupId, LocalDate start, LocalDate end,
+                                                         String cursor, int limit);
+
+    void exportAttendancesToCsv(long courseId, LocalDate fromDate, LocalDate toDate, Writer writer) throws IOException;
+
+    void exportAttendancesToCsv(Collection<Long> courseIds, LocalDate fromDate, LocalDate toDate, Writer writer) throws IOException;
+
     TableDto saveTableToAttendances(TableDto tableDto, long courseId, LocalDate fromDate, LocalDate toDate);
 
     AttendanceConflictListDto getAttendanceConflictsByDatePeriodAndClass(long courseId, LocalDate start, LocalDate end);
@@ -33,6 +50,8 @@ public interface AttendanceService {
 
     List<AttendanceDto> batchCreate(List<AttendanceDto> dtoList);
 
+    AttendanceImportDto importFromCsv(Reader csv);
+
     AttendanceDto update(long id, AttendanceDto dto);
 
     AttendanceDto patch(long id, AttendanceDto dto);
@@ -17,6 +17,11 @@ public interface CourseService {
 
     List<Course> findAllRawById(Collection<Long> id);
 
+    /**
+     * @return the existing courses in the order of {@code ids}, missing ones are skipped
+     */
+    List<CourseDto> getAllById(Collection<Long> ids);
+
     Page<CourseDto> getPage(Pageable pageable);
 
     Page<CourseDto> getByNameContains(String query, Pageable pageable);
@@ -13,6 +13,11 @@ public interface CourseTokenService {
 
     Optional<CourseTokenDto> findByToken(String token);
 
+    /**
+     * Cached, unknown tokens included.
+     */
+    Optional<Long> findCourseIdByToken(String token);
+
     CourseDto resolveToken(String token);
 
     CourseTokenDto getByCourseId(long courseId);
@@ -22,8 +22,12 @@ public interface StudentService {
 
     List<Student> getRawByCourseId(long courseId);
 
+    List<Long> getIdsByCourseId(long courseId);
+
     List<StudentDto> getByGroupId(long groupId, Sort sort);
 
+    List<StudentDto> getByCourseIdAndGroupId(long courseId, long groupId, Sort sort);
+
     StudentDto create(StudentDto dto);
 
     List<StudentDto> batchCreate(List<StudentDto> dtoList);
@@ -3,9 +3,20 @@ package com.a6raywa1cher.coursejournalbackend.service;
 import com.a6raywa1cher.coursejournalbackend.dto.CriteriaDto;
 import com.a6raywa1cher.coursejournalbackend.dto.SubmissionDto;
 import com.a6raywa1cher.coursejournalbackend.dto.TaskDto;
+import com.a6raywa1cher.coursejournalbackend.model.ScoringPolicy;
 
 import java.util.List;
 
 public interface SubmissionScoringService {
+    ScoringPolicy getPolicy();
+
     double getMainScore(SubmissionDto submission, TaskDto task, List<CriteriaDto> allCriteria);
+
+    /**
+     * Allocation-free variant for scoring many submissions of the same task.
+     *
+     * @param submittedAt          epoch second, see {@link TaskScoringContext#toEpochSecond}
+     * @param satisfiedCriteriaIds sorted ascending, only the first {@code count} elements are read
+     */
+    double getMainScore(TaskScoringContext task, long submittedAt, long[] satisfiedCriteriaIds, int count);
 }
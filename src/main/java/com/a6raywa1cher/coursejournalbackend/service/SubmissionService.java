@@ -1,9 +1,15 @@
 package com.a6raywa1cher.coursejournalbackend.service;
 
+import com.a6raywa1cher.coursejournalbackend.dto.CourseStudentScoreDto;
+import com.a6raywa1cher.coursejournalbackend.dto.GradeSheetDto;
+import com.a6raywa1cher.coursejournalbackend.dto.SubmissionDeltaDto;
 import com.a6raywa1cher.coursejournalbackend.dto.SubmissionDto;
 import com.a6raywa1cher.coursejournalbackend.model.Submission;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 
+import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,8 +22,17 @@ public interface SubmissionService {
 
     List<SubmissionDto> getByCourse(long courseId, Sort sort);
 
+    /**
+     * @return submissions modified at or after {@code since} and ids of the ones deleted since then
+     */
+    SubmissionDeltaDto getByCourseModifiedSince(long courseId, ZonedDateTime since);
+
     List<SubmissionDto> getByTask(long taskId, Sort sort);
 
+    GradeSheetDto getGradeSheetByCourse(long courseId);
+
+    Page<CourseStudentScoreDto> getRankingByCourse(long courseId, Sort.Direction direction, Pageable pageable);
+
     void recalculateMainScoreForTask(long taskId);
 
     SubmissionDto create(SubmissionDto dto);
@@ -0,0 +1,90 @@
+package com.a6raywa1cher.coursejournalbackend.service;
+
+import com.a6raywa1cher.coursejournalbackend.dto.CriteriaDto;
+import com.a6raywa1cher.coursejournalbackend.dto.TaskDto;
+import com.a6raywa1cher.coursejournalbackend.model.ScoringPolicy;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import static com.a6raywa1cher.coursejournalbackend.utils.CommonUtils.coalesce;
+
+/**
+ * Everything {@link SubmissionScoringService} needs to know about a task, precomputed once per task:
+ * the scoring policy of its course, deadlines as epoch seconds and criteria as an id-sorted {@code long[]}
+ * with matching percents. The arrays are never modified after construction.
+ *
+ * @param criteriaIds      sorted ascending
+ * @param criteriaPercents percent of {@code criteriaIds[i]} at index {@code i}
+ */
+public record TaskScoringContext(
+        ScoringPolicy policy,
+        int maxScore,
+        boolean deadlinesEnabled,
+        long softDeadline,
+        long hardDeadline,
+        int maxPenaltyPercent,
+        long[] criteriaIds,
+        int[] criteriaPercents,
+        int totalPercent
+) {
+    public static TaskScoringContext of(TaskDto task, List<CriteriaDto> allCriteria) {
+        return of(task, allCriteria, ScoringPolicy.LINEAR);
+    }
+
+    public static TaskScoringContext of(TaskDto task, List<CriteriaDto> allCriteria, ScoringPolicy policy) {
+        boolean deadlinesEnabled = Boolean.TRUE.equals(task.getDeadlinesEnabled()) &&
+                task.getSoftDeadlineAt() != null && task.getHardDeadlineAt() != null;
+        List<CriteriaDto> sorted = allCriteria.stream()
+                .sorted(Comparator.comparing(CriteriaDto::getId))
+                .toList();
+        long[] criteriaIds = new long[sorted.size()];
+        int[] criteriaPercents = new int[sorted.size()];
+        int totalPercent = 0;
+        for (int i = 0; i < sorted.size(); i++) {
+            criteriaIds[i] = sorted.get(i).getId();
+            criteriaPercents[i] = coalesce(sorted.get(i).getCriteriaPercent(), 0);
+            totalPercent += criteriaPercents[i];
+        }
+        return new TaskScoringContext(
+                coalesce(policy, ScoringPolicy.LINEAR),
+                coalesce(task.getMaxScore(), 0),
+                deadlinesEnabled,
+                deadlinesEnabled ? toEpochSecond(task.getSoftDeadlineAt()) : 0,
+                deadlinesEnabled ? toEpochSecond(task.getHardDeadlineAt()) : 0,
+                coalesce(task.getMaxPenaltyPercent(), 0),
+                criteriaIds,
+                criteriaPercents,
+                totalPercent
+        );
+    }
+
+    /**
+     * @param satisfiedCriteriaIds sorted ascending, only the first {@code count} elements are read
+     * @return sum of the percents of the given criteria, unknown ids are skipped
+     */
+    public int satisfiedPercent(long[] satisfiedCriteriaIds, int count) {
+        int percent = 0;
+        long previous = 0;
+        for (int i = 0; i < count; i++) {
+            long id = satisfiedCriteriaIds[i];
+            if (i > 0 && id == previous) continue;
+            previous = id;
+            int index = Arrays.binarySearch(criteriaIds, id);
+            if (index >= 0) percent += criteriaPercents[index];
+        }
+        return percent;
+    }
+
+    public static long toEpochSecond(ZonedDateTime dateTime) {
+        return dateTime.toEpochSecond();
+    }
+
+    public static long toEpochSecond(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneId.systemDefault().getRules().getOffset(dateTime));
+    }
+}
@@ -0,0 +1,93 @@
+package com.a6raywa1cher.coursejournalbackend.service.impl;
+
+import com.a6raywa1cher.coursejournalbackend.dto.CriteriaDto;
+import com.a6raywa1cher.coursejournalbackend.dto.SubmissionDto;
+import com.a6raywa1cher.coursejournalbackend.dto.TaskDto;
+import com.a6raywa1cher.coursejournalbackend.service.SubmissionScoringService;
+import com.a6raywa1cher.coursejournalbackend.service.TaskScoringContext;
+
+import java.util.List;
+
+import static com.a6raywa1cher.coursejournalbackend.service.TaskScoringContext.toEpochSecond;
+import static com.a6raywa1cher.coursejournalbackend.utils.CommonUtils.coalesce;
+
+/**
+ * Score is {@code maxScore * deadlineFactor * criteriaFactor} rounded to two decimal places, policies differ
+ * only in the deadline factor.
+ */
+public abstract class AbstractSubmissionScoringService implements SubmissionScoringService {
+    // 10 ^ scale, the score is rounded to two decimal places
+    private final static double SCALE_FACTOR = 100d;
+
+    private final static long SECONDS_PER_DAY = 24 * 60 * 60;
+
+    /**
+     * @param softDeadline      whole minutes since the origin, see {@link #calculateDeadlineFactorOfSeconds}
+     * @param hardDeadline      whole minutes since the origin, not before the soft one
+     * @param maxPenaltyPercent 0..100
+     * @param submitted         whole minutes since the origin
+     * @return multiplier of the score, 1 means no penalty
+     */
+    public abstract double calculateDeadlineFactor(long softDeadline, long hardDeadline, int maxPenaltyPercent, long submitted);
+
+    public double calculateDeadlineFactor(SubmissionDto submission, TaskDto task) {
+        return calculateDeadlineFactorOfSeconds(
+                toEpochSecond(task.getSoftDeadlineAt()),
+                toEpochSecond(task.getHardDeadlineAt()),
+                coalesce(task.getMaxPenaltyPercent(), 0),
+                toEpochSecond(submission.getSubmittedAt())
+        );
+    }
+
+    /**
+     * Counts whole minutes from a day before the earliest of the three moments, so minutes are relative to each
+     * other rather than to the epoch: 10:00:30 to 10:01:10 is 0 minutes late, not 1.
+     *
+     * @param softDeadline epoch second
+     * @param hardDeadline epoch second
+     * @param submitted    epoch second
+     */
+    public double calculateDeadlineFactorOfSeconds(long softDeadline, long hardDeadline, int maxPenaltyPercent, long submitted) {
+        long origin = Math.min(Math.min(softDeadline, hardDeadline), submitted) - SECONDS_PER_DAY;
+        return calculateDeadlineFactor(
+                (softDeadline - origin) / 60,
+                (hardDeadline - origin) / 60,
+                maxPenaltyPercent,
+                (submitted - origin) / 60
+        );
+    }
+
+    public double calculateCriteriaFactor(SubmissionDto submission, List<CriteriaDto> allCriteria) {
+        TaskScoringContext context = TaskScoringContext.of(TaskDto.builder().build(), allCriteria);
+        long[] satisfied = toSortedArray(submission.getSatisfiedCriteria());
+        return calculateCriteriaFactor(context, satisfied, satisfied.length);
+    }
+
+    public double calculateCriteriaFactor(TaskScoringContext task, long[] satisfiedCriteriaIds, int count) {
+        int allScore = task.totalPercent();
+        return allScore == 0 ? 1 : task.satisfiedPercent(satisfiedCriteriaIds, count) / ((double) allScore);
+    }
+
+    @Override
+    public double getMainScore(SubmissionDto submission, TaskDto task, List<CriteriaDto> allCriteria) {
+        long[] satisfied = toSortedArray(submission.getSatisfiedCriteria());
+        long submittedAt = submission.getSubmittedAt() != null ? toEpochSecond(submission.getSubmittedAt()) : 0;
+        return getMainScore(TaskScoringContext.of(task, allCriteria, getPolicy()), submittedAt, satisfied, satisfied.length);
+    }
+
+    @Override
+    public double getMainScore(TaskScoringContext task, long submittedAt, long[] satisfiedCriteriaIds, int count) {
+        if (task.maxScore() == 0) return 0d;
+        double p = task.deadlinesEnabled() ?
+                calculateDeadlineFactorOfSeconds(task.softDeadline(), task.hardDeadline(), task.maxPenaltyPercent(), submittedAt) :
+                1d;
+        double c = calculateCriteriaFactor(task, satisfiedCriteriaIds, count);
+
+        return Math.round(p * c * task.maxScore() * SCALE_FACTOR) / SCALE_FACTOR;
+    }
+
+    private long[] toSortedArray(List<Long> ids) {
+        if (ids == null) return new long[0];
+        return ids.stream().mapToLong(Long::longValue).sorted().toArray();
+    }
+}
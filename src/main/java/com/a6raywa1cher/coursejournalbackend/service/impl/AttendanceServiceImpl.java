@@ -2,42 +2,67 @@ package com.a6raywa1cher.coursejournalbackend.service.impl;
 
 import com.a6raywa1cher.coursejournalbackend.dto.AttendanceConflictListDto;
 import com.a6raywa1cher.coursejournalbackend.dto.AttendanceDto;
+import com.a6raywa1cher.coursejournalbackend.dto.AttendanceImportDto;
+import com.a6raywa1cher.coursejournalbackend.dto.AttendanceSummaryDto;
 import com.a6raywa1cher.coursejournalbackend.dto.StudentDto;
 import com.a6raywa1cher.coursejournalbackend.dto.TableDto;
+import com.a6raywa1cher.coursejournalbackend.dto.TableDtoBuilder;
 import com.a6raywa1cher.coursejournalbackend.dto.exc.*;
 import com.a6raywa1cher.coursejournalbackend.dto.mapper.MapStructMapper;
 import com.a6raywa1cher.coursejournalbackend.model.*;
+import com.a6raywa1cher.coursejournalbackend.model.repo.AttendanceCell;
+import com.a6raywa1cher.coursejournalbackend.model.repo.AttendanceColumn;
+import com.a6raywa1cher.coursejournalbackend.model.repo.AttendanceExportRow;
+import com.a6raywa1cher.coursejournalbackend.model.repo.AttendanceImportRow;
 import com.a6raywa1cher.coursejournalbackend.model.repo.AttendanceRepository;
+import com.a6raywa1cher.coursejournalbackend.model.repo.AttendanceSummaryDelta;
+import com.a6raywa1cher.coursejournalbackend.model.repo.AttendanceSummaryRepository;
+import com.a6raywa1cher.coursejournalbackend.security.OwnershipResolver;
 import com.a6raywa1cher.coursejournalbackend.service.AttendanceService;
 import com.a6raywa1cher.coursejournalbackend.service.CourseService;
 import com.a6raywa1cher.coursejournalbackend.service.GroupService;
 import com.a6raywa1cher.coursejournalbackend.service.StudentService;
 import com.a6raywa1cher.coursejournalbackend.utils.CommonUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
+import java.util.stream.Stream;
 
 @Service
 public class AttendanceServiceImpl implements AttendanceService {
     private final AttendanceRepository repository;
 
+    private final AttendanceSummaryRepository summaryRepository;
+
     private final MapStructMapper mapper;
 
+    private final OwnershipResolver ownershipResolver;
+
     private StudentService studentService;
 
     private CourseService courseService;
 
     private GroupService groupService;
 
-    public AttendanceServiceImpl(AttendanceRepository attendanceRepository, MapStructMapper mapper) {
+    public AttendanceServiceImpl(AttendanceRepository attendanceRepository, AttendanceSummaryRepository summaryRepository,
+                                 MapStructMapper mapper, OwnershipResolver ownershipResolver) {
         this.repository = attendanceRepository;
+        this.summaryRepository = summaryRepository;
         this.mapper = mapper;
+        this.ownershipResolver = ownershipResolver;
     }
 
     @Override
@@ -67,245 +92,151 @@ public class AttendanceServiceImpl implements AttendanceService {
                 .toList();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<AttendanceSummaryDto> getSummaryByCourseId(long courseId) {
+        Course course = getCourseById(courseId);
+        Map<Long, AttendanceSummaryDto> summaries = summaryRepository.getAllDtoByCourse(course).stream()
+                .collect(Collectors.toMap(AttendanceSummaryDto::getStudent, Function.identity()));
+        return course.getStudents().stream()
+                .map(Student::getId)
+                .sorted()
+                .map(id -> summaries.getOrDefault(id, new AttendanceSummaryDto(id, 0, 0)))
+                .toList();
+    }
+
     @Override
     public TableDto getAttendancesTableByDatePeriod(long courseId, LocalDate fromDate, LocalDate toDate) {
         assertFromDateBeforeToDate(fromDate, toDate);
-        Course course = getCourseById(courseId);
-        List<Attendance> attendances = repository.getAllByCourseAndAttendedDateBetween(
-                course,
-                fromDate,
-                toDate,
-                Sort.by("attendedDate", "attendedClass")
-        );
-        TableDto tableDto = new TableDto();
-        List<StudentDto> studentsDto = studentService.getByCourseId(courseId, Sort.by("id"));
-        if (attendances.size() == 0) {
-            for (StudentDto studentDto : studentsDto) {
-                String studentName = studentDto.getLastName() + ' ' + studentDto.getFirstName() + (studentDto.getMiddleName() != null ? ' ' + studentDto.getMiddleName() : "");
-                tableDto.addTableBodyElement(studentDto.getId(), 0, studentName, studentDto.getGroup());
-            }
-            return tableDto;
-        }
-        Map<Long, Integer> studentsToIndexMap = new HashMap<>();
-        for (Attendance attendance : attendances) {
-            tableDto.addTableHeaderElement(attendance.getAttendedDate(), attendance.getAttendedClass());
-        }
-        for (StudentDto studentDto : studentsDto) {
-            String studentName = studentDto.getLastName() + ' ' + studentDto.getFirstName() + (studentDto.getMiddleName() != null ? ' ' + studentDto.getMiddleName() : "");
-            tableDto.addTableBodyElement(studentDto.getId(), tableDto.getHeader().size(), studentName, studentDto.getGroup());
-            studentsToIndexMap.put(studentDto.getId(), tableDto.getBody().size() - 1);
+        return getTable(getCourseById(courseId), null, fromDate, toDate);
+    }
 
-        }
-        int indexOfHeaderElement = 0;
-        int classNumber = attendances.get(0).getAttendedClass();
-        LocalDate date = attendances.get(0).getAttendedDate();
-        for (Attendance attendance : attendances) {
-            int currentClassNumber = attendance.getAttendedClass();
-            LocalDate currentDate = attendance.getAttendedDate();
-            if (!currentDate.toString().equals(date.toString()) || currentClassNumber != classNumber) {
+    @Override
+    public TableDto getAttendancesTableByDatePeriodAndGroup(long courseId, long groupId, LocalDate fromDate, LocalDate toDate) {
+        assertFromDateBeforeToDate(fromDate, toDate);
+        return getTable(getCourseById(courseId), getGroupById(groupId), fromDate, toDate);
+    }
 
-                indexOfHeaderElement++;
-                classNumber = currentClassNumber;
-                date = currentDate;
-            }
-            tableDto.addAttendanceToBody(studentsToIndexMap.get(attendance.getStudent().getId()), indexOfHeaderElement,
+    @Override
+    public TableDto getAttendancesTablePageByDatePeriod(long courseId, LocalDate fromDate, LocalDate toDate,
+                                                        String cursor, int limit) {
+        assertFromDateBeforeToDate(fromDate, toDate);
+        assertPositiveLimit(limit);
+        return getTablePage(getCourseById(courseId), null, fromDate, toDate, cursor, limit);
+    }
 
-                    attendance.getAttendanceType());
-        }
-        return tableDto;
+    @Override
+    public TableDto getAttendancesTablePageByDatePeriodAndGroup(long courseId, long groupId, LocalDate fromDate, LocalDate toDate,
+                                                                String cursor, int limit) {
+        assertFromDateBeforeToDate(fromDate, toDate);
+        assertPositiveLimit(limit);
+        return getTablePage(getCourseById(courseId), getGroupById(groupId), fromDate, toDate, cursor, limit);
     }
 
     @Override
-    public TableDto getAttendancesTableByDatePeriodAndGroup(long courseId, long groupId, LocalDate fromDate, LocalDate toDate) {
+    @Transactional(readOnly = true)
+    public void exportAttendancesToCsv(long courseId, LocalDate fromDate, LocalDate toDate, Writer writer) throws IOException {
         assertFromDateBeforeToDate(fromDate, toDate);
         Course course = getCourseById(courseId);
-        Group group = getGroupById(groupId);
-        List<Attendance> attendances = repository.getAllByCourseAndStudentGroupAndAttendedDateBetween(
-                course,
-                group,
-                fromDate,
-                toDate,
-                Sort.by("attendedDate", "attendedClass")
-        );
-        TableDto tableDto = new TableDto();
-        List<StudentDto> studentsDto = studentService.getByCourseId(courseId, Sort.by("id"));
-        if (attendances.size() == 0) {
-            for (StudentDto studentDto : studentsDto) {
-                String studentName = studentDto.getLastName() + ' ' + studentDto.getFirstName() + (studentDto.getMiddleName() != null ? ' ' + studentDto.getMiddleName() : "");
-                tableDto.addTableBodyElement(studentDto.getId(), 0, studentName, studentDto.getGroup());
+        writeCsvRow(writer, "student_id", "last_name", "first_name", "middle_name", "group",
+                "attended_date", "attended_class", "attendance_type");
+        try (Stream<AttendanceExportRow> rows = repository.streamAllExportRowsByCourseAndDatePeriod(course, fromDate, toDate)) {
+            Iterator<AttendanceExportRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                AttendanceExportRow row = iterator.next();
+                writeCsvRow(writer, row.studentId().toString(), row.lastName(), row.firstName(), row.middleName(),
+                        row.groupName(), row.attendedDate().toString(), row.attendedClass().toString(),
+                        row.attendanceType().name());
             }
-            return tableDto;
         }
-        Map<Long, Integer> studentsToIndexMap = new HashMap<>();
-        for (Attendance attendance : attendances) {
-            tableDto.addTableHeaderElement(attendance.getAttendedDate(), attendance.getAttendedClass());
+        writer.flush();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportAttendancesToCsv(Collection<Long> courseIds, LocalDate fromDate, LocalDate toDate, Writer writer) throws IOException {
+        assertFromDateBeforeToDate(fromDate, toDate);
+        Set<Long> ids = new HashSet<>(courseIds);
+        Set<Long> found = courseService.findAllRawById(ids).stream()
+                .map(Course::getId)
+                .collect(Collectors.toSet());
+        for (Long id : ids) {
+            if (!found.contains(id)) {
+                throw new NotFoundException(Course.class, id);
+            }
         }
-        for (StudentDto studentDto : studentsDto) {
-            String studentName = studentDto.getLastName() + ' ' + studentDto.getFirstName() + (studentDto.getMiddleName() != null ? ' ' + studentDto.getMiddleName() : "");
-            tableDto.addTableBodyElement(studentDto.getId(), tableDto.getHeader().size(), studentName, studentDto.getGroup());
-            studentsToIndexMap.put(studentDto.getId(), tableDto.getBody().size() - 1);
+        writeCsvRow(writer, "course_id", "course_name", "student_id", "last_name", "first_name", "middle_name", "group",
+                "attended_date", "attended_class", "attendance_type");
+        if (ids.isEmpty()) {
+            writer.flush();
+            return;
         }
-        int indexOfHeaderElement = 0;
-        int classNumber = attendances.get(0).getAttendedClass();
-        LocalDate date = attendances.get(0).getAttendedDate();
-        for (Attendance attendance : attendances) {
-            int currentClassNumber = attendance.getAttendedClass();
-            LocalDate currentDate = attendance.getAttendedDate();
-            if (!currentDate.toString().equals(date.toString()) || currentClassNumber != classNumber) {
-                indexOfHeaderElement++;
-                classNumber = currentClassNumber;
-                date = currentDate;
+        // a single cursor over all courses, so memory doesn't depend on their count
+        try (Stream<AttendanceExportRow> rows = repository.streamAllExportRowsByCourseIdsAndDatePeriod(ids, fromDate, toDate)) {
+            Iterator<AttendanceExportRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                AttendanceExportRow row = iterator.next();
+                writeCsvRow(writer, row.courseId().toString(), row.courseName(), row.studentId().toString(),
+                        row.lastName(), row.firstName(), row.middleName(), row.groupName(),
+                        row.attendedDate().toString(), row.attendedClass().toString(), row.attendanceType().name());
             }
-            tableDto.addAttendanceToBody(studentsToIndexMap.get(attendance.getStudent().getId()), indexOfHeaderElement,
-                    attendance.getAttendanceType());
         }
-        return tableDto;
+        writer.flush();
     }
 
     @Override
+    @Transactional
     public TableDto saveTableToAttendances(TableDto tableDto, long courseId, LocalDate fromDate, LocalDate toDate) {
         assertFromDateBeforeToDate(fromDate, toDate);
         Course course = getCourseById(courseId);
-        List<Attendance> attendances = repository.getAllByCourseAndAttendedDateBetween(
-                course,
-                fromDate,
-                toDate,
-                Sort.by("attendedDate", "attendedClass", "student_id")
-        );
-        int i = 0;
-        int j = 0;
-        LocalDateTime now = LocalDateTime.now();
-        TableDto sortedTableDto = new TableDto();
-        sortedTableDto.setHeader(tableDto.getHeader());
-        List<TableDto.TableBodyElement> sortedBody = tableDto.getBody();
-        sortedBody.sort((element1, element2) -> element1.getStudentId() < element2.getStudentId() ? -1 : ((element1 == element2) ? 0 : 1));
-        sortedTableDto.setBody(sortedBody);
-        List<Attendance> toDelete = new ArrayList<>();
-        List<Attendance> toSave = new ArrayList<>();
-        Map<Long, Student> idToStudent = course.getStudents()
-                .stream()
-                .collect(Collectors.toMap(Student::getId, s -> s));
-
-        while (i < attendances.size() || j < sortedTableDto.getHeader().size()) {
-            int studentRunner = 0;
-            if (attendances.get(i).getAttendedDate().toString().equals(sortedTableDto.getHeader().get(j).getDate().toString()) &&
-                    Objects.equals(attendances.get(i).getAttendedClass(), sortedTableDto.getHeader().get(j).getClassNumber())) {
-                while (studentRunner < sortedTableDto.getBody().size() && i < attendances.size()) {
-                    Attendance attendance = attendances.get(i);
-                    TableDto.TableBodyElement tableStudent = sortedTableDto.getBody().get(studentRunner);
-                    if (Objects.equals(attendance.getStudent().getId(), tableStudent.getStudentId())) {
-                        AttendanceType newAttendanceType = tableStudent.getAttendances().get(j);
-                        if (attendance.getAttendanceType() != newAttendanceType) {
-                            toDelete.add(attendance);
-                            if (newAttendanceType != null) {
-                                Attendance newAttendance = new Attendance();
-                                newAttendance.setId(attendance.getId());
-                                newAttendance.setCourse(attendance.getCourse());
-                                newAttendance.setAttendanceType(newAttendanceType);
-                                newAttendance.setAttendedDate(attendance.getAttendedDate());
-                                newAttendance.setAttendedClass(attendance.getAttendedClass());
-                                newAttendance.setStudent(attendance.getStudent());
-                                newAttendance.setCreatedAt(attendance.getCreatedAt());
-                                newAttendance.setLastModifiedAt(now);
-                                toSave.add(newAttendance);
-                            }
-                        }
-                        i++;
-                    } else if (tableStudent.getAttendances().get(j) != null) {
-                        Attendance newAttendance = new Attendance();
-                        TableDto.TableHeaderElement headerElement = sortedTableDto.getHeader().get(j);
-                        newAttendance.setAttendedClass(headerElement.getClassNumber());
-                        newAttendance.setAttendedDate(headerElement.getDate());
-                        newAttendance.setAttendanceType(tableStudent.getAttendances().get(j));
-                        newAttendance.setStudent(idToStudent.get(tableStudent.getStudentId()));
-                        newAttendance.setCourse(course);
-                        newAttendance.setCreatedAt(now);
-                        newAttendance.setLastModifiedAt(now);
-                        toSave.add(newAttendance);
-                    }
-                    studentRunner++;
-                }
-            } else {
-                while (studentRunner < sortedTableDto.getBody().size()) {
-                    TableDto.TableBodyElement tableStudent = sortedTableDto.getBody().get(studentRunner);
-                    if (tableStudent.getAttendances().get(j) != null) {
-                        Attendance newAttendance = new Attendance();
-                        TableDto.TableHeaderElement headerElement = sortedTableDto.getHeader().get(j);
-                        newAttendance.setAttendedClass(headerElement.getClassNumber());
-                        newAttendance.setAttendedDate(headerElement.getDate());
-                        newAttendance.setAttendanceType(tableStudent.getAttendances().get(j));
-                        newAttendance.setStudent(idToStudent.get(tableStudent.getStudentId()));
-                        newAttendance.setCourse(course);
-                        newAttendance.setCreatedAt(now);
-                        newAttendance.setLastModifiedAt(now);
-                        toSave.add(newAttendance);
-                    }
-                    studentRunner++;
-                }
-            }
-            j++;
-        }
-        if (i == attendances.size() - 1) {
-            while (j < sortedTableDto.getHeader().size()) {
-                int studentRunner = 0;
-                while (studentRunner < sortedTableDto.getBody().size()) {
-                    TableDto.TableBodyElement tableStudent = sortedTableDto.getBody().get(studentRunner);
-                    if (tableStudent.getAttendances().get(j) != null) {
-                        Attendance newAttendance = new Attendance();
-                        TableDto.TableHeaderElement headerElement = sortedTableDto.getHeader().get(j);
-                        newAttendance.setAttendedClass(headerElement.getClassNumber());
-                        newAttendance.setAttendedDate(headerElement.getDate());
-                        newAttendance.setAttendanceType(tableStudent.getAttendances().get(j));
-                        newAttendance.setStudent(idToStudent.get(tableStudent.getStudentId()));
-                        newAttendance.setCourse(course);
-                        newAttendance.setCreatedAt(now);
-                        newAttendance.setLastModifiedAt(now);
-                        toSave.add(newAttendance);
-                    }
-                    studentRunner++;
-                }
-                j++;
+        List<Student> students = course.getStudents().stream()
+                .sorted(Comparator.comparing(Student::getId))
+                .toList();
+        Set<Long> studentIds = students.stream()
+                .map(Student::getId)
+                .collect(Collectors.toSet());
+
+        for (TableDto.TableBodyElement element : tableDto.getBody()) {
+            if (!studentIds.contains(element.getStudentId())) {
+                throw new StudentDoesntBelongToCourseException(element.getStudentId(), courseId);
             }
-        } else if (j == sortedTableDto.getHeader().size() - 1) {
-            while (i < attendances.size()) {
-                toDelete.add(attendances.get(i));
-                i++;
+        }
+        for (TableDto.TableHeaderElement element : tableDto.getHeader()) {
+            if (element.getClassNumber() == null) {
+                throw new NoDataPresentedException(Attendance.class, "classNumber");
             }
+            assertDateInPeriod(element.getDate(), fromDate, toDate);
+        }
+
+        List<AttendanceCell> attendances = repository.getAllCellsByCourseAndDatePeriod(course, fromDate, toDate);
+        AttendanceTableDiff diff = AttendanceTableDiff.compute(attendances, tableDto);
+
+        if (!diff.isEmpty()) {
+            LocalDateTime now = LocalDateTime.now();
+            repository.batchDeleteCells(courseId, diff.getToDelete());
+            repository.batchUpdateCells(courseId, diff.getToUpdate(), now);
+            repository.batchInsertCells(courseId, diff.getToInsert(), now);
+            updateSummary(courseId,
+                    Stream.concat(diff.getToDelete().stream(), diff.getReplaced().stream()).toList(),
+                    Stream.concat(diff.getToInsert().stream(), diff.getToUpdate().stream()).toList());
         }
-        repository.deleteAll(toDelete);
-        repository.saveAll(toSave);
-        return getAttendancesTableByDatePeriod(courseId, fromDate, toDate);
+
+        List<StudentDto> studentsDto = students.stream()
+                .map(mapper::map)
+                .toList();
+        return buildTable(studentsDto, diff.getResult());
     }
 
     @Override
     public AttendanceConflictListDto getAttendanceConflictsByDatePeriodAndClass(long courseId, LocalDate fromDate, LocalDate toDate) {
         assertFromDateBeforeToDate(fromDate, toDate);
         Course course = getCourseById(courseId);
-        AttendanceConflictListDto conflicts = new AttendanceConflictListDto();
-        List<Attendance> attendances = repository.getAllConflictsByCourseAndDatePeriod(
+        return buildConflicts(repository.getAllConflictsByCourseAndDatePeriod(
                 course,
                 fromDate,
                 toDate,
                 Sort.by("attendedDate", "attendedClass")
-        );
-        if (attendances.size() == 0) {
-            return conflicts;
-        }
-        Employee teacher = attendances.get(0).getCourse().getOwner();
-        String teacherFullName = teacher.getLastName() + ' ' + teacher.getFirstName() + (teacher.getMiddleName() != null ? ' ' + teacher.getMiddleName() : "");
-        for (int i = 0; i < attendances.size(); i++) {
-            Attendance attendance = attendances.get(i);
-            AttendanceConflictListDto.AttendanceConflict newConflict = new AttendanceConflictListDto.AttendanceConflict(
-                    teacherFullName,
-                    attendance.getCourse().getName(),
-                    attendance.getStudent().getId(),
-                    attendance.getAttendedDate(),
-                    attendance.getAttendedClass(),
-                    attendance.getAttendanceType()
-            );
-            conflicts.addAttendanceConflictToList(newConflict);
-        }
-        return conflicts;
+        ));
     }
 
     @Override
@@ -313,57 +244,79 @@ public class AttendanceServiceImpl implements AttendanceService {
         assertFromDateBeforeToDate(fromDate, toDate);
         Course course = getCourseById(courseId);
         Group group = getGroupById(groupId);
-        AttendanceConflictListDto conflicts = new AttendanceConflictListDto();
-        List<Attendance> attendances = repository.getAllConflictsByCourseAndGroupAndDatePeriod(
+        return buildConflicts(repository.getAllConflictsByCourseAndGroupAndDatePeriod(
                 course,
                 group,
                 fromDate,
                 toDate,
                 Sort.by("attendedDate", "attendedClass")
-        );
-        if (attendances.size() == 0) {
-            return conflicts;
-        }
-        Employee teacher = attendances.get(0).getCourse().getOwner();
-        String teacherFullName = teacher.getLastName() + ' ' + teacher.getFirstName() + (teacher.getMiddleName() != null ? ' ' + teacher.getMiddleName() : "");
-        for (int i = 0; i < attendances.size(); i++) {
-            Attendance attendance = attendances.get(i);
-            AttendanceConflictListDto.AttendanceConflict newConflict = new AttendanceConflictListDto.AttendanceConflict(
-                    teacherFullName,
-                    attendance.getCourse().getName(),
-                    attendance.getStudent().getId(),
-                    attendance.getAttendedDate(),
-                    attendance.getAttendedClass(),
-                    attendance.getAttendanceType()
-            );
-            conflicts.addAttendanceConflictToList(newConflict);
-        }
-        return conflicts;
+        ));
     }
 
-
     @Override
+    @Transactional
     public AttendanceDto create(AttendanceDto dto) {
         Course course = getCourseById(dto.getCourse());
 
-        return mapper.map(repository.save(getAttendanceByDtoAndCourse(dto, course)));
+        Attendance attendance = repository.save(getAttendanceByDtoAndCourse(dto, course));
+        updateSummary(course.getId(), List.of(), List.of(toCell(attendance)));
+        return mapper.map(attendance);
     }
 
     @Override
+    @Transactional
     public List<AttendanceDto> batchCreate(List<AttendanceDto> dtoList) {
-        List<Attendance> attendances = new ArrayList<>();
         Course course = extractCourse(dtoList);
+        Map<Long, Student> students = getStudentsByIds(dtoList.stream()
+                .map(AttendanceDto::getStudent)
+                .collect(Collectors.toSet()));
+        assertUniqueByStudentAttendedDateAndAttendedClass(dtoList);
 
+        LocalDateTime createAndModifyDateTime = LocalDateTime.now();
+        List<Attendance> attendances = new ArrayList<>();
         for (AttendanceDto dto : dtoList) {
-            attendances.add(getAttendanceByDtoAndCourse(dto, course));
+            attendances.add(getAttendanceByDto(dto, course, students.get(dto.getStudent()), createAndModifyDateTime));
         }
 
-        return StreamSupport.stream(repository.saveAll(attendances).spliterator(), false)
+        List<Attendance> saved = repository.saveAll(attendances);
+        updateSummary(course.getId(), List.of(), saved.stream().map(this::toCell).toList());
+        return saved.stream()
                 .map(mapper::map)
                 .toList();
     }
 
     @Override
+    @Transactional
+    public AttendanceImportDto importFromCsv(Reader csv) {
+        long staged = repository.stageImport(csv);
+        List<String> attendanceTypes = Arrays.stream(AttendanceType.values())
+                .map(AttendanceType::name)
+                .toList();
+
+        Optional<AttendanceImportRow> incomplete = repository.findFirstIncompleteStagedRow(attendanceTypes);
+        if (incomplete.isPresent()) {
+            throw new WrongImportDataException("incomplete or unknown values in row " + incomplete.get());
+        }
+        Optional<AttendanceImportRow> outsideCourse = repository.findFirstStagedRowOutsideCourse();
+        if (outsideCourse.isPresent()) {
+            throw new StudentDoesntBelongToCourseException(outsideCourse.get().studentId(), outsideCourse.get().courseId());
+        }
+        Optional<AttendanceImportRow> duplicate = repository.findFirstDuplicateStagedRow()
+                .or(repository::findFirstStagedRowTakenByOtherCourse);
+        if (duplicate.isPresent()) {
+            AttendanceImportRow row = duplicate.get();
+            throw new ConflictException(Attendance.class,
+                    "student", Long.toString(row.studentId()),
+                    "date", row.attendedDate().toString(),
+                    "attendedClass", Integer.toString(row.attendedClass()));
+        }
+
+        long merged = staged == 0 ? 0 : repository.mergeStaged(LocalDateTime.now());
+        return new AttendanceImportDto(merged);
+    }
+
+    @Override
+    @Transactional
     public AttendanceDto update(long id, AttendanceDto dto) {
         Attendance attendance = getAttendanceById(id);
         Student student = getStudentById(dto.getStudent());
@@ -375,14 +328,18 @@ public class AttendanceServiceImpl implements AttendanceService {
         assertNoCourseChanged(attendance.getCourse(), course);
         assertNoAttendanceClassChanged(attendance.getAttendedClass(), attendedClass);
         assertNoAttendanceDateChanged(attendance.getAttendedDate(), attendedDate);
+        AttendanceCell before = toCell(attendance);
         mapper.put(dto, attendance);
 
         attendance.setLastModifiedAt(LocalDateTime.now());
 
-        return mapper.map(repository.save(attendance));
+        Attendance saved = repository.save(attendance);
+        updateSummary(course.getId(), List.of(before), List.of(toCell(saved)));
+        return mapper.map(saved);
     }
 
     @Override
+    @Transactional
     public AttendanceDto patch(long id, AttendanceDto dto) {
         Attendance attendance = getAttendanceById(id);
         Student student = dto.getStudent() != null ? getStudentById(dto.getStudent()) : attendance.getStudent();
@@ -394,17 +351,187 @@ public class AttendanceServiceImpl implements AttendanceService {
         assertNoCourseChanged(attendance.getCourse(), course);
         assertNoAttendanceClassChanged(attendance.getAttendedClass(), CommonUtils.coalesce(attendedClass, attendance.getAttendedClass()));
         assertNoAttendanceDateChanged(attendance.getAttendedDate(), CommonUtils.coalesce(attendedDate, attendance.getAttendedDate()));
+        AttendanceCell before = toCell(attendance);
         mapper.patch(dto, attendance);
 
         attendance.setLastModifiedAt(LocalDateTime.now());
 
-        return mapper.map(repository.save(attendance));
+        Attendance saved = repository.save(attendance);
+        updateSummary(course.getId(), List.of(before), List.of(toCell(saved)));
+        return mapper.map(saved);
     }
 
     @Override
+    @Transactional
     public void delete(long id) {
         Attendance attendance = getAttendanceById(id);
         repository.delete(attendance);
+        ownershipResolver.invalidate(Attendance.class, id);
+        updateSummary(attendance.getCourse().getId(), List.of(toCell(attendance)), List.of());
+    }
+
+    private AttendanceConflictListDto buildConflicts(List<Attendance> attendances) {
+        AttendanceConflictListDto conflicts = new AttendanceConflictListDto();
+        if (attendances.size() == 0) {
+            return conflicts;
+        }
+        Employee teacher = attendances.get(0).getCourse().getOwner();
+        String teacherFullName = teacher.getLastName() + ' ' + teacher.getFirstName() + (teacher.getMiddleName() != null ? ' ' + teacher.getMiddleName() : "");
+        for (Attendance attendance : attendances) {
+            AttendanceConflictListDto.AttendanceConflict newConflict = new AttendanceConflictListDto.AttendanceConflict(
+                    teacherFullName,
+                    attendance.getCourse().getName(),
+                    attendance.getStudent().getId(),
+                    attendance.getAttendedDate(),
+                    attendance.getAttendedClass(),
+                    attendance.getAttendanceType()
+            );
+            conflicts.addAttendanceConflictToList(newConflict);
+        }
+        return conflicts;
+    }
+
+    private TableDto buildTable(List<StudentDto> studentsDto, List<AttendanceCell> attendances) {
+        TableDtoBuilder builder = new TableDtoBuilder();
+        for (AttendanceCell attendance : attendances) {
+            builder.addColumn(attendance.attendedDate(), attendance.attendedClass());
+        }
+        for (StudentDto studentDto : studentsDto) {
+            builder.addRow(studentDto.getId(), getStudentName(studentDto), studentDto.getGroup());
+        }
+        for (AttendanceCell attendance : attendances) {
+            builder.set(attendance.studentId(), attendance.attendedDate(), attendance.attendedClass(), attendance.attendanceType());
+        }
+        return builder.build();
+    }
+
+    private void updateSummary(long courseId, List<AttendanceCell> removed, List<AttendanceCell> added) {
+        int typeCount = AttendanceType.values().length;
+        Map<Long, int[]> counters = new HashMap<>();
+        for (AttendanceCell cell : removed) {
+            counters.computeIfAbsent(cell.studentId(), k -> new int[typeCount])[cell.attendanceType().ordinal()]--;
+        }
+        for (AttendanceCell cell : added) {
+            counters.computeIfAbsent(cell.studentId(), k -> new int[typeCount])[cell.attendanceType().ordinal()]++;
+        }
+        List<AttendanceSummaryDelta> deltas = counters.entrySet().stream()
+                .map(e -> new AttendanceSummaryDelta(
+                        e.getKey(),
+                        e.getValue()[AttendanceType.ATTENDED.ordinal()],
+                        e.getValue()[AttendanceType.SERIOUS_REASON.ordinal()]
+                ))
+                .filter(d -> d.attended() != 0 || d.seriousReason() != 0)
+                .toList();
+        summaryRepository.applyDeltas(courseId, deltas);
+    }
+
+    private AttendanceCell toCell(Attendance attendance) {
+        return new AttendanceCell(attendance.getStudent().getId(), attendance.getAttendedDate(),
+                attendance.getAttendedClass(), attendance.getAttendanceType());
+    }
+
+    private void writeCsvRow(Writer writer, String... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            String value = values[i];
+            if (value == null) {
+                continue;
+            }
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(value.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(value);
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    /**
+     * @param group null for the whole course
+     */
+    private TableDto getTable(Course course, Group group, LocalDate fromDate, LocalDate toDate) {
+        List<AttendanceCell> attendances = getCells(course, group, fromDate, toDate);
+        return buildTable(getRoster(course, group), attendances);
+    }
+
+    /**
+     * @param group null for the whole course
+     */
+    private TableDto getTablePage(Course course, Group group, LocalDate fromDate, LocalDate toDate, String cursor, int limit) {
+        AttendanceColumn after = decodeCursor(cursor, fromDate);
+        PageRequest window = PageRequest.of(0, limit + 1);
+        List<AttendanceColumn> columns = group == null ?
+                repository.getColumnsByCourseAfter(course, after.attendedDate(), after.attendedClass(), toDate, window) :
+                repository.getColumnsByCourseAndGroupAfter(course, group, after.attendedDate(), after.attendedClass(), toDate, window);
+        List<AttendanceCell> attendances = columns.isEmpty() ? List.of() : getCells(course, group,
+                columns.get(0).attendedDate(), columns.get(Math.min(limit, columns.size()) - 1).attendedDate());
+        return buildTablePage(columns, limit, getRoster(course, group), attendances);
+    }
+
+    private List<AttendanceCell> getCells(Course course, Group group, LocalDate fromDate, LocalDate toDate) {
+        return group == null ?
+                repository.getAllCellsByCourseAndDatePeriod(course, fromDate, toDate) :
+                repository.getAllCellsByCourseAndGroupAndDatePeriod(course, group, fromDate, toDate);
+    }
+
+    private List<StudentDto> getRoster(Course course, Group group) {
+        return group == null ?
+                studentService.getByCourseId(course.getId(), Sort.by("id")) :
+                studentService.getByCourseIdAndGroupId(course.getId(), group.getId(), Sort.by("id"));
+    }
+
+    /**
+     * @param columns window columns with one look-ahead column beyond {@code limit}, if there is a next window
+     */
+    private TableDto buildTablePage(List<AttendanceColumn> columns, int limit, List<StudentDto> studentsDto,
+                                    List<AttendanceCell> attendances) {
+        List<AttendanceColumn> window = columns.size() > limit ? columns.subList(0, limit) : columns;
+        TableDtoBuilder builder = new TableDtoBuilder();
+        for (AttendanceColumn column : window) {
+            builder.addColumn(column.attendedDate(), column.attendedClass());
+        }
+        for (StudentDto studentDto : studentsDto) {
+            builder.addRow(studentDto.getId(), getStudentName(studentDto), studentDto.getGroup());
+        }
+        for (AttendanceCell attendance : attendances) {
+            builder.set(attendance.studentId(), attendance.attendedDate(), attendance.attendedClass(), attendance.attendanceType());
+        }
+        TableDto tableDto = builder.build();
+        if (columns.size() > limit) {
+            tableDto.setNext(encodeCursor(window.get(limit - 1)));
+        }
+        return tableDto;
+    }
+
+    private String encodeCursor(AttendanceColumn column) {
+        String value = column.attendedDate() + "/" + column.attendedClass();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private AttendanceColumn decodeCursor(String cursor, LocalDate fromDate) {
+        if (cursor == null) {
+            return new AttendanceColumn(fromDate, Integer.MIN_VALUE);
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = value.indexOf('/');
+            LocalDate date = LocalDate.parse(value.substring(0, separator));
+            int attendedClass = Integer.parseInt(value.substring(separator + 1));
+            if (date.isBefore(fromDate)) {
+                return new AttendanceColumn(fromDate, Integer.MIN_VALUE);
+            }
+            return new AttendanceColumn(date, attendedClass);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new WrongPageRequestException(cursor);
+        }
+    }
+
+    private String getStudentName(StudentDto studentDto) {
+        return studentDto.getLastName() + ' ' + studentDto.getFirstName() + (studentDto.getMiddleName() != null ? ' ' + studentDto.getMiddleName() : "");
     }
 
     private Attendance getAttendanceById(long id) {
@@ -415,6 +542,17 @@ public class AttendanceServiceImpl implements AttendanceService {
         return studentService.findRawById(id).orElseThrow(() -> new NotFoundException(Student.class, id));
     }
 
+    private Map<Long, Student> getStudentsByIds(Collection<Long> ids) {
+        Map<Long, Student> students = studentService.findRawById(new ArrayList<>(ids)).stream()
+                .collect(Collectors.toMap(Student::getId, Function.identity()));
+        for (Long id : ids) {
+            if (!students.containsKey(id)) {
+                throw new NotFoundException(Student.class, id);
+            }
+        }
+        return students;
+    }
+
     private Course getCourseById(long id) {
         return courseService.findRawById(id).orElseThrow(() -> new NotFoundException(Course.class, id));
     }
@@ -432,12 +570,45 @@ public class AttendanceServiceImpl implements AttendanceService {
         }
     }
 
+    private void assertUniqueByStudentAttendedDateAndAttendedClass(List<AttendanceDto> dtoList) {
+        Set<Long> studentIds = new HashSet<>();
+        Set<LocalDate> dates = new HashSet<>();
+        for (AttendanceDto dto : dtoList) {
+            studentIds.add(dto.getStudent());
+            dates.add(dto.getAttendedDate());
+        }
+        Set<AttendanceCell> taken = repository.getAllCellsByStudentIdsAndDates(studentIds, dates).stream()
+                .map(c -> new AttendanceCell(c.studentId(), c.attendedDate(), c.attendedClass(), null))
+                .collect(Collectors.toSet());
+        for (AttendanceDto dto : dtoList) {
+            AttendanceCell key = new AttendanceCell(dto.getStudent(), dto.getAttendedDate(), dto.getAttendedClass(), null);
+            if (!taken.add(key)) {
+                throw new ConflictException(Attendance.class,
+                        "student", Long.toString(dto.getStudent()),
+                        "date", dto.getAttendedDate().toString(),
+                        "attendedClass", Integer.toString(dto.getAttendedClass()));
+            }
+        }
+    }
+
+    private void assertPositiveLimit(int limit) {
+        if (limit <= 0) {
+            throw new WrongPageRequestException(limit);
+        }
+    }
+
     private void assertFromDateBeforeToDate(LocalDate fromDate, LocalDate toDate) {
         if (fromDate.isAfter(toDate)) {
             throw new WrongDatesException(fromDate.toString(), toDate.toString());
         }
     }
 
+    private void assertDateInPeriod(LocalDate date, LocalDate fromDate, LocalDate toDate) {
+        if (date == null || date.isBefore(fromDate) || date.isAfter(toDate)) {
+            throw new AttendanceOutOfPeriodException(String.valueOf(date), fromDate.toString(), toDate.toString());
+        }
+    }
+
     private void assertNoCourseChanged(Course oldCourse, Course newCourse) {
         if (!Objects.equals(oldCourse, newCourse)) {
             throw new TransferNotAllowedException(Attendance.class, "attendance", oldCourse.getId(), newCourse.getId());
@@ -473,19 +644,19 @@ public class AttendanceServiceImpl implements AttendanceService {
     }
 
     private Attendance getAttendanceByDtoAndCourse(AttendanceDto dto, Course course) {
-        Attendance attendance = new Attendance();
         Student student = getStudentById(dto.getStudent());
-        Integer attendedClass = dto.getAttendedClass();
-        LocalDate attendedDate = dto.getAttendedDate();
-        LocalDateTime createAndModifyDateTime = LocalDateTime.now();
+        assertUniqueByStudentAttendedDateAndAttendedClass(student, dto.getAttendedDate(), dto.getAttendedClass());
+        return getAttendanceByDto(dto, course, student, LocalDateTime.now());
+    }
 
-        assertUniqueByStudentAttendedDateAndAttendedClass(student, attendedDate, attendedClass);
+    private Attendance getAttendanceByDto(AttendanceDto dto, Course course, Student student, LocalDateTime createAndModifyDateTime) {
+        Attendance attendance = new Attendance();
         mapper.put(dto, attendance);
 
         attendance.setStudent(student);
         attendance.setCourse(course);
-        attendance.setAttendedClass(attendedClass);
-        attendance.setAttendedDate(attendedDate);
+        attendance.setAttendedClass(dto.getAttendedClass());
+        attendance.setAttendedDate(dto.getAttendedDate());
         attendance.setCreatedAt(createAndModifyDateTime);
         attendance.setLastModifiedAt(createAndModifyDateTime);
 
@@ -501,4 +672,9 @@ public class AttendanceServiceImpl implements AttendanceService {
     public void setCourseService(CourseService courseService) {
         this.courseService = courseService;
     }
+
+    @Autowired
+    public void setGroupService(GroupService groupService) {
+        this.groupService = groupService;
+    }
 }
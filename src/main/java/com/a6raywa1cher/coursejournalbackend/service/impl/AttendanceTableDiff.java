@@ -0,0 +1,131 @@
+package com.a6raywa1cher.coursejournalbackend.service.impl;
+
+import com.a6raywa1cher.coursejournalbackend.dto.TableDto;
+import com.a6raywa1cher.coursejournalbackend.model.AttendanceType;
+import com.a6raywa1cher.coursejournalbackend.model.repo.AttendanceCell;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Difference between the stored attendances of a date period and a submitted {@link TableDto},
+ * keyed by (student, date, class). Students missing in the table body and columns missing in the header
+ * are left untouched, for the listed ones the table is the whole truth.
+ */
+public final class AttendanceTableDiff {
+    private static final Comparator<AttendanceCell> CELL_ORDER = Comparator
+            .comparing(AttendanceCell::attendedDate)
+            .thenComparing(AttendanceCell::attendedClass)
+            .thenComparing(AttendanceCell::studentId);
+
+    private final List<AttendanceCell> toInsert;
+    private final List<AttendanceCell> toUpdate;
+    private final List<AttendanceCell> replaced;
+    private final List<AttendanceCell> toDelete;
+    private final List<AttendanceCell> result;
+
+    private AttendanceTableDiff(List<AttendanceCell> toInsert, List<AttendanceCell> toUpdate, List<AttendanceCell> replaced,
+                                List<AttendanceCell> toDelete, List<AttendanceCell> result) {
+        this.toInsert = toInsert;
+        this.toUpdate = toUpdate;
+        this.replaced = replaced;
+        this.toDelete = toDelete;
+        this.result = result;
+    }
+
+    public static AttendanceTableDiff compute(List<AttendanceCell> existing, TableDto table) {
+        Map<Key, AttendanceType> desired = new HashMap<>();
+        Set<Long> tableStudents = new HashSet<>();
+        Set<Column> tableColumns = new HashSet<>();
+        List<TableDto.TableHeaderElement> header = table.getHeader();
+        for (TableDto.TableHeaderElement column : header) {
+            tableColumns.add(new Column(column.getDate(), column.getClassNumber()));
+        }
+        for (TableDto.TableBodyElement row : table.getBody()) {
+            long studentId = row.getStudentId();
+            tableStudents.add(studentId);
+            List<AttendanceType> attendances = row.getAttendances();
+            int width = Math.min(header.size(), attendances.size());
+            for (int i = 0; i < width; i++) {
+                AttendanceType type = attendances.get(i);
+                if (type != null) {
+                    TableDto.TableHeaderElement column = header.get(i);
+                    desired.put(new Key(studentId, column.getDate(), column.getClassNumber()), type);
+                }
+            }
+        }
+
+        List<AttendanceCell> toInsert = new ArrayList<>();
+        List<AttendanceCell> toUpdate = new ArrayList<>();
+        List<AttendanceCell> replaced = new ArrayList<>();
+        List<AttendanceCell> toDelete = new ArrayList<>();
+        List<AttendanceCell> result = new ArrayList<>();
+        Set<Key> stored = new HashSet<>();
+        for (AttendanceCell cell : existing) {
+            Key key = new Key(cell.studentId(), cell.attendedDate(), cell.attendedClass());
+            stored.add(key);
+            if (!tableStudents.contains(cell.studentId()) ||
+                    !tableColumns.contains(new Column(cell.attendedDate(), cell.attendedClass()))) {
+                result.add(cell);
+                continue;
+            }
+            AttendanceType type = desired.get(key);
+            if (type == null) {
+                toDelete.add(cell);
+            } else if (type != cell.attendanceType()) {
+                AttendanceCell updated = key.toCell(type);
+                toUpdate.add(updated);
+                replaced.add(cell);
+                result.add(updated);
+            } else {
+                result.add(cell);
+            }
+        }
+        for (var entry : desired.entrySet()) {
+            if (!stored.contains(entry.getKey())) {
+                AttendanceCell inserted = entry.getKey().toCell(entry.getValue());
+                toInsert.add(inserted);
+                result.add(inserted);
+            }
+        }
+        toInsert.sort(CELL_ORDER);
+        result.sort(CELL_ORDER);
+        return new AttendanceTableDiff(toInsert, toUpdate, replaced, toDelete, result);
+    }
+
+    public List<AttendanceCell> getToInsert() {
+        return toInsert;
+    }
+
+    public List<AttendanceCell> getToUpdate() {
+        return toUpdate;
+    }
+
+    /**
+     * @return stored cells overwritten by {@link #getToUpdate()}, in the same order
+     */
+    public List<AttendanceCell> getReplaced() {
+        return replaced;
+    }
+
+    public List<AttendanceCell> getToDelete() {
+        return toDelete;
+    }
+
+    public List<AttendanceCell> getResult() {
+        return result;
+    }
+
+    public boolean isEmpty() {
+        return toInsert.isEmpty() && toUpdate.isEmpty() && toDelete.isEmpty();
+    }
+
+    private record Column(LocalDate date, int attendedClass) {
+    }
+
+    private record Key(long studentId, LocalDate date, int attendedClass) {
+        AttendanceCell toCell(AttendanceType type) {
+            return new AttendanceCell(studentId, date, attendedClass, type);
+        }
+    }
+}
@@ -6,6 +6,8 @@ import com.a6raywa1cher.coursejournalbackend.dto.exc.*;
 import com.a6raywa1cher.coursejournalbackend.dto.mapper.MapStructMapper;
 import com.a6raywa1cher.coursejournalbackend.model.*;
 import com.a6raywa1cher.coursejournalbackend.model.repo.AuthUserRepository;
+import com.a6raywa1cher.coursejournalbackend.security.AuthorityVersions;
+import com.a6raywa1cher.coursejournalbackend.security.OwnershipResolver;
 import com.a6raywa1cher.coursejournalbackend.service.AuthUserService;
 import com.a6raywa1cher.coursejournalbackend.service.EmployeeService;
 import com.a6raywa1cher.coursejournalbackend.service.StudentService;
@@ -38,14 +40,19 @@ public class AuthUserServiceImpl implements AuthUserService {
     private final MapStructMapper mapper;
     private final StudentService studentService;
     private final EmployeeService employeeService;
+    private final OwnershipResolver ownershipResolver;
+    private final AuthorityVersions authorityVersions;
 
     @Autowired
     public AuthUserServiceImpl(AuthUserRepository repository, MapStructMapper mapper,
-                               StudentService studentService, EmployeeService employeeService) {
+                               StudentService studentService, EmployeeService employeeService,
+                               OwnershipResolver ownershipResolver, AuthorityVersions authorityVersions) {
         this.repository = repository;
         this.mapper = mapper;
         this.studentService = studentService;
         this.employeeService = employeeService;
+        this.ownershipResolver = ownershipResolver;
+        this.authorityVersions = authorityVersions;
     }
 
 
@@ -110,6 +117,7 @@ public class AuthUserServiceImpl implements AuthUserService {
         mapper.put(dto, authUser);
 
         authUser.setLastModifiedAt(now);
+        authorityVersions.bumpUser(id);
         return mapper.map(repository.save(authUser));
     }
 
@@ -135,6 +143,7 @@ public class AuthUserServiceImpl implements AuthUserService {
         mapper.patch(dto, authUser);
 
         authUser.setLastModifiedAt(now);
+        authorityVersions.bumpUser(id);
         return mapper.map(repository.save(authUser));
     }
 
@@ -149,6 +158,8 @@ public class AuthUserServiceImpl implements AuthUserService {
             authUser.getStudent().setAuthUser(null);
         }
         repository.delete(authUser);
+        ownershipResolver.invalidate(AuthUser.class, id);
+        authorityVersions.bumpUser(id);
     }
 
     private AuthUser getAuthUserById(long id) {
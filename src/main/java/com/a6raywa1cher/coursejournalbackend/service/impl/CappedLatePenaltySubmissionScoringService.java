@@ -0,0 +1,27 @@
+package com.a6raywa1cher.coursejournalbackend.service.impl;
+
+import com.a6raywa1cher.coursejournalbackend.model.ScoringPolicy;
+import org.springframework.stereotype.Component;
+
+@Component
+public class CappedLatePenaltySubmissionScoringService extends AbstractSubmissionScoringService {
+    private final static long MINUTES_PER_DAY = 24 * 60;
+
+    @Override
+    public ScoringPolicy getPolicy() {
+        return ScoringPolicy.CAPPED_LATE_PENALTY;
+    }
+
+    @Override
+    public double calculateDeadlineFactor(long softDeadline, long hardDeadline, int maxPenaltyPercent, long submitted) {
+        double mpd = maxPenaltyPercent / 100d;
+        if (submitted <= softDeadline) return 1d;
+        long windowDays = Math.max(1, ceilDays(hardDeadline - softDeadline));
+        long lateDays = ceilDays(submitted - softDeadline);
+        return 1d - Math.min(mpd, mpd * lateDays / windowDays);
+    }
+
+    private long ceilDays(long minutes) {
+        return -Math.floorDiv(-minutes, MINUTES_PER_DAY);
+    }
+}
@@ -1,5 +1,7 @@
 package com.a6raywa1cher.coursejournalbackend.service.impl;
 
+import com.a6raywa1cher.coursejournalbackend.component.CourseTokenCache;
+import com.a6raywa1cher.coursejournalbackend.component.ScoreRecalculationQueue;
 import com.a6raywa1cher.coursejournalbackend.dto.CourseDto;
 import com.a6raywa1cher.coursejournalbackend.dto.CourseFullDto;
 import com.a6raywa1cher.coursejournalbackend.dto.exc.ConflictException;
@@ -8,8 +10,13 @@ import com.a6raywa1cher.coursejournalbackend.dto.mapper.MapStructMapper;
 import com.a6raywa1cher.coursejournalbackend.model.Course;
 import com.a6raywa1cher.coursejournalbackend.model.Employee;
 import com.a6raywa1cher.coursejournalbackend.model.Group;
+import com.a6raywa1cher.coursejournalbackend.model.ScoringPolicy;
 import com.a6raywa1cher.coursejournalbackend.model.Student;
+import com.a6raywa1cher.coursejournalbackend.model.Task;
 import com.a6raywa1cher.coursejournalbackend.model.repo.CourseRepository;
+import com.a6raywa1cher.coursejournalbackend.security.AuthorityVersions;
+import com.a6raywa1cher.coursejournalbackend.security.OwnershipResolver;
+import com.a6raywa1cher.coursejournalbackend.security.PermissionTarget;
 import com.a6raywa1cher.coursejournalbackend.service.CourseService;
 import com.a6raywa1cher.coursejournalbackend.service.EmployeeService;
 import com.a6raywa1cher.coursejournalbackend.service.GroupService;
@@ -24,6 +31,8 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
 import static com.a6raywa1cher.coursejournalbackend.utils.CommonUtils.coalesce;
@@ -41,13 +50,27 @@ public class CourseServiceImpl implements CourseService {
 
     private final GroupService groupService;
 
+    private final ScoreRecalculationQueue recalculationQueue;
+
+    private final OwnershipResolver ownershipResolver;
+
+    private final CourseTokenCache tokenCache;
+
+    private final AuthorityVersions authorityVersions;
+
     @Autowired
-    public CourseServiceImpl(CourseRepository repository, MapStructMapper mapper, EmployeeService employeeService, @Lazy StudentService studentService, GroupService groupService) {
+    public CourseServiceImpl(CourseRepository repository, MapStructMapper mapper, EmployeeService employeeService, @Lazy StudentService studentService, GroupService groupService,
+                             ScoreRecalculationQueue recalculationQueue, OwnershipResolver ownershipResolver,
+                             CourseTokenCache tokenCache, AuthorityVersions authorityVersions) {
         this.repository = repository;
         this.mapper = mapper;
         this.employeeService = employeeService;
         this.studentService = studentService;
         this.groupService = groupService;
+        this.recalculationQueue = recalculationQueue;
+        this.ownershipResolver = ownershipResolver;
+        this.tokenCache = tokenCache;
+        this.authorityVersions = authorityVersions;
     }
 
 
@@ -66,6 +89,18 @@ public class CourseServiceImpl implements CourseService {
         return StreamSupport.stream(repository.findAllById(ids).spliterator(), false).toList();
     }
 
+    @Override
+    public List<CourseDto> getAllById(Collection<Long> ids) {
+        Map<Long, Course> byId = findAllRawById(ids).stream()
+                .collect(Collectors.toMap(Course::getId, Function.identity()));
+        return ids.stream()
+                .distinct()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .map(mapper::map)
+                .toList();
+    }
+
     @Override
     public Page<CourseDto> getPage(Pageable pageable) {
         return repository.findAll(pageable).map(mapper::map);
@@ -106,10 +141,13 @@ public class CourseServiceImpl implements CourseService {
 
         setStudentList(entity, students);
         entity.setOwner(owner);
+        entity.setScoringPolicy(coalesce(entity.getScoringPolicy(), ScoringPolicy.LINEAR));
         entity.setCreatedAt(LocalDateTime.now());
         entity.setLastModifiedAt(LocalDateTime.now());
 
-        return mapper.mapFull(repository.save(entity));
+        Course saved = repository.save(entity);
+        authorityVersions.bumpEmployee(owner.getId());
+        return mapper.mapFull(saved);
     }
 
     @Override
@@ -120,14 +158,18 @@ public class CourseServiceImpl implements CourseService {
         List<Student> students = getStudentListByIds(dto.getStudents());
 
         assertNameNotChangedOrAvailable(entity.getName(), dto.getName(), entity.getOwner(), newOwner);
+        ScoringPolicy policyBefore = entity.getScoringPolicy();
 
         mapper.put(dto, entity);
 
         setStudentList(entity, students);
+        bumpOnTransfer(entity.getOwner(), newOwner);
         entity.setOwner(newOwner);
         entity.setLastModifiedAt(LocalDateTime.now());
 
-        return mapper.mapFull(repository.save(entity));
+        Course saved = repository.save(entity);
+        recalculateOnPolicyChange(saved, policyBefore);
+        return mapper.mapFull(saved);
     }
 
     @Override
@@ -140,20 +182,43 @@ public class CourseServiceImpl implements CourseService {
                 entity.getName(), coalesce(dto.getName(), entity.getName()),
                 entity.getOwner(), owner
         );
+        ScoringPolicy policyBefore = entity.getScoringPolicy();
 
         mapper.patch(dto, entity);
 
         setStudentList(entity, students);
+        bumpOnTransfer(entity.getOwner(), owner);
         entity.setOwner(owner);
         entity.setLastModifiedAt(LocalDateTime.now());
 
-        return mapper.mapFull(repository.save(entity));
+        Course saved = repository.save(entity);
+        recalculateOnPolicyChange(saved, policyBefore);
+        return mapper.mapFull(saved);
     }
 
     @Override
     public void delete(long id) {
         Course entity = $getById(id);
         repository.delete(entity);
+        // the course and everything in it
+        ownershipResolver.invalidateOwnedBy(PermissionTarget.COURSE, id);
+        tokenCache.invalidateCourse(id);
+        authorityVersions.bumpEmployee(entity.getOwner().getId());
+    }
+
+    private void bumpOnTransfer(Employee ownerBefore, Employee owner) {
+        if (ownerBefore.getId().equals(owner.getId())) return;
+        authorityVersions.bumpEmployee(ownerBefore.getId());
+        authorityVersions.bumpEmployee(owner.getId());
+    }
+
+    private void recalculateOnPolicyChange(Course course, ScoringPolicy policyBefore) {
+        if (coalesce(policyBefore, ScoringPolicy.LINEAR) == coalesce(course.getScoringPolicy(), ScoringPolicy.LINEAR)) {
+            return;
+        }
+        for (Task task : course.getTasks()) {
+            recalculationQueue.schedule(task.getId());
+        }
     }
 
     private Course $getById(long id) {
@@ -1,5 +1,6 @@
 package com.a6raywa1cher.coursejournalbackend.service.impl;
 
+import com.a6raywa1cher.coursejournalbackend.component.CourseTokenCache;
 import com.a6raywa1cher.coursejournalbackend.component.SecureRandomStringGenerator;
 import com.a6raywa1cher.coursejournalbackend.dto.CourseDto;
 import com.a6raywa1cher.coursejournalbackend.dto.CourseTokenDto;
@@ -9,6 +10,7 @@ import com.a6raywa1cher.coursejournalbackend.dto.mapper.MapStructMapper;
 import com.a6raywa1cher.coursejournalbackend.model.Course;
 import com.a6raywa1cher.coursejournalbackend.model.CourseToken;
 import com.a6raywa1cher.coursejournalbackend.model.repo.CourseTokenRepository;
+import com.a6raywa1cher.coursejournalbackend.security.OwnershipResolver;
 import com.a6raywa1cher.coursejournalbackend.service.CourseService;
 import com.a6raywa1cher.coursejournalbackend.service.CourseTokenService;
 import org.springframework.stereotype.Service;
@@ -22,12 +24,17 @@ public class CourseTokenServiceImpl implements CourseTokenService {
     private final MapStructMapper mapper;
     private final CourseService courseService;
     private final SecureRandomStringGenerator generator;
+    private final OwnershipResolver ownershipResolver;
+    private final CourseTokenCache tokenCache;
 
-    public CourseTokenServiceImpl(CourseTokenRepository repository, MapStructMapper mapper, CourseService courseService, SecureRandomStringGenerator generator) {
+    public CourseTokenServiceImpl(CourseTokenRepository repository, MapStructMapper mapper, CourseService courseService, SecureRandomStringGenerator generator,
+                                  OwnershipResolver ownershipResolver, CourseTokenCache tokenCache) {
         this.repository = repository;
         this.mapper = mapper;
         this.courseService = courseService;
         this.generator = generator;
+        this.ownershipResolver = ownershipResolver;
+        this.tokenCache = tokenCache;
     }
 
     @Override
@@ -45,6 +52,11 @@ public class CourseTokenServiceImpl implements CourseTokenService {
         return repository.findByToken(token).map(mapper::map);
     }
 
+    @Override
+    public Optional<Long> findCourseIdByToken(String token) {
+        return tokenCache.getCourseId(token);
+    }
+
     @Override
     public CourseDto resolveToken(String token) {
         return repository.findByToken(token)
@@ -72,6 +84,7 @@ public class CourseTokenServiceImpl implements CourseTokenService {
         courseToken.setToken(generateUniqueRandomToken());
         courseToken.setCreatedAt(LocalDateTime.now());
         courseToken.setLastModifiedAt(LocalDateTime.now());
+        tokenCache.invalidate(courseToken.getToken());
         return mapper.map(repository.save(courseToken));
     }
 
@@ -80,6 +93,8 @@ public class CourseTokenServiceImpl implements CourseTokenService {
         CourseToken courseToken = getCourseTokenById(id);
         courseToken.getCourse().setCourseToken(null);
         repository.delete(courseToken);
+        ownershipResolver.invalidate(CourseToken.class, id);
+        tokenCache.invalidate(courseToken.getToken());
     }
 
     private Course getCourseById(long courseId) {
@@ -1,5 +1,6 @@
 package com.a6raywa1cher.coursejournalbackend.service.impl;
 
+import com.a6raywa1cher.coursejournalbackend.component.ScoreRecalculationQueue;
 import com.a6raywa1cher.coursejournalbackend.dto.CriteriaDto;
 import com.a6raywa1cher.coursejournalbackend.dto.exc.ConflictException;
 import com.a6raywa1cher.coursejournalbackend.dto.exc.NotFoundException;
@@ -9,12 +10,11 @@ import com.a6raywa1cher.coursejournalbackend.model.Course;
 import com.a6raywa1cher.coursejournalbackend.model.Criteria;
 import com.a6raywa1cher.coursejournalbackend.model.Task;
 import com.a6raywa1cher.coursejournalbackend.model.repo.CriteriaRepository;
+import com.a6raywa1cher.coursejournalbackend.security.OwnershipResolver;
 import com.a6raywa1cher.coursejournalbackend.service.CourseService;
 import com.a6raywa1cher.coursejournalbackend.service.CriteriaService;
-import com.a6raywa1cher.coursejournalbackend.service.SubmissionService;
 import com.a6raywa1cher.coursejournalbackend.service.TaskService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.context.annotation.Lazy;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -33,15 +33,19 @@ public class CriteriaServiceImpl implements CriteriaService {
     private final MapStructMapper mapper;
     private final CourseService courseService;
     private final TaskService taskService;
-    private SubmissionService submissionService;
+    private final ScoreRecalculationQueue recalculationQueue;
+    private final OwnershipResolver ownershipResolver;
 
     @Autowired
     public CriteriaServiceImpl(CriteriaRepository repository, MapStructMapper mapper, CourseService courseService,
-                               TaskService taskService) {
+                               TaskService taskService, ScoreRecalculationQueue recalculationQueue,
+                               OwnershipResolver ownershipResolver) {
         this.repository = repository;
         this.mapper = mapper;
         this.courseService = courseService;
         this.taskService = taskService;
+        this.recalculationQueue = recalculationQueue;
+        this.ownershipResolver = ownershipResolver;
     }
 
     @Override
@@ -91,7 +95,7 @@ public class CriteriaServiceImpl implements CriteriaService {
         criteria.setLastModifiedAt(LocalDateTime.now());
 
         Criteria saved = repository.save(criteria);
-        submissionService.recalculateMainScoreForTask(task.getId());
+        recalculationQueue.schedule(task.getId());
 
         return mapper.map(saved);
     }
@@ -103,13 +107,17 @@ public class CriteriaServiceImpl implements CriteriaService {
 
         assertUniqueForTaskCriteriaName(task, criteria.getId(), dto.getName());
         assertNoTaskChange(criteria, task);
+        Integer percentBefore = criteria.getCriteriaPercent();
         mapper.put(dto, criteria);
 
         criteria.setTask(task);
         criteria.setLastModifiedAt(LocalDateTime.now());
 
         Criteria saved = repository.save(criteria);
-        submissionService.recalculateMainScoreForTask(task.getId());
+        // only the percent takes part in the score, renames don't need a recalculation
+        if (!Objects.equals(percentBefore, saved.getCriteriaPercent())) {
+            recalculationQueue.schedule(task.getId());
+        }
 
         return mapper.map(saved);
     }
@@ -140,19 +148,21 @@ public class CriteriaServiceImpl implements CriteriaService {
                 criteria.setLastModifiedAt(now);
                 toCreate.add(criteria);
             } else {
-                Criteria db = existingCriteria.get(i);
-                db.getSubmissionList().forEach(s -> s.getSatisfiedCriteria().remove(db));
-                db.getSubmissionList().clear();
-                toDelete.add(db);
+                toDelete.add(existingCriteria.get(i));
             }
         }
+        // criteria_task_name_uniq is deferred, so names may be swapped within the task in a single flush
+        repository.deleteSubmissionLinks(toDelete);
         repository.deleteAll(toDelete);
-        return Stream.concat(
-                        repository.saveAllForTaskWithRename(toSave).stream(),
+        toDelete.forEach(c -> ownershipResolver.invalidate(Criteria.class, c.getId()));
+        List<CriteriaDto> saved = Stream.concat(
+                        repository.saveAll(toSave).stream(),
                         repository.saveAll(toCreate).stream()
                 )
                 .map(mapper::map)
                 .toList();
+        recalculationQueue.schedule(taskId);
+        return saved;
     }
 
     @Override
@@ -162,13 +172,16 @@ public class CriteriaServiceImpl implements CriteriaService {
 
         if (dto.getName() != null) assertUniqueForTaskCriteriaName(task, criteria.getId(), dto.getName());
         assertNoTaskChange(criteria, task);
+        Integer percentBefore = criteria.getCriteriaPercent();
         mapper.patch(dto, criteria);
 
         criteria.setTask(task);
         criteria.setLastModifiedAt(LocalDateTime.now());
 
         Criteria saved = repository.save(criteria);
-        submissionService.recalculateMainScoreForTask(task.getId());
+        if (!Objects.equals(percentBefore, saved.getCriteriaPercent())) {
+            recalculationQueue.schedule(task.getId());
+        }
 
         return mapper.map(saved);
     }
@@ -176,9 +189,10 @@ public class CriteriaServiceImpl implements CriteriaService {
     @Override
     public void delete(long id) {
         Criteria criteria = getCriteriaById(id);
-        criteria.getSubmissionList().forEach(s -> s.getSatisfiedCriteria().remove(criteria));
-        criteria.getSubmissionList().clear();
+        repository.deleteSubmissionLinks(List.of(criteria));
         repository.delete(criteria);
+        ownershipResolver.invalidate(Criteria.class, id);
+        recalculationQueue.schedule(criteria.getTask().getId());
     }
 
     private Criteria getCriteriaById(long id) {
@@ -216,10 +230,4 @@ public class CriteriaServiceImpl implements CriteriaService {
             throw new TransferNotAllowedException(Criteria.class, "task", criteria.getTask(), newTask);
         }
     }
-
-    @Autowired
-    @Lazy
-    public void setSubmissionService(SubmissionService submissionService) {
-        this.submissionService = submissionService;
-    }
 }
@@ -6,6 +6,8 @@ import com.a6raywa1cher.coursejournalbackend.dto.exc.NotFoundException;
 import com.a6raywa1cher.coursejournalbackend.dto.mapper.MapStructMapper;
 import com.a6raywa1cher.coursejournalbackend.model.Employee;
 import com.a6raywa1cher.coursejournalbackend.model.repo.EmployeeRepository;
+import com.a6raywa1cher.coursejournalbackend.security.AuthorityVersions;
+import com.a6raywa1cher.coursejournalbackend.security.OwnershipResolver;
 import com.a6raywa1cher.coursejournalbackend.service.EmployeeService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
@@ -24,11 +26,16 @@ import static com.a6raywa1cher.coursejournalbackend.utils.CommonUtils.coalesce;
 public class EmployeeServiceImpl implements EmployeeService {
     private final EmployeeRepository repository;
     private final MapStructMapper mapper;
+    private final OwnershipResolver ownershipResolver;
+    private final AuthorityVersions authorityVersions;
 
     @Autowired
-    public EmployeeServiceImpl(EmployeeRepository repository, MapStructMapper mapper) {
+    public EmployeeServiceImpl(EmployeeRepository repository, MapStructMapper mapper, OwnershipResolver ownershipResolver,
+                               AuthorityVersions authorityVersions) {
         this.repository = repository;
         this.mapper = mapper;
+        this.ownershipResolver = ownershipResolver;
+        this.authorityVersions = authorityVersions;
     }
 
     @Override
@@ -103,6 +110,9 @@ public class EmployeeServiceImpl implements EmployeeService {
     public void delete(long id) {
         Employee employee = $getById(id);
         repository.delete(employee);
+        // owned courses go with the employee, with everything in them
+        ownershipResolver.invalidateAll();
+        authorityVersions.bumpEmployee(id);
     }
 
     private Employee $getById(long id) {
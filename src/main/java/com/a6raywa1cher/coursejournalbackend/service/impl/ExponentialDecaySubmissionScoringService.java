@@ -0,0 +1,24 @@
+package com.a6raywa1cher.coursejournalbackend.service.impl;
+
+import com.a6raywa1cher.coursejournalbackend.model.ScoringPolicy;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ExponentialDecaySubmissionScoringService extends AbstractSubmissionScoringService {
+    // e ^ -3 ~ 0.05, so 95% of the max penalty is reached at the hard deadline
+    private final static double DECAY_RATE = 3d;
+
+    @Override
+    public ScoringPolicy getPolicy() {
+        return ScoringPolicy.EXPONENTIAL_DECAY;
+    }
+
+    @Override
+    public double calculateDeadlineFactor(long softDeadline, long hardDeadline, int maxPenaltyPercent, long submitted) {
+        double mpd = maxPenaltyPercent / 100d;
+        if (submitted <= softDeadline) return 1d;
+        if (hardDeadline == softDeadline) return 1d - mpd;
+        double delay = (submitted - softDeadline) / ((double) (hardDeadline - softDeadline));
+        return 1d - mpd * (1d - Math.exp(-DECAY_RATE * delay));
+    }
+}
@@ -6,6 +6,7 @@ import com.a6raywa1cher.coursejournalbackend.dto.exc.NotFoundException;
 import com.a6raywa1cher.coursejournalbackend.dto.mapper.MapStructMapper;
 import com.a6raywa1cher.coursejournalbackend.model.Faculty;
 import com.a6raywa1cher.coursejournalbackend.model.repo.FacultyRepository;
+import com.a6raywa1cher.coursejournalbackend.security.OwnershipResolver;
 import com.a6raywa1cher.coursejournalbackend.service.FacultyService;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
@@ -22,9 +23,12 @@ public class FacultyServiceImpl implements FacultyService {
 
     private final MapStructMapper mapper;
 
-    public FacultyServiceImpl(FacultyRepository repository, MapStructMapper mapper) {
+    private final OwnershipResolver ownershipResolver;
+
+    public FacultyServiceImpl(FacultyRepository repository, MapStructMapper mapper, OwnershipResolver ownershipResolver) {
         this.repository = repository;
         this.mapper = mapper;
+        this.ownershipResolver = ownershipResolver;
     }
 
     @Override
@@ -84,6 +88,8 @@ public class FacultyServiceImpl implements FacultyService {
     public void delete(long id) {
         Faculty faculty = getFacultyById(id);
         repository.delete(faculty);
+        // groups of the faculty go with it, with their students
+        ownershipResolver.invalidateAll();
     }
 
     private Faculty getFacultyById(long id) {
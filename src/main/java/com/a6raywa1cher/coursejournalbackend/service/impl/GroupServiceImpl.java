@@ -11,6 +11,8 @@ import com.a6raywa1cher.coursejournalbackend.model.Group;
 import com.a6raywa1cher.coursejournalbackend.model.repo.CourseRepository;
 import com.a6raywa1cher.coursejournalbackend.model.repo.FacultyRepository;
 import com.a6raywa1cher.coursejournalbackend.model.repo.GroupRepository;
+import com.a6raywa1cher.coursejournalbackend.security.OwnershipResolver;
+import com.a6raywa1cher.coursejournalbackend.security.PermissionTarget;
 import com.a6raywa1cher.coursejournalbackend.service.GroupService;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
@@ -30,11 +32,15 @@ public class GroupServiceImpl implements GroupService {
 
     private final MapStructMapper mapper;
 
-    public GroupServiceImpl(GroupRepository repository, FacultyRepository facultyRepository, CourseRepository courseRepository, MapStructMapper mapper) {
+    private final OwnershipResolver ownershipResolver;
+
+    public GroupServiceImpl(GroupRepository repository, FacultyRepository facultyRepository, CourseRepository courseRepository, MapStructMapper mapper,
+                            OwnershipResolver ownershipResolver) {
         this.repository = repository;
         this.facultyRepository = facultyRepository;
         this.courseRepository = courseRepository;
         this.mapper = mapper;
+        this.ownershipResolver = ownershipResolver;
     }
 
     @Override
@@ -109,6 +115,8 @@ public class GroupServiceImpl implements GroupService {
     public void delete(long id) {
         Group group = getGroupById(id);
         repository.delete(group);
+        // the group and its students
+        ownershipResolver.invalidateOwnedBy(PermissionTarget.GROUP, id);
     }
 
     private Group getGroupById(long id) {
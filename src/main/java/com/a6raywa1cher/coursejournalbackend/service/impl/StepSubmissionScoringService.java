@@ -0,0 +1,20 @@
+package com.a6raywa1cher.coursejournalbackend.service.impl;
+
+import com.a6raywa1cher.coursejournalbackend.model.ScoringPolicy;
+import org.springframework.stereotype.Component;
+
+@Component
+public class StepSubmissionScoringService extends AbstractSubmissionScoringService {
+    @Override
+    public ScoringPolicy getPolicy() {
+        return ScoringPolicy.STEP;
+    }
+
+    @Override
+    public double calculateDeadlineFactor(long softDeadline, long hardDeadline, int maxPenaltyPercent, long submitted) {
+        double mpd = maxPenaltyPercent / 100d;
+        if (submitted <= softDeadline) return 1d;
+        if (submitted <= hardDeadline) return 1d - mpd / 2;
+        return 1d - mpd;
+    }
+}
@@ -8,6 +8,8 @@ import com.a6raywa1cher.coursejournalbackend.model.Course;
 import com.a6raywa1cher.coursejournalbackend.model.Group;
 import com.a6raywa1cher.coursejournalbackend.model.Student;
 import com.a6raywa1cher.coursejournalbackend.model.repo.StudentRepository;
+import com.a6raywa1cher.coursejournalbackend.security.AuthorityVersions;
+import com.a6raywa1cher.coursejournalbackend.security.OwnershipResolver;
 import com.a6raywa1cher.coursejournalbackend.service.CourseService;
 import com.a6raywa1cher.coursejournalbackend.service.GroupService;
 import com.a6raywa1cher.coursejournalbackend.service.StudentService;
@@ -32,13 +34,18 @@ public class StudentServiceImpl implements StudentService {
     private final StudentRepository repository;
     private final GroupService groupService;
     private final MapStructMapper mapper;
+    private final OwnershipResolver ownershipResolver;
+    private final AuthorityVersions authorityVersions;
     private CourseService courseService;
 
     @Autowired
-    public StudentServiceImpl(StudentRepository repository, GroupService groupService, MapStructMapper mapper) {
+    public StudentServiceImpl(StudentRepository repository, GroupService groupService, MapStructMapper mapper,
+                              OwnershipResolver ownershipResolver, AuthorityVersions authorityVersions) {
         this.repository = repository;
         this.groupService = groupService;
         this.mapper = mapper;
+        this.ownershipResolver = ownershipResolver;
+        this.authorityVersions = authorityVersions;
     }
 
     @Override
@@ -72,11 +79,23 @@ public class StudentServiceImpl implements StudentService {
         return repository.getAllByCourse(course, Sort.unsorted());
     }
 
+    @Override
+    public List<Long> getIdsByCourseId(long courseId) {
+        return repository.getIdsByCourse(getCourseById(courseId));
+    }
+
     @Override
     public List<StudentDto> getByGroupId(long groupId, Sort sort) {
         return repository.getAllByGroup(getGroupById(groupId), sort).stream().map(mapper::map).toList();
     }
 
+    @Override
+    public List<StudentDto> getByCourseIdAndGroupId(long courseId, long groupId, Sort sort) {
+        return repository.getAllByCourseAndGroup(getCourseById(courseId), getGroupById(groupId), sort).stream()
+                .map(mapper::map)
+                .toList();
+    }
+
     @Override
     public StudentDto create(StudentDto dto) {
         Student student = new Student();
@@ -125,6 +144,8 @@ public class StudentServiceImpl implements StudentService {
         student.setGroup(group);
         student.setCreatedAt(LocalDateTime.now());
         student.setLastModifiedAt(LocalDateTime.now());
+        ownershipResolver.invalidate(Student.class, id);
+        bumpAuthorities(student);
 
         return mapper.map(repository.save(student));
     }
@@ -139,6 +160,8 @@ public class StudentServiceImpl implements StudentService {
         student.setGroup(group);
         student.setCreatedAt(LocalDateTime.now());
         student.setLastModifiedAt(LocalDateTime.now());
+        ownershipResolver.invalidate(Student.class, id);
+        bumpAuthorities(student);
 
         return mapper.map(repository.save(student));
     }
@@ -147,6 +170,15 @@ public class StudentServiceImpl implements StudentService {
     public void delete(long id) {
         Student student = getStudentById(id);
         repository.delete(student);
+        ownershipResolver.invalidate(Student.class, id);
+        bumpAuthorities(student);
+    }
+
+    // a headman's authorities are derived from their group
+    private void bumpAuthorities(Student student) {
+        if (student.getAuthUser() != null) {
+            authorityVersions.bumpUser(student.getAuthUser().getId());
+        }
     }
 
     private Student getStudentById(long id) {
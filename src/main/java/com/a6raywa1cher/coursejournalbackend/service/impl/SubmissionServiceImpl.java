@@ -1,22 +1,40 @@
 package com.a6raywa1cher.coursejournalbackend.service.impl;
 
-import com.a6raywa1cher.coursejournalbackend.dto.CriteriaDto;
+import com.a6raywa1cher.coursejournalbackend.component.SubmissionScoringRegistry;
+import com.a6raywa1cher.coursejournalbackend.component.TaskScoringContextCache;
+import com.a6raywa1cher.coursejournalbackend.dto.CourseStudentScoreDto;
+import com.a6raywa1cher.coursejournalbackend.dto.GradeSheetDto;
+import com.a6raywa1cher.coursejournalbackend.dto.SubmissionDeltaDto;
 import com.a6raywa1cher.coursejournalbackend.dto.SubmissionDto;
-import com.a6raywa1cher.coursejournalbackend.dto.TaskDto;
 import com.a6raywa1cher.coursejournalbackend.dto.exc.*;
 import com.a6raywa1cher.coursejournalbackend.dto.mapper.MapStructMapper;
 import com.a6raywa1cher.coursejournalbackend.model.*;
+import com.a6raywa1cher.coursejournalbackend.model.repo.CourseStudentScoreRepository;
+import com.a6raywa1cher.coursejournalbackend.model.repo.GradeSheetStudentRow;
+import com.a6raywa1cher.coursejournalbackend.model.repo.GradeSheetTaskRow;
+import com.a6raywa1cher.coursejournalbackend.model.repo.SubmissionCriteriaPairs;
 import com.a6raywa1cher.coursejournalbackend.model.repo.SubmissionRepository;
+import com.a6raywa1cher.coursejournalbackend.model.repo.SubmissionScoreRow;
+import com.a6raywa1cher.coursejournalbackend.model.repo.SubmissionScoreUpdate;
+import com.a6raywa1cher.coursejournalbackend.model.repo.SubmissionStateRow;
+import com.a6raywa1cher.coursejournalbackend.model.repo.SubmissionTombstoneRepository;
+import com.a6raywa1cher.coursejournalbackend.model.repo.SubmissionUpsert;
+import com.a6raywa1cher.coursejournalbackend.security.OwnershipResolver;
 import com.a6raywa1cher.coursejournalbackend.service.*;
 import com.a6raywa1cher.coursejournalbackend.utils.EntityUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
-import org.springframework.data.util.Pair;
+import org.springframework.data.jpa.domain.JpaSort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
 import java.util.*;
-import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -33,15 +51,29 @@ public class SubmissionServiceImpl implements SubmissionService {
 
     private final CourseService courseService;
 
-    private final SubmissionScoringService scoringService;
+    private final SubmissionScoringRegistry scoringRegistry;
+
+    private final TaskScoringContextCache scoringContexts;
+
+    private final CourseStudentScoreRepository scoreRepository;
+
+    private final SubmissionTombstoneRepository tombstoneRepository;
+
+    private final OwnershipResolver ownershipResolver;
 
     public SubmissionServiceImpl(SubmissionRepository repository, StudentService studentService, MapStructMapper mapper,
-                                 CourseService courseService, SubmissionScoringService scoringService) {
+                                 CourseService courseService, SubmissionScoringRegistry scoringRegistry,
+                                 TaskScoringContextCache scoringContexts, CourseStudentScoreRepository scoreRepository,
+                                 SubmissionTombstoneRepository tombstoneRepository, OwnershipResolver ownershipResolver) {
         this.repository = repository;
+        this.scoreRepository = scoreRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.ownershipResolver = ownershipResolver;
         this.studentService = studentService;
         this.mapper = mapper;
         this.courseService = courseService;
-        this.scoringService = scoringService;
+        this.scoringRegistry = scoringRegistry;
+        this.scoringContexts = scoringContexts;
     }
 
     @Override
@@ -71,6 +103,33 @@ public class SubmissionServiceImpl implements SubmissionService {
                 .toList();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public SubmissionDeltaDto getByCourseModifiedSince(long courseId, ZonedDateTime since) {
+        Course course = getCourseById(courseId);
+        // updated_at is stamped when a transaction makes the change, not when it commits, so the watermark is taken
+        // before the reads and held behind every transaction still running; recent edits may be returned twice
+        LocalDateTime watermark = repository.getDeltaWatermark();
+        LocalDateTime from = since.withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+
+        List<SubmissionStateRow> rows = repository.getAllStateRowsByCourseModifiedSince(course, from);
+        List<SubmissionDto> changed = new ArrayList<>();
+        int i = 0;
+        while (i < rows.size()) {
+            SubmissionStateRow first = rows.get(i);
+            int start = i;
+            while (i < rows.size() && rows.get(i).submissionId().equals(first.submissionId())) i++;
+            long[] satisfiedCriteria = rows.subList(start, i).stream()
+                    .map(SubmissionStateRow::criteriaId)
+                    .filter(Objects::nonNull)
+                    .mapToLong(Long::longValue)
+                    .toArray();
+            changed.add(toDto(new StoredSubmission(first, satisfiedCriteria).toUpsert(), satisfiedCriteria));
+        }
+        List<Long> deleted = tombstoneRepository.getSubmissionIdsByCourseDeletedSince(course, from);
+        return new SubmissionDeltaDto(changed, deleted, toZonedDateTime(watermark));
+    }
+
     @Override
     public List<SubmissionDto> getByTask(long taskId, Sort sort) {
         Task task = getTaskById(taskId);
@@ -80,22 +139,91 @@ public class SubmissionServiceImpl implements SubmissionService {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public GradeSheetDto getGradeSheetByCourse(long courseId) {
+        Course course = getCourseById(courseId);
+        GradeSheetDto sheet = new GradeSheetDto();
+
+        Map<Long, Integer> taskIndex = new HashMap<>();
+        for (GradeSheetTaskRow row : repository.getGradeSheetTaskRowsByCourse(course)) {
+            Integer index = taskIndex.get(row.taskId());
+            if (index == null) {
+                index = sheet.getTasks().add(row.taskId(), row.taskNumber(), row.title(), row.maxScore());
+                taskIndex.put(row.taskId(), index);
+            }
+            if (row.criteriaId() != null) {
+                sheet.getCriteria().add(row.criteriaId(), index, row.criteriaName(), row.criteriaPercent());
+            }
+        }
+
+        Map<Long, Integer> studentIndex = new HashMap<>();
+        for (GradeSheetStudentRow row : repository.getGradeSheetStudentRowsByCourse(course)) {
+            studentIndex.put(row.studentId(), sheet.getStudents().add(
+                    row.studentId(), row.lastName(), row.firstName(), row.middleName(), row.groupId()
+            ));
+        }
+
+        List<SubmissionStateRow> rows = repository.getAllStateRowsByCourse(course);
+        int i = 0;
+        while (i < rows.size()) {
+            SubmissionStateRow first = rows.get(i);
+            List<Long> satisfiedCriteria = new ArrayList<>();
+            for (; i < rows.size() && rows.get(i).submissionId().equals(first.submissionId()); i++) {
+                Long criteriaId = rows.get(i).criteriaId();
+                if (criteriaId != null) satisfiedCriteria.add(criteriaId);
+            }
+            // submissions of students who left the course stay in the db, but not on the sheet
+            Integer student = studentIndex.get(first.studentId());
+            if (student == null) continue;
+            sheet.getSubmissions().add(first.submissionId(), taskIndex.get(first.taskId()), student,
+                    toZonedDateTime(first.submittedAt()), first.mainScore(), first.additionalScore(), satisfiedCriteria);
+        }
+        return sheet;
+    }
+
+    @Override
+    public Page<CourseStudentScoreDto> getRankingByCourse(long courseId, Sort.Direction direction, Pageable pageable) {
+        Course course = getCourseById(courseId);
+        Sort sort = JpaSort.unsafe(direction, "coalesce(css.totalScore, 0.0)").and(Sort.by("id"));
+        return scoreRepository.getRankingByCourse(course,
+                PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort));
+    }
+
+    @Override
+    @Transactional
     public void recalculateMainScoreForTask(long taskId) {
         Task task = getTaskById(taskId);
-        List<Submission> submissions = repository.getAllByTask(task, Sort.unsorted());
-        List<CriteriaDto> criteria = criteriaService.getByTaskId(taskId, Sort.unsorted());
-        TaskDto taskDto = mapper.map(task);
-        for (Submission submission : submissions) {
-            submission.setMainScore(scoringService.getMainScore(
-                    mapper.map(submission),
-                    taskDto,
-                    criteria
-            ));
+        List<SubmissionScoreRow> rows = repository.getAllScoreRowsByTask(task);
+        TaskScoringContext context = scoringContexts.get(task);
+        List<SubmissionScoreUpdate> updates = new ArrayList<>();
+        long[] satisfiedCriteria = new long[Math.max(1, context.criteriaIds().length)];
+        int i = 0;
+        while (i < rows.size()) {
+            SubmissionScoreRow first = rows.get(i);
+            int count = 0;
+            for (; i < rows.size() && rows.get(i).submissionId().equals(first.submissionId()); i++) {
+                Long criteriaId = rows.get(i).criteriaId();
+                if (criteriaId == null) continue;
+                if (count == satisfiedCriteria.length) {
+                    satisfiedCriteria = Arrays.copyOf(satisfiedCriteria, count * 2);
+                }
+                satisfiedCriteria[count++] = criteriaId;
+            }
+            double mainScore = scoringRegistry.getMainScore(
+                    context, TaskScoringContext.toEpochSecond(first.submittedAt()), satisfiedCriteria, count
+            );
+            if (first.mainScore() == null || first.mainScore() != mainScore) {
+                updates.add(new SubmissionScoreUpdate(first.submissionId(), mainScore));
+            }
+        }
+        repository.batchUpdateMainScores(updates, LocalDateTime.now());
+        if (!updates.isEmpty()) {
+            scoreRepository.refreshForTask(task.getCourse().getId(), taskId);
         }
-        repository.saveAll(submissions);
     }
 
     @Override
+    @Transactional
     public SubmissionDto create(SubmissionDto dto) {
         Submission submission = new Submission();
         Task task = getTaskById(dto.getTask());
@@ -109,37 +237,26 @@ public class SubmissionServiceImpl implements SubmissionService {
         submission.setTask(task);
         submission.setStudent(student);
         setSatisfiedCriteria(submission, satisfiedCriteria);
-        submission.setMainScore(scoringService.getMainScore(
-                mapper.map(submission),
-                mapper.map(task),
-                criteriaService.getByTaskId(task.getId(), Sort.unsorted())
-        ));
+        submission.setMainScore(getMainScore(submission));
         submission.setCreatedAt(LocalDateTime.now());
         submission.setLastModifiedAt(LocalDateTime.now());
-        return mapper.map(repository.save(submission));
+        Submission saved = repository.save(submission);
+        refreshScore(saved);
+        return mapper.map(saved);
     }
 
     private SetForStudentAndCourseContext createSetForStudentAndCourseContext(Course course) {
         long courseId = course.getId();
 
         LocalDateTime now = LocalDateTime.now();
-        List<Criteria> allCriteria = criteriaService.findRawByCourseId(courseId);
-        Map<Long, Criteria> idToCriteria = allCriteria
+        Map<Long, Criteria> idToCriteria = criteriaService.findRawByCourseId(courseId)
                 .stream()
                 .collect(Collectors.toMap(Criteria::getId, c -> c));
-        Map<Long, List<CriteriaDto>> taskToCriteriaList = allCriteria
-                .stream()
-                .map(mapper::map)
-                .map(dto -> Pair.of(dto.getTask(), dto))
-                .collect(Collectors.groupingBy(Pair::getFirst, Collectors.mapping(Pair::getSecond, Collectors.toList())));
         Map<Long, Task> idToTask = taskService.findRawByCourseId(courseId)
                 .stream()
                 .collect(Collectors.toMap(Task::getId, t -> t));
-        Map<Long, TaskDto> idToTaskDto = idToTask.entrySet()
-                .stream()
-                .collect(Collectors.toMap(Map.Entry::getKey, e -> mapper.map(e.getValue())));
 
-        return new SetForStudentAndCourseContext(idToCriteria, taskToCriteriaList, idToTask, idToTaskDto, now);
+        return new SetForStudentAndCourseContext(idToCriteria, idToTask, now);
     }
 
     private SetForStudentAndCourseResult $setForStudentAndCourse(
@@ -149,9 +266,7 @@ public class SubmissionServiceImpl implements SubmissionService {
             SetForStudentAndCourseContext ctx
     ) {
         Map<Long, Criteria> idToCriteria = ctx.idToCriteria();
-        Map<Long, List<CriteriaDto>> taskToCriteriaList = ctx.taskToCriteriaList();
         Map<Long, Task> idToTask = ctx.idToTask();
-        Map<Long, TaskDto> idToTaskDto = ctx.idToTaskDto();
         LocalDateTime now = ctx.now();
 
         Map<Long, Submission> taskToSubmission = studentSubmissions
@@ -176,11 +291,7 @@ public class SubmissionServiceImpl implements SubmissionService {
             List<Criteria> satisfiedCriteria = pickCriteria(idToCriteria, req.getSatisfiedCriteria());
             assertSameCourseAndTask(satisfiedCriteria, task);
             setSatisfiedCriteria(db, satisfiedCriteria);
-            db.setMainScore(scoringService.getMainScore(
-                    mapper.map(db),
-                    idToTaskDto.get(taskId),
-                    taskToCriteriaList.get(taskId)
-            ));
+            db.setMainScore(getMainScore(db));
             db.setLastModifiedAt(now);
 
             if (existsInDb) {
@@ -196,6 +307,7 @@ public class SubmissionServiceImpl implements SubmissionService {
     }
 
     @Override
+    @Transactional
     public List<SubmissionDto> setForStudentAndCourse(long studentId, long courseId, List<SubmissionDto> submissionDtoList) {
         Student student = getStudentById(studentId);
         Course course = getCourseById(courseId);
@@ -211,54 +323,190 @@ public class SubmissionServiceImpl implements SubmissionService {
         List<Submission> toSave = result.toSave();
         List<Submission> toDelete = result.toDelete();
 
+        tombstoneRepository.record(toDelete.stream().map(Submission::getId).toList());
         repository.deleteAll(toDelete);
-        return repository.saveAll(toSave).stream()
+        toDelete.forEach(s -> ownershipResolver.invalidate(Submission.class, s.getId()));
+        List<Submission> saved = repository.saveAll(toSave);
+        scoreRepository.refresh(courseId, List.of(studentId));
+        return saved.stream()
                 .map(mapper::map)
                 .toList();
     }
 
     @Override
+    @Transactional
     public List<SubmissionDto> setForCourse(long courseId, List<SubmissionDto> submissionDtoList) {
         Course course = getCourseById(courseId);
+        Map<Long, Task> idToTask = taskService.findRawByCourseId(courseId)
+                .stream()
+                .collect(Collectors.toMap(Task::getId, t -> t));
+        Map<Long, Long> criteriaToTask = criteriaService.findRawByCourseId(courseId)
+                .stream()
+                .collect(Collectors.toMap(Criteria::getId, c -> c.getTask().getId()));
+        Set<Long> studentIds = new HashSet<>(studentService.getIdsByCourseId(courseId));
+        Map<TaskStudentKey, StoredSubmission> stored = getStoredSubmissions(course, studentIds);
+        LocalDateTime now = LocalDateTime.now();
 
-        SetForStudentAndCourseContext ctx = createSetForStudentAndCourseContext(course);
+        List<PlannedSubmission> planned = new ArrayList<>();
+        Set<TaskStudentKey> requested = new HashSet<>();
+        int createdCount = 0;
+        for (SubmissionDto req : submissionDtoList) {
+            PlannedSubmission plan = planSubmission(course, req, idToTask, criteriaToTask, studentIds, stored);
+            if (!requested.add(plan.key())) {
+                throw new ConflictException(Submission.class,
+                        "task", Long.toString(plan.key().taskId()),
+                        "student", Long.toString(plan.key().studentId()));
+            }
+            if (plan.stored() == null) createdCount++;
+            planned.add(plan);
+        }
 
-        List<Student> allStudents = studentService.getRawByCourseId(courseId);
-        Map<Long, Student> idToStudent = allStudents.stream()
-                .collect(Collectors.toMap(Student::getId, s -> s));
+        long[] createdIds = repository.nextIds(createdCount);
+        int createdIndex = 0;
+        List<SubmissionUpsert> upserts = new ArrayList<>();
+        SubmissionCriteriaPairs removedCriteria = new SubmissionCriteriaPairs();
+        SubmissionCriteriaPairs addedCriteria = new SubmissionCriteriaPairs();
+        List<SubmissionDto> result = new ArrayList<>();
+        for (PlannedSubmission plan : planned) {
+            StoredSubmission db = plan.stored();
+            if (db != null && db.isSameAs(plan)) {
+                result.add(toDto(db.toUpsert(), plan.satisfiedCriteria()));
+                continue;
+            }
+            long id = db != null ? db.row().submissionId() : createdIds[createdIndex++];
+            long[] storedCriteria = db != null ? db.satisfiedCriteria() : new long[0];
+            SubmissionUpsert upsert = new SubmissionUpsert(
+                    id, plan.key().taskId(), plan.key().studentId(), plan.submittedAt(), plan.mainScore(),
+                    plan.additionalScore(), db != null ? db.row().createdAt() : now, now
+            );
+            upserts.add(upsert);
+            addDifference(id, storedCriteria, plan.satisfiedCriteria(), removedCriteria);
+            addDifference(id, plan.satisfiedCriteria(), storedCriteria, addedCriteria);
+            result.add(toDto(upsert, plan.satisfiedCriteria()));
+        }
 
-        Function<Long, Student> handleStudentAbsence = (k) -> {
-            throw new StudentDoesntBelongToCourseException(k, course.getId());
-        };
+        long[] deletedIds = stored.entrySet().stream()
+                .filter(e -> !requested.contains(e.getKey()))
+                .mapToLong(e -> e.getValue().row().submissionId())
+                .toArray();
 
-        Map<Student, List<SubmissionDto>> studentToRequestMap = submissionDtoList.stream()
-                .collect(Collectors.groupingBy(s -> idToStudent.computeIfAbsent(s.getStudent(), handleStudentAbsence)));
+        tombstoneRepository.record(Arrays.stream(deletedIds).boxed().toList());
+        repository.applyDiff(deletedIds, upserts, removedCriteria, addedCriteria);
+        Arrays.stream(deletedIds).forEach(id -> ownershipResolver.invalidate(Submission.class, id));
+        scoreRepository.refreshForCourse(courseId);
+        return result;
+    }
 
-        List<Submission> allSubmissions = repository.getAllByCourse(course, Sort.unsorted());
-        Map<Student, List<Submission>> studentToDbSubmissionsMap = allSubmissions.stream()
-                .collect(Collectors.groupingBy(s -> idToStudent.computeIfAbsent(s.getStudent().getId(), handleStudentAbsence)));
+    private Map<TaskStudentKey, StoredSubmission> getStoredSubmissions(Course course, Set<Long> studentIds) {
+        List<SubmissionStateRow> rows = repository.getAllStateRowsByCourse(course);
+        Map<TaskStudentKey, StoredSubmission> stored = new HashMap<>();
+        int i = 0;
+        while (i < rows.size()) {
+            SubmissionStateRow first = rows.get(i);
+            if (!studentIds.contains(first.studentId())) {
+                throw new StudentDoesntBelongToCourseException(first.studentId(), course.getId());
+            }
+            int from = i;
+            while (i < rows.size() && rows.get(i).submissionId().equals(first.submissionId())) i++;
+            long[] satisfiedCriteria = rows.subList(from, i).stream()
+                    .map(SubmissionStateRow::criteriaId)
+                    .filter(Objects::nonNull)
+                    .mapToLong(Long::longValue)
+                    .distinct()
+                    .toArray();
+            stored.put(new TaskStudentKey(first.taskId(), first.studentId()), new StoredSubmission(first, satisfiedCriteria));
+        }
+        return stored;
+    }
 
-        List<Submission> toSave = new ArrayList<>();
-        List<Submission> toDelete = new ArrayList<>();
+    private PlannedSubmission planSubmission(Course course, SubmissionDto req, Map<Long, Task> idToTask,
+                                             Map<Long, Long> criteriaToTask, Set<Long> studentIds,
+                                             Map<TaskStudentKey, StoredSubmission> stored) {
+        if (!studentIds.contains(req.getStudent())) {
+            throw new StudentDoesntBelongToCourseException(req.getStudent(), course.getId());
+        }
+        Task task = idToTask.get(req.getTask());
+        if (task == null) {
+            throw new VariousParentEntitiesException(List.of(course.getId(), getTaskById(req.getTask()).getCourse().getId()));
+        }
+        long[] satisfiedCriteria = req.getSatisfiedCriteria().stream()
+                .mapToLong(Long::longValue)
+                .sorted()
+                .distinct()
+                .toArray();
+        for (long criteriaId : satisfiedCriteria) {
+            Long criteriaTaskId = criteriaToTask.get(criteriaId);
+            if (criteriaTaskId == null) {
+                Criteria criteria = getCriteriaListByIds(List.of(criteriaId)).get(0);
+                throw new VariousParentEntitiesException(List.of(course.getId(), criteria.getTask().getCourse().getId()));
+            }
+            if (!criteriaTaskId.equals(task.getId())) {
+                throw new VariousParentEntitiesException(List.of(task.getId(), criteriaTaskId));
+            }
+        }
+        if (req.getSubmittedAt() == null) throw new NoDataPresentedException(Submission.class, "submittedAt");
+        LocalDateTime submittedAt = req.getSubmittedAt().withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+        double mainScore = scoringRegistry.getMainScore(
+                scoringContexts.get(task), TaskScoringContext.toEpochSecond(submittedAt),
+                satisfiedCriteria, satisfiedCriteria.length
+        );
+        TaskStudentKey key = new TaskStudentKey(task.getId(), req.getStudent());
+        return new PlannedSubmission(key, submittedAt, mainScore, req.getAdditionalScore(), satisfiedCriteria, stored.get(key));
+    }
 
-        for (Student student : allStudents) {
-            List<Submission> studentSubmissions = studentToDbSubmissionsMap.getOrDefault(student, Collections.emptyList());
-            List<SubmissionDto> requestSubmissions = studentToRequestMap.getOrDefault(student, Collections.emptyList());
+    // adds every id of minuend missing in subtrahend, both are sorted ascending without duplicates
+    private static void addDifference(long submissionId, long[] minuend, long[] subtrahend, SubmissionCriteriaPairs target) {
+        int j = 0;
+        for (long criteriaId : minuend) {
+            while (j < subtrahend.length && subtrahend[j] < criteriaId) j++;
+            if (j == subtrahend.length || subtrahend[j] != criteriaId) {
+                target.add(submissionId, criteriaId);
+            }
+        }
+    }
 
-            SetForStudentAndCourseResult result = $setForStudentAndCourse(
-                    student,
-                    studentSubmissions,
-                    requestSubmissions,
-                    ctx
-            );
-            toSave.addAll(result.toSave());
-            toDelete.addAll(result.toDelete());
+    private static SubmissionDto toDto(SubmissionUpsert submission, long[] satisfiedCriteria) {
+        return SubmissionDto.builder()
+                .id(submission.id())
+                .task(submission.taskId())
+                .student(submission.studentId())
+                .submittedAt(toZonedDateTime(submission.submittedAt()))
+                .satisfiedCriteria(Arrays.stream(satisfiedCriteria).boxed().toList())
+                .mainScore(submission.mainScore())
+                .additionalScore(submission.additionalScore())
+                .createdAt(toZonedDateTime(submission.createdAt()))
+                .lastModifiedAt(toZonedDateTime(submission.lastModifiedAt()))
+                .build();
+    }
+
+    private static ZonedDateTime toZonedDateTime(LocalDateTime dateTime) {
+        return dateTime != null ? ZonedDateTime.of(dateTime, ZoneId.systemDefault()) : null;
+    }
+
+    private record TaskStudentKey(long taskId, long studentId) {
+    }
+
+    private record PlannedSubmission(
+            TaskStudentKey key,
+            LocalDateTime submittedAt,
+            double mainScore,
+            Double additionalScore,
+            long[] satisfiedCriteria,
+            StoredSubmission stored) {
+    }
+
+    private record StoredSubmission(SubmissionStateRow row, long[] satisfiedCriteria) {
+        boolean isSameAs(PlannedSubmission plan) {
+            return row.mainScore() != null && row.mainScore() == plan.mainScore() &&
+                    Objects.equals(row.submittedAt(), plan.submittedAt()) &&
+                    Objects.equals(row.additionalScore(), plan.additionalScore()) &&
+                    Arrays.equals(satisfiedCriteria, plan.satisfiedCriteria());
         }
 
-        repository.deleteAll(toDelete);
-        return repository.saveAll(toSave).stream()
-                .map(mapper::map)
-                .toList();
+        SubmissionUpsert toUpsert() {
+            return new SubmissionUpsert(row.submissionId(), row.taskId(), row.studentId(), row.submittedAt(),
+                    row.mainScore(), row.additionalScore(), row.createdAt(), row.lastModifiedAt());
+        }
     }
 
     private record SetForStudentAndCourseResult(List<Submission> toSave, List<Submission> toDelete) {
@@ -266,14 +514,13 @@ public class SubmissionServiceImpl implements SubmissionService {
 
     private record SetForStudentAndCourseContext(
             Map<Long, Criteria> idToCriteria,
-            Map<Long, List<CriteriaDto>> taskToCriteriaList,
             Map<Long, Task> idToTask,
-            Map<Long, TaskDto> idToTaskDto,
             LocalDateTime now) {
     }
 
 
     @Override
+    @Transactional
     public SubmissionDto update(long id, SubmissionDto dto) {
         Submission submission = getSubmissionById(id);
         Task task = getTaskById(dto.getTask());
@@ -286,16 +533,15 @@ public class SubmissionServiceImpl implements SubmissionService {
         mapper.put(dto, submission);
 
         setSatisfiedCriteria(submission, satisfiedCriteria);
-        submission.setMainScore(scoringService.getMainScore(
-                mapper.map(submission),
-                mapper.map(task),
-                task.getCriteria().stream().map(mapper::map).toList()
-        ));
+        submission.setMainScore(getMainScore(submission));
         submission.setLastModifiedAt(LocalDateTime.now());
-        return mapper.map(repository.save(submission));
+        Submission saved = repository.save(submission);
+        refreshScore(saved);
+        return mapper.map(saved);
     }
 
     @Override
+    @Transactional
     public SubmissionDto patch(long id, SubmissionDto dto) {
         Submission submission = getSubmissionById(id);
         Task task = dto.getTask() != null ? getTaskById(dto.getTask()) : submission.getTask();
@@ -310,21 +556,39 @@ public class SubmissionServiceImpl implements SubmissionService {
         mapper.patch(dto, submission);
 
         setSatisfiedCriteria(submission, satisfiedCriteria);
-        submission.setMainScore(scoringService.getMainScore(
-                mapper.map(submission),
-                mapper.map(task),
-                task.getCriteria().stream().map(mapper::map).toList()
-        ));
+        submission.setMainScore(getMainScore(submission));
         submission.setLastModifiedAt(LocalDateTime.now());
-        return mapper.map(repository.save(submission));
+        Submission saved = repository.save(submission);
+        refreshScore(saved);
+        return mapper.map(saved);
     }
 
     @Override
+    @Transactional
     public void delete(long id) {
         Submission submission = getSubmissionById(id);
         submission.getSatisfiedCriteria().forEach(c -> c.getSubmissionList().remove(submission));
         submission.getSatisfiedCriteria().clear();
+        tombstoneRepository.record(List.of(id));
         repository.delete(submission);
+        ownershipResolver.invalidate(Submission.class, id);
+        refreshScore(submission);
+    }
+
+    private void refreshScore(Submission submission) {
+        scoreRepository.refresh(submission.getTask().getCourse().getId(), List.of(submission.getStudent().getId()));
+    }
+
+    private double getMainScore(Submission submission) {
+        long[] satisfiedCriteria = submission.getSatisfiedCriteria().stream()
+                .mapToLong(Criteria::getId)
+                .sorted()
+                .toArray();
+        long submittedAt = submission.getSubmittedAt() != null ?
+                TaskScoringContext.toEpochSecond(submission.getSubmittedAt()) : 0;
+        return scoringRegistry.getMainScore(
+                scoringContexts.get(submission.getTask()), submittedAt, satisfiedCriteria, satisfiedCriteria.length
+        );
     }
 
     private Submission getSubmissionById(long id) {
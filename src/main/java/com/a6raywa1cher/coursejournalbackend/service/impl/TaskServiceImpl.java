@@ -1,17 +1,21 @@
 package com.a6raywa1cher.coursejournalbackend.service.impl;
 
+import com.a6raywa1cher.coursejournalbackend.component.ScoreRecalculationQueue;
+import com.a6raywa1cher.coursejournalbackend.component.TaskScoringContextCache;
 import com.a6raywa1cher.coursejournalbackend.dto.TaskDto;
 import com.a6raywa1cher.coursejournalbackend.dto.exc.*;
 import com.a6raywa1cher.coursejournalbackend.dto.mapper.MapStructMapper;
 import com.a6raywa1cher.coursejournalbackend.model.Course;
 import com.a6raywa1cher.coursejournalbackend.model.Task;
+import com.a6raywa1cher.coursejournalbackend.model.repo.CourseStudentScoreRepository;
+import com.a6raywa1cher.coursejournalbackend.model.repo.TaskReorderCheck;
 import com.a6raywa1cher.coursejournalbackend.model.repo.TaskRepository;
+import com.a6raywa1cher.coursejournalbackend.security.OwnershipResolver;
+import com.a6raywa1cher.coursejournalbackend.security.PermissionTarget;
 import com.a6raywa1cher.coursejournalbackend.service.CourseService;
-import com.a6raywa1cher.coursejournalbackend.service.SubmissionService;
 import com.a6raywa1cher.coursejournalbackend.service.TaskService;
 import org.apache.commons.lang3.tuple.Pair;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.context.annotation.Lazy;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -19,9 +23,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.function.Function;
 import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
 
 @Service
 @Transactional
@@ -29,18 +31,27 @@ public class TaskServiceImpl implements TaskService {
     private final MapStructMapper mapper;
     private final TaskRepository repository;
     private final CourseService courseService;
-    private SubmissionService submissionService;
+    private final ScoreRecalculationQueue recalculationQueue;
+    private final CourseStudentScoreRepository scoreRepository;
+    private final OwnershipResolver ownershipResolver;
+    private final TaskScoringContextCache scoringContexts;
 
     @Autowired
-    public TaskServiceImpl(MapStructMapper mapper, TaskRepository repository, CourseService courseService) {
+    public TaskServiceImpl(MapStructMapper mapper, TaskRepository repository, CourseService courseService,
+                           ScoreRecalculationQueue recalculationQueue, CourseStudentScoreRepository scoreRepository,
+                           OwnershipResolver ownershipResolver, TaskScoringContextCache scoringContexts) {
         this.mapper = mapper;
         this.repository = repository;
         this.courseService = courseService;
+        this.recalculationQueue = recalculationQueue;
+        this.scoreRepository = scoreRepository;
+        this.ownershipResolver = ownershipResolver;
+        this.scoringContexts = scoringContexts;
     }
 
     @Override
     public TaskDto getById(long id) {
-        return repository.findById(id).map(mapper::map).orElseThrow(() -> new NotFoundException(Task.class, id));
+        return repository.findById(id).map(this::map).orElseThrow(() -> new NotFoundException(Task.class, id));
     }
 
     @Override
@@ -56,39 +67,35 @@ public class TaskServiceImpl implements TaskService {
 
     @Override
     public void reorder(long courseId, Map<Long, Integer> idToNumber) {
-        List<Task> allRawById = StreamSupport.stream(
-                repository.findAllById(idToNumber.keySet()).spliterator(),
-                false
-        ).toList();
-
-        if (allRawById.size() != idToNumber.size()) {
-            Set<Long> requested = idToNumber.keySet();
-            Set<Long> presented = allRawById.stream().map(Task::getId).collect(Collectors.toSet());
-            throw new NotFoundException(Task.class, "ids", String.join(",", requested.stream()
-                    .filter(req -> !presented.contains(req))
+        TaskReorderCheck check = repository.checkReorder(courseId, idToNumber);
+
+        if (!check.missingIds().isEmpty()) {
+            throw new NotFoundException(Task.class, "ids", String.join(",", check.missingIds().stream()
                     .map(id -> Long.toString(id))
                     .toList()
             ));
         }
 
-        Map<Long, List<Long>> courses = splitByCourses(allRawById);
-        if (courses.size() != 1 || courses.keySet().iterator().next() != courseId) {
+        Map<Long, List<Long>> courses = check.courseToTasks();
+        if (courses.size() != 1 || !courses.containsKey(courseId)) {
             throw new VariousParentEntitiesException(courses);
         }
-        Course course = allRawById.get(0).getCourse();
 
-        assertNoConflictsInTaskNumbers(course, idToNumber);
+        if (check.duplicateNumber() != null) {
+            throw new ConflictException(
+                    Task.class,
+                    "taskNumber", Integer.toString(check.duplicateNumber()),
+                    "course", Long.toString(courseId)
+            );
+        }
 
-        repository.reorderTasksWithFlush(
-                allRawById.stream()
-                        .collect(Collectors.toMap(Function.identity(), t -> idToNumber.get(t.getId())))
-        );
+        repository.reorder(courseId, idToNumber);
     }
 
     @Override
     public Page<TaskDto> getByCourseId(long courseId, Pageable pageable) {
         Course course = getCourseById(courseId);
-        return repository.getAllByCourse(course, pageable).map(mapper::map);
+        return repository.getAllByCourse(course, pageable).map(this::map);
     }
 
     @Override
@@ -96,7 +103,7 @@ public class TaskServiceImpl implements TaskService {
         Course course = getCourseById(courseId);
         return repository.getAllByCourse(course)
                 .stream()
-                .map(mapper::map)
+                .map(this::map)
                 .toList();
     }
 
@@ -117,7 +124,7 @@ public class TaskServiceImpl implements TaskService {
         task.setCourse(course);
         task.setCreatedAt(LocalDateTime.now());
         task.setLastModifiedAt(LocalDateTime.now());
-        return mapper.map(repository.save(task));
+        return map(repository.save(task));
     }
 
     @Override
@@ -126,6 +133,7 @@ public class TaskServiceImpl implements TaskService {
         Course course = getCourseById(dto.getCourse());
 
         assertNoConflictsInTaskNumbers(course, Map.of(id, dto.getTaskNumber()));
+        ScoringParameters before = ScoringParameters.of(task);
         mapper.put(dto, task);
         assertNoCourseChange(task.getCourse(), course);
         assertDeadlineRule(task);
@@ -134,9 +142,11 @@ public class TaskServiceImpl implements TaskService {
         task.setLastModifiedAt(LocalDateTime.now());
 
         Task saved = repository.save(task);
-        submissionService.recalculateMainScoreForTask(task.getId());
+        if (!before.equals(ScoringParameters.of(saved))) {
+            recalculationQueue.schedule(task.getId());
+        }
 
-        return mapper.map(saved);
+        return map(saved);
     }
 
     @Override
@@ -146,6 +156,7 @@ public class TaskServiceImpl implements TaskService {
 
         if (dto.getTaskNumber() != null)
             assertNoConflictsInTaskNumbers(course, Map.of(task.getId(), dto.getTaskNumber()));
+        ScoringParameters before = ScoringParameters.of(task);
         mapper.patch(dto, task);
         assertNoCourseChange(task.getCourse(), course);
         assertDeadlineRule(task);
@@ -154,15 +165,27 @@ public class TaskServiceImpl implements TaskService {
         task.setLastModifiedAt(LocalDateTime.now());
 
         Task saved = repository.save(task);
-        submissionService.recalculateMainScoreForTask(task.getId());
+        if (!before.equals(ScoringParameters.of(saved))) {
+            recalculationQueue.schedule(task.getId());
+        }
 
-        return mapper.map(saved);
+        return map(saved);
     }
 
     @Override
     public void delete(long id) {
         Task task = getTaskById(id);
         repository.delete(task);
+        // submissions of the task are removed by the entity cascade
+        ownershipResolver.invalidateOwnedBy(PermissionTarget.COURSE, task.getCourse().getId());
+        scoringContexts.invalidate(id);
+        scoreRepository.refreshForCourse(task.getCourse().getId());
+    }
+
+    private TaskDto map(Task task) {
+        TaskDto dto = mapper.map(task);
+        dto.setScoresPending(recalculationQueue.isPending(task.getId()));
+        return dto;
     }
 
     private void assertNoConflictsInTaskNumbers(Course course, Map<Long, Integer> changes) {
@@ -208,16 +231,6 @@ public class TaskServiceImpl implements TaskService {
         }
     }
 
-    private Map<Long, List<Long>> splitByCourses(List<Task> tasks) {
-        Map<Long, List<Long>> out = new HashMap<>();
-        for (Task task : tasks) {
-            long course = task.getCourse().getId();
-            List<Long> list = out.computeIfAbsent(course, k -> new ArrayList<>());
-            list.add(task.getId());
-        }
-        return out;
-    }
-
     private Course getCourseById(long courseId) {
         return courseService.findRawById(courseId).orElseThrow(() -> new NotFoundException(Course.class, courseId));
     }
@@ -235,9 +248,14 @@ public class TaskServiceImpl implements TaskService {
         }
     }
 
-    @Autowired
-    @Lazy
-    public void setSubmissionService(SubmissionService submissionService) {
-        this.submissionService = submissionService;
+    /**
+     * Task fields which take part in the submission main score, edits of the rest don't need a recalculation.
+     */
+    private record ScoringParameters(Integer maxScore, Integer maxPenaltyPercent, Boolean deadlinesEnabled,
+                                     LocalDateTime softDeadlineAt, LocalDateTime hardDeadlineAt) {
+        static ScoringParameters of(Task task) {
+            return new ScoringParameters(task.getMaxScore(), task.getMaxPenaltyPercent(), task.getDeadlinesEnabled(),
+                    task.getSoftDeadlineAt(), task.getHardDeadlineAt());
+        }
     }
 }
@@ -0,0 +1,117 @@
+package com.a6raywa1cher.coursejournalbackend.utils;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+/**
+ * Caffeine cache with size based eviction above {@code maximumSize} entries and a time to live per entry.
+ * Loaders run outside of any lock. Every invalidation starts a new generation, and a value loaded in an older one
+ * is not stored, so a load racing an invalidation can't put the stale value back.
+ */
+public final class BoundedCache<K, V> {
+    private final Cache<K, V> cache;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    public BoundedCache(int maximumSize, Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Publishes the {@code cache.gets}, {@code cache.puts}, {@code cache.evictions} and {@code cache.size}
+     * meters tagged with {@code cache=name}.
+     */
+    public BoundedCache<K, V> registerMetrics(MeterRegistry registry, String name) {
+        CaffeineCacheMetrics.monitor(registry, cache, name);
+        return this;
+    }
+
+    /**
+     * @param loader may return null, which is passed through and not cached
+     */
+    public V get(K key, Function<K, V> loader) {
+        V cached = cache.getIfPresent(key);
+        if (cached != null) return cached;
+        long loadedAt = generation();
+        V value = loader.apply(key);
+        if (value != null) put(key, value, loadedAt);
+        return value;
+    }
+
+    /**
+     * @return null if absent or expired
+     */
+    public V getIfPresent(K key) {
+        return cache.getIfPresent(key);
+    }
+
+    /**
+     * To be read before loading a value that is then stored with {@link #put(Object, Object, long)}.
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Stores the value unless the cache was invalidated since {@code loadedAt} was read from {@link #generation()}.
+     */
+    public void put(K key, V value, long loadedAt) {
+        cache.asMap().compute(key, (k, old) -> generation.get() == loadedAt ? value : old);
+        // bulk invalidations skip entries being computed, so the generation is checked once more after storing
+        if (generation.get() != loadedAt) cache.asMap().remove(key, value);
+    }
+
+    /**
+     * Stores the value unconditionally, for values checked by the caller on every read, e.g. versioned ones.
+     */
+    public void put(K key, V value) {
+        cache.put(key, value);
+    }
+
+    public void invalidate(K key) {
+        generation.incrementAndGet();
+        cache.invalidate(key);
+    }
+
+    public void invalidateIf(BiPredicate<K, V> predicate) {
+        generation.incrementAndGet();
+        cache.asMap().entrySet().removeIf(e -> predicate.test(e.getKey(), e.getValue()));
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    /**
+     * Pending evictions are applied first.
+     */
+    public long size() {
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+
+    public long hitCount() {
+        return cache.stats().hitCount();
+    }
+
+    public long missCount() {
+        return cache.stats().missCount();
+    }
+
+    public long evictionCount() {
+        cache.cleanUp();
+        return cache.stats().evictionCount();
+    }
+}
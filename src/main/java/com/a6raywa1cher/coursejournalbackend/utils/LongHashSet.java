@@ -0,0 +1,79 @@
+package com.a6raywa1cher.coursejournalbackend.utils;
+
+/**
+ * Open addressing set of primitive longs, lookups neither box nor allocate.
+ * Not thread-safe: fill it first, then share it read-only.
+ */
+public final class LongHashSet {
+    private long[] table;
+
+    // 0 marks a free slot, so the value itself is tracked aside
+    private boolean containsZero;
+
+    private int size;
+
+    public LongHashSet() {
+        this(8);
+    }
+
+    public LongHashSet(int expectedSize) {
+        int capacity = 8;
+        while (capacity < expectedSize * 2) capacity <<= 1;
+        table = new long[capacity];
+    }
+
+    public boolean add(long value) {
+        if (value == 0) {
+            if (containsZero) return false;
+            containsZero = true;
+            size++;
+            return true;
+        }
+        if ((size + 1) * 2 > table.length) {
+            resize(table.length * 2);
+        }
+        int mask = table.length - 1;
+        for (int i = index(value, mask); ; i = (i + 1) & mask) {
+            if (table[i] == value) return false;
+            if (table[i] == 0) {
+                table[i] = value;
+                size++;
+                return true;
+            }
+        }
+    }
+
+    public boolean contains(long value) {
+        if (value == 0) return containsZero;
+        int mask = table.length - 1;
+        for (int i = index(value, mask); ; i = (i + 1) & mask) {
+            if (table[i] == value) return true;
+            if (table[i] == 0) return false;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    private void resize(int capacity) {
+        long[] old = table;
+        table = new long[capacity];
+        int mask = capacity - 1;
+        for (long value : old) {
+            if (value == 0) continue;
+            int i = index(value, mask);
+            while (table[i] != 0) i = (i + 1) & mask;
+            table[i] = value;
+        }
+    }
+
+    private static int index(long value, int mask) {
+        long hash = value * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
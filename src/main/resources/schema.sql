@@ -0,0 +1,90 @@
+-- attendance ids moved from hibernate_sequence to the pooled attendance_seq (increment 50):
+-- lift the sequence above the ids issued before the switch
+select setval('attendance_seq', (select max(id) from attendance) + 50)
+where (select last_value from attendance_seq) < (select max(id) from attendance);
+
+-- attendance_summary is maintained incrementally: fill it once from existing attendances
+insert into attendance_summary (id, course_id, student_id, attended, serious_reason)
+select nextval('attendance_summary_seq'), a.course_id, a.student_id,
+       count(*) filter (where a.attendance_type = 'ATTENDED'),
+       count(*) filter (where a.attendance_type = 'SERIOUS_REASON')
+from attendance a
+where not exists (select 1 from attendance_summary)
+group by a.course_id, a.student_id
+having count(*) filter (where a.attendance_type in ('ATTENDED', 'SERIOUS_REASON')) > 0;
+
+-- course_student_score is rewritten on every submission write: fill it once from existing submissions
+insert into course_student_score (id, course_id, student_id, total_score, submission_count)
+select nextval('course_student_score_seq'), t.course_id, s.student_id,
+       sum(coalesce(s.main_score, 0) + coalesce(s.additional_score, 0)), count(*)
+from submission s
+         join task t on t.id = s.task_id
+where not exists (select 1 from course_student_score)
+group by t.course_id, s.student_id;
+
+-- criteria_task_name_uniq is checked at commit, criteria of a task can swap names within one flush.
+-- hibernate creates it as immediate on a new database, where it is replaced once
+do '
+begin
+    if exists(select 1 from pg_constraint where conname = ''criteria_task_name_uniq'' and not condeferrable) then
+        alter table criteria drop constraint criteria_task_name_uniq;
+        alter table criteria add constraint criteria_task_name_uniq unique (task_id, name) deferrable initially deferred;
+    end if;
+end';
+
+-- task numbers are reordered with a single update, which needs the uniqueness checked at the end of the statement.
+-- Replaces any immediate (course_id, task_number) constraint, including the one named by hibernate in older versions
+do '
+declare
+    c record;
+begin
+    for c in select con.conname
+             from pg_constraint con
+             where con.conrelid = ''task''::regclass
+               and con.contype = ''u''
+               and not con.condeferrable
+               and (select array_agg(a.attname::text order by a.attname)
+                    from pg_attribute a
+                    where a.attrelid = con.conrelid and a.attnum = any (con.conkey)) = array [''course_id'', ''task_number'']
+        loop
+            execute ''alter table task drop constraint '' || quote_ident(c.conname);
+        end loop;
+    if not exists(select 1 from pg_constraint where conname = ''task_course_number_uniq'') then
+        alter table task add constraint task_course_number_uniq unique (course_id, task_number) deferrable initially immediate;
+    end if;
+end';
+
+-- the uniqueness of (student, date, class) doubles as the index of roster-driven attendance lookups,
+-- so it leads with student_id. Older databases have it class-leading plus a separate student-leading index
+drop index if exists attendance_student_date_class_idx;
+do '
+begin
+    if exists(select 1
+              from pg_constraint con
+                       join pg_attribute a on a.attrelid = con.conrelid and a.attnum = con.conkey[1]
+              where con.conname = ''one_attendance_per_class_date_student''
+                and a.attname <> ''student_id'') then
+        alter table attendance drop constraint one_attendance_per_class_date_student;
+        alter table attendance add constraint one_attendance_per_class_date_student
+            unique (student_id, attended_date, attended_class);
+    end if;
+end';
+
+-- version of everything the authorities of a user are computed from, see AuthorityVersions.
+-- Not mapped by AuthUser, so entity updates never write it back
+alter table auth_user add column if not exists authority_version bigint not null default 0;
+
+-- updated_at of submissions is stamped by the database whatever the writer passes, so every stamp is taken
+-- after the writing transaction started, see CustomSubmissionRepository#getDeltaWatermark
+create or replace function submission_stamp_updated_at() returns trigger
+    language plpgsql as '
+begin
+    new.updated_at := clock_timestamp()::timestamp;
+    return new;
+end';
+drop trigger if exists submission_stamp_updated_at on submission;
+create trigger submission_stamp_updated_at
+    before insert or update
+    on submission
+    for each row
+execute procedure submission_stamp_updated_at();
@@ -10,6 +10,8 @@ import com.a6raywa1cher.coursejournalbackend.service.CourseService;
 import com.a6raywa1cher.coursejournalbackend.service.StudentService;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.jayway.jsonpath.JsonPath;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
@@ -17,6 +19,8 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultMatcher;
 
+import javax.persistence.EntityManager;
+import java.io.StringWriter;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
@@ -24,8 +28,11 @@ import java.util.function.Function;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.nullValue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -41,6 +48,9 @@ public class AttendanceControllerIntegrationTests extends AbstractIntegrationTes
     @Autowired
     StudentService studentService;
 
+    @Autowired
+    EntityManager em;
+
     @Test
     void getAttendanceById__self__valid() {
         new WithUser(USERNAME, PASSWORD, UserRole.TEACHER) {
@@ -623,6 +633,88 @@ public class AttendanceControllerIntegrationTests extends AbstractIntegrationTes
         };
     }
 
+    @Test
+    void getTable__paged__valid() {
+        new WithUser(USERNAME, PASSWORD, UserRole.TEACHER) {
+            @Override
+            void run() throws Exception {
+                long studentId = ef.createStudent();
+                long courseId = ef.createCourse(ef.bag().withEmployeeId(getSelfEmployeeIdAsLong()).withDto(CourseFullDto.builder()
+                        .students(List.of(studentId))
+                        .build()));
+                LocalDate toDate = LocalDate.now();
+                LocalDate fromDate = toDate.minusDays(3);
+                attendanceService.batchCreate(List.of(
+                        AttendanceDto.builder().student(studentId).course(courseId).attendedDate(fromDate)
+                                .attendedClass(1).attendanceType(AttendanceType.ATTENDED).build(),
+                        AttendanceDto.builder().student(studentId).course(courseId).attendedDate(fromDate)
+                                .attendedClass(2).attendanceType(AttendanceType.SERIOUS_REASON).build(),
+                        AttendanceDto.builder().student(studentId).course(courseId).attendedDate(toDate)
+                                .attendedClass(1).attendanceType(AttendanceType.ATTENDED).build()
+                ));
+
+                MvcResult firstPage = securePerform(get("/attendances/table/{courseId}?fromDate={fromDate}&toDate={toDate}&limit=2",
+                        courseId, fromDate, toDate))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.header", hasSize(2)))
+                        .andExpect(jsonPath("$.header[1].classNumber").value(2))
+                        .andExpect(jsonPath("$.body[0].attendances", contains("ATTENDED", "SERIOUS_REASON")))
+                        .andExpect(jsonPath("$.next").isString())
+                        .andReturn();
+                String cursor = JsonPath.read(firstPage.getResponse().getContentAsString(), "$.next");
+
+                securePerform(get("/attendances/table/{courseId}?fromDate={fromDate}&toDate={toDate}&limit=2&cursor={cursor}",
+                        courseId, fromDate, toDate, cursor))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.header", hasSize(1)))
+                        .andExpect(jsonPath("$.header[0].date", new TestUtils.LocalDateMatcher(toDate)))
+                        .andExpect(jsonPath("$.body[0].attendances", contains("ATTENDED")))
+                        .andExpect(jsonPath("$.next").isEmpty());
+            }
+        };
+    }
+
+    @Test
+    void getTable__wrongCursor__invalid() {
+        new WithUser(ADMIN_USERNAME, ADMIN_PASSWORD, false) {
+            @Override
+            void run() throws Exception {
+                long courseId = ef.createCourse();
+                LocalDate toDate = LocalDate.now();
+                LocalDate fromDate = toDate.minusDays(3);
+
+                securePerform(get("/attendances/table/{courseId}?fromDate={fromDate}&toDate={toDate}&limit=2&cursor=meow",
+                        courseId, fromDate, toDate))
+                        .andExpect(status().isBadRequest());
+            }
+        };
+    }
+
+    @Test
+    void getTableByGroup__otherAsAdmin__onlyGroupStudents() {
+        new WithUser(ADMIN_USERNAME, ADMIN_PASSWORD, false) {
+            @Override
+            void run() throws Exception {
+                long groupId = ef.createGroup();
+                long studentId1 = ef.createStudent(ef.bag().withGroupId(groupId));
+                long studentId2 = ef.createStudent(ef.bag().withGroupId(groupId));
+                long otherGroupStudentId = ef.createStudent();
+                long courseId = ef.createCourse(ef.bag().withDto(CourseFullDto.builder()
+                        .students(List.of(studentId1, studentId2, otherGroupStudentId))
+                        .build()));
+                LocalDate toDate = LocalDate.now();
+                LocalDate fromDate = toDate.minusDays(3);
+
+                securePerform(get("/attendances/table/{courseId}/group/{groupId}?fromDate={fromDate}&toDate={toDate}",
+                        courseId, groupId, fromDate, toDate))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.body", hasSize(2)))
+                        .andExpect(jsonPath("$.body[0].studentId").value(studentId1))
+                        .andExpect(jsonPath("$.body[1].studentId").value(studentId2));
+            }
+        };
+    }
+
     @Test
     void getTable__notAuthenticated__invalid() throws Exception {
         long courseId = ef.createCourse(ef.bag());
@@ -633,6 +725,311 @@ public class AttendanceControllerIntegrationTests extends AbstractIntegrationTes
                 .andExpect(status().isUnauthorized());
     }
 
+    @Test
+    void saveTable__self__valid() {
+        new WithUser(USERNAME, PASSWORD, UserRole.TEACHER) {
+            @Override
+            void run() throws Exception {
+                long studentId1 = ef.createStudent();
+                long studentId2 = ef.createStudent();
+                List<Long> studentIds = List.of(studentId1, studentId2);
+                long courseId = ef.createCourse(ef.bag().withEmployeeId(getSelfEmployeeIdAsLong()).withDto(CourseFullDto.builder()
+                        .students(studentIds)
+                        .build()));
+                LocalDate toDate = LocalDate.now();
+                LocalDate fromDate = toDate.minusDays(3);
+                LocalDate date1 = fromDate.plusDays(1);
+                LocalDate date2 = fromDate.plusDays(2);
+
+                ef.createAttendance(ef.bag().withStudentId(studentId1).withCourseId(courseId).withDto(AttendanceDto.builder()
+                        .attendedDate(date1)
+                        .attendedClass(1)
+                        .attendanceType(AttendanceType.ATTENDED)
+                        .build()));
+                ef.createAttendance(ef.bag().withStudentId(studentId2).withCourseId(courseId).withDto(AttendanceDto.builder()
+                        .attendedDate(date1)
+                        .attendedClass(1)
+                        .attendanceType(AttendanceType.ATTENDED)
+                        .build()));
+
+                ObjectNode request = objectMapper.createObjectNode();
+                request.putArray("header")
+                        .add(objectMapper.createObjectNode()
+                                .put("date", date1.toString())
+                                .put("classNumber", 1))
+                        .add(objectMapper.createObjectNode()
+                                .put("date", date2.toString())
+                                .put("classNumber", 2));
+                ObjectNode row1 = objectMapper.createObjectNode().put("studentId", studentId1);
+                row1.putArray("attendances").add(AttendanceType.SERIOUS_REASON.toString()).add(AttendanceType.ATTENDED.toString());
+                ObjectNode row2 = objectMapper.createObjectNode().put("studentId", studentId2);
+                row2.putArray("attendances").addNull().addNull();
+                request.putArray("body").add(row1).add(row2);
+
+                ResultMatcher[] matchers = {
+                        jsonPath("$.header", hasSize(2)),
+                        jsonPath("$.header[0].classNumber").value(1),
+                        jsonPath("$.header[0].date", new TestUtils.LocalDateMatcher(date1)),
+                        jsonPath("$.header[1].classNumber").value(2),
+                        jsonPath("$.header[1].date", new TestUtils.LocalDateMatcher(date2)),
+                        jsonPath("$.body[0].studentId").value(studentId1),
+                        jsonPath("$.body[0].attendances", contains(AttendanceType.SERIOUS_REASON.toString(), AttendanceType.ATTENDED.toString())),
+                        jsonPath("$.body[1].studentId").value(studentId2),
+                        jsonPath("$.body[1].attendances", contains(nullValue(), nullValue()))
+                };
+
+                securePerform(post("/attendances/table/{courseId}?fromDate={fromDate}&toDate={toDate}", courseId, fromDate, toDate)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(request.toString()))
+                        .andExpect(status().isOk())
+                        .andExpectAll(matchers);
+
+                securePerform(get("/attendances/table/{courseId}?fromDate={fromDate}&toDate={toDate}", courseId, fromDate, toDate))
+                        .andExpect(status().isOk())
+                        .andExpectAll(matchers);
+            }
+        };
+    }
+
+    @Test
+    void saveTable__partialHeader__otherColumnsKept() {
+        new WithUser(USERNAME, PASSWORD, UserRole.TEACHER) {
+            @Override
+            void run() throws Exception {
+                long studentId = ef.createStudent();
+                long courseId = ef.createCourse(ef.bag().withEmployeeId(getSelfEmployeeIdAsLong()).withDto(CourseFullDto.builder()
+                        .students(List.of(studentId))
+                        .build()));
+                LocalDate toDate = LocalDate.now();
+                LocalDate fromDate = toDate.minusDays(3);
+                LocalDate date1 = fromDate.plusDays(1);
+                LocalDate date2 = fromDate.plusDays(2);
+
+                ef.createAttendance(ef.bag().withStudentId(studentId).withCourseId(courseId).withDto(AttendanceDto.builder()
+                        .attendedDate(date1)
+                        .attendedClass(1)
+                        .attendanceType(AttendanceType.ATTENDED)
+                        .build()));
+                ef.createAttendance(ef.bag().withStudentId(studentId).withCourseId(courseId).withDto(AttendanceDto.builder()
+                        .attendedDate(date2)
+                        .attendedClass(1)
+                        .attendanceType(AttendanceType.ATTENDED)
+                        .build()));
+
+                // a page with the second column only, sent with the whole period
+                ObjectNode request = objectMapper.createObjectNode();
+                request.putArray("header")
+                        .add(objectMapper.createObjectNode()
+                                .put("date", date2.toString())
+                                .put("classNumber", 1));
+                ObjectNode row = objectMapper.createObjectNode().put("studentId", studentId);
+                row.putArray("attendances").add(AttendanceType.SERIOUS_REASON.toString());
+                request.putArray("body").add(row);
+
+                securePerform(post("/attendances/table/{courseId}?fromDate={fromDate}&toDate={toDate}", courseId, fromDate, toDate)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(request.toString()))
+                        .andExpect(status().isOk());
+
+                securePerform(get("/attendances/table/{courseId}?fromDate={fromDate}&toDate={toDate}", courseId, fromDate, toDate))
+                        .andExpect(status().isOk())
+                        .andExpectAll(
+                                jsonPath("$.header", hasSize(2)),
+                                jsonPath("$.header[0].date", new TestUtils.LocalDateMatcher(date1)),
+                                jsonPath("$.header[1].date", new TestUtils.LocalDateMatcher(date2)),
+                                jsonPath("$.body[0].attendances", contains(AttendanceType.ATTENDED.toString(), AttendanceType.SERIOUS_REASON.toString()))
+                        );
+            }
+        };
+    }
+
+    @Test
+    void saveTable__studentNotInCourse__invalid() {
+        new WithUser(USERNAME, PASSWORD, UserRole.TEACHER) {
+            @Override
+            void run() throws Exception {
+                long studentId = ef.createStudent();
+                long courseId = ef.createCourse(getSelfEmployeeIdAsLong());
+                LocalDate toDate = LocalDate.now();
+                LocalDate fromDate = toDate.minusDays(3);
+
+                ObjectNode request = objectMapper.createObjectNode();
+                request.putArray("header")
+                        .add(objectMapper.createObjectNode()
+                                .put("date", fromDate.toString())
+                                .put("classNumber", 1));
+                ObjectNode row = objectMapper.createObjectNode().put("studentId", studentId);
+                row.putArray("attendances").add(AttendanceType.ATTENDED.toString());
+                request.putArray("body").add(row);
+
+                securePerform(post("/attendances/table/{courseId}?fromDate={fromDate}&toDate={toDate}", courseId, fromDate, toDate)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(request.toString()))
+                        .andExpect(status().isBadRequest());
+            }
+        };
+    }
+
+    @Test
+    void getSummary__self__valid() {
+        new WithUser(USERNAME, PASSWORD, UserRole.TEACHER) {
+            @Override
+            void run() throws Exception {
+                long studentId1 = ef.createStudent();
+                long studentId2 = ef.createStudent();
+                long studentId3 = ef.createStudent();
+                long courseId = ef.createCourse(ef.bag().withEmployeeId(getSelfEmployeeIdAsLong()).withDto(CourseFullDto.builder()
+                        .students(List.of(studentId1, studentId2, studentId3))
+                        .build()));
+                LocalDate date = LocalDate.now();
+
+                attendanceService.batchCreate(List.of(
+                        AttendanceDto.builder().student(studentId1).course(courseId).attendedDate(date)
+                                .attendedClass(1).attendanceType(AttendanceType.ATTENDED).build(),
+                        AttendanceDto.builder().student(studentId1).course(courseId).attendedDate(date)
+                                .attendedClass(2).attendanceType(AttendanceType.ATTENDED).build(),
+                        AttendanceDto.builder().student(studentId2).course(courseId).attendedDate(date)
+                                .attendedClass(1).attendanceType(AttendanceType.ATTENDED).build()
+                ));
+                long changedId = attendanceService.create(AttendanceDto.builder().student(studentId2).course(courseId)
+                        .attendedDate(date).attendedClass(2).attendanceType(AttendanceType.ATTENDED).build()).getId();
+                attendanceService.patch(changedId, AttendanceDto.builder()
+                        .attendanceType(AttendanceType.SERIOUS_REASON).build());
+                long deletedId = attendanceService.create(AttendanceDto.builder().student(studentId3).course(courseId)
+                        .attendedDate(date).attendedClass(1).attendanceType(AttendanceType.ATTENDED).build()).getId();
+                attendanceService.delete(deletedId);
+
+                securePerform(get("/attendances/summary/{courseId}", courseId))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$", hasSize(3)))
+                        .andExpect(jsonPath("$[0].student").value(studentId1))
+                        .andExpect(jsonPath("$[0].attended").value(2))
+                        .andExpect(jsonPath("$[0].seriousReason").value(0))
+                        .andExpect(jsonPath("$[1].student").value(studentId2))
+                        .andExpect(jsonPath("$[1].attended").value(1))
+                        .andExpect(jsonPath("$[1].seriousReason").value(1))
+                        .andExpect(jsonPath("$[2].student").value(studentId3))
+                        .andExpect(jsonPath("$[2].attended").value(0))
+                        .andExpect(jsonPath("$[2].seriousReason").value(0));
+            }
+        };
+    }
+
+    @Test
+    void getSummary__otherAsTeacher__invalid() {
+        new WithUser(USERNAME, PASSWORD, UserRole.TEACHER) {
+            @Override
+            void run() throws Exception {
+                long courseId = ef.createCourse();
+
+                securePerform(get("/attendances/summary/{courseId}", courseId))
+                        .andExpect(status().isForbidden());
+            }
+        };
+    }
+
+    @Test
+    void exportAttendancesToCsv__self__valid() throws Exception {
+        long courseId = ef.createCourse();
+        long studentId = ef.createStudent(ef.bag().withCourseId(courseId));
+        long otherStudentId = ef.createStudent(ef.bag().withCourseId(courseId));
+        LocalDate toDate = LocalDate.now();
+        LocalDate fromDate = toDate.minusDays(3);
+        attendanceService.create(AttendanceDto.builder()
+                .student(studentId)
+                .course(courseId)
+                .attendedDate(fromDate)
+                .attendedClass(1)
+                .attendanceType(AttendanceType.ATTENDED)
+                .build());
+        attendanceService.create(AttendanceDto.builder()
+                .student(otherStudentId)
+                .course(courseId)
+                .attendedDate(toDate.plusDays(1))
+                .attendedClass(1)
+                .attendanceType(AttendanceType.ATTENDED)
+                .build());
+        StudentDto student = studentService.getById(studentId);
+
+        StringWriter writer = new StringWriter();
+        attendanceService.exportAttendancesToCsv(courseId, fromDate, toDate, writer);
+
+        String[] lines = writer.toString().split("\r\n");
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).isEqualTo("student_id,last_name,first_name,middle_name,group,attended_date,attended_class,attendance_type");
+        assertThat(lines[1]).startsWith(studentId + ",")
+                .contains(student.getLastName(), student.getFirstName())
+                .endsWith("," + fromDate + ",1,ATTENDED");
+    }
+
+    @Test
+    void exportAttendancesToCsv__otherAsTeacher__invalid() {
+        new WithUser(USERNAME, PASSWORD, UserRole.TEACHER) {
+            @Override
+            void run() throws Exception {
+                long courseId = ef.createCourse();
+                LocalDate toDate = LocalDate.now();
+                LocalDate fromDate = toDate.minusDays(3);
+
+                securePerform(get("/attendances/export/{courseId}?fromDate={fromDate}&toDate={toDate}", courseId, fromDate, toDate))
+                        .andExpect(status().isForbidden());
+            }
+        };
+    }
+
+    @Test
+    void exportAttendancesToCsv__severalCourses__valid() throws Exception {
+        long courseId1 = ef.createCourse();
+        long courseId2 = ef.createCourse();
+        long studentId1 = ef.createStudent(ef.bag().withCourseId(courseId1));
+        long studentId2 = ef.createStudent(ef.bag().withCourseId(courseId2));
+        LocalDate toDate = LocalDate.now();
+        LocalDate fromDate = toDate.minusDays(3);
+        attendanceService.create(AttendanceDto.builder()
+                .student(studentId2)
+                .course(courseId2)
+                .attendedDate(fromDate)
+                .attendedClass(2)
+                .attendanceType(AttendanceType.SERIOUS_REASON)
+                .build());
+        attendanceService.create(AttendanceDto.builder()
+                .student(studentId1)
+                .course(courseId1)
+                .attendedDate(toDate)
+                .attendedClass(1)
+                .attendanceType(AttendanceType.ATTENDED)
+                .build());
+
+        StringWriter writer = new StringWriter();
+        attendanceService.exportAttendancesToCsv(List.of(courseId2, courseId1), fromDate, toDate, writer);
+
+        String[] lines = writer.toString().split("\r\n");
+        assertThat(lines).hasSize(3);
+        assertThat(lines[0]).isEqualTo("course_id,course_name,student_id,last_name,first_name,middle_name,group,attended_date,attended_class,attendance_type");
+        assertThat(lines[1]).startsWith(courseId1 + ",").endsWith("," + toDate + ",1,ATTENDED");
+        assertThat(lines[2]).startsWith(courseId2 + ",").endsWith("," + fromDate + ",2,SERIOUS_REASON");
+    }
+
+    @Test
+    void exportAttendancesToCsv__severalCoursesOneOther__invalid() {
+        new WithUser(USERNAME, PASSWORD, UserRole.TEACHER) {
+            @Override
+            void run() throws Exception {
+                long ownCourseId = ef.createCourse(getSelfEmployeeIdAsLong());
+                long otherCourseId = ef.createCourse();
+                LocalDate toDate = LocalDate.now();
+                LocalDate fromDate = toDate.minusDays(3);
+
+                securePerform(get("/attendances/export?courseId={id1}&courseId={id2}&fromDate={fromDate}&toDate={toDate}",
+                        ownCourseId, otherCourseId, fromDate, toDate))
+                        .andExpect(status().isForbidden());
+                securePerform(get("/attendances/export?courseId={id1}&fromDate={fromDate}&toDate={toDate}",
+                        ownCourseId, fromDate, toDate))
+                        .andExpect(status().isOk());
+            }
+        };
+    }
+
     // =================================================================================================================
 
     RequestContext<ObjectNode> createGetConflictsByCourseAndDatePeriod(List<Long> studentIds, LocalDate fromDate, LocalDate toDate) {
@@ -1098,6 +1495,138 @@ public class AttendanceControllerIntegrationTests extends AbstractIntegrationTes
                 .andExpect(status().isUnauthorized());
     }
 
+    @Test
+    void batchCreateAttendance__duplicateInBatch__invalid() {
+        new WithUser(USERNAME, PASSWORD, UserRole.TEACHER) {
+            @Override
+            void run() throws Exception {
+                long courseId = ef.createCourse(getSelfEmployeeIdAsLong());
+                long studentId = ef.createStudent(ef.bag().withCourseId(courseId));
+                LocalDate attendedDate = LocalDate.now();
+
+                ObjectNode request = objectMapper.createObjectNode()
+                        .put("course", courseId);
+                ObjectNode attendance = objectMapper.createObjectNode()
+                        .put("student", studentId)
+                        .put("attendedDate", String.valueOf(attendedDate))
+                        .put("attendedClass", "1")
+                        .put("attendanceType", String.valueOf(AttendanceType.ATTENDED));
+                request.putArray("attendances")
+                        .add(attendance)
+                        .add(attendance.deepCopy());
+
+                securePerform(post("/attendances/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(request.toString()))
+                        .andExpect(status().isConflict());
+            }
+        };
+    }
+
+    @Test
+    void batchCreateAttendance__manyStudents__constantStatementCount() {
+        long courseId = ef.createCourse();
+        long fewStatements = countBatchCreateStatements(courseId, 2, LocalDate.of(2022, 9, 1));
+        long manyStatements = countBatchCreateStatements(courseId, 40, LocalDate.of(2022, 9, 2));
+
+        // a larger batch may only cost an extra fetch of the attendance id block
+        assertThat(manyStatements).isLessThanOrEqualTo(fewStatements + 2);
+    }
+
+    long countBatchCreateStatements(long courseId, int studentCount, LocalDate attendedDate) {
+        List<AttendanceDto> dtoList = new ArrayList<>();
+        for (int i = 0; i < studentCount; i++) {
+            long studentId = ef.createStudent(ef.bag().withCourseId(courseId));
+            dtoList.add(AttendanceDto.builder()
+                    .student(studentId)
+                    .course(courseId)
+                    .attendedDate(attendedDate)
+                    .attendedClass(1)
+                    .attendanceType(TestUtils.randomAttendanceType())
+                    .build());
+        }
+        em.flush();
+
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        try {
+            attendanceService.batchCreate(dtoList);
+            em.flush();
+            return statistics.getPrepareStatementCount();
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
+    @Test
+    void importFromCsv__admin__valid() {
+        new WithUser(ADMIN_USERNAME, ADMIN_PASSWORD, false) {
+            @Override
+            void run() throws Exception {
+                long studentId = ef.createStudent();
+                long courseId = ef.createCourse(ef.bag().withDto(CourseFullDto.builder()
+                        .students(List.of(studentId))
+                        .build()));
+                LocalDate date = LocalDate.now();
+                String csv = """
+                        course_id,student_id,attended_date,attended_class,attendance_type
+                        %d,%d,%s,1,ATTENDED
+                        %d,%d,%s,2,SERIOUS_REASON
+                        """.formatted(courseId, studentId, date, courseId, studentId, date);
+
+                securePerform(post("/attendances/import")
+                        .contentType("text/csv")
+                        .content(csv))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.imported").value(2));
+
+                securePerform(get("/attendances/course/{id}", courseId))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$", hasSize(2)))
+                        .andExpect(jsonPath("$[*].attendanceType", containsInAnyOrder("ATTENDED", "SERIOUS_REASON")));
+
+                securePerform(get("/attendances/summary/{courseId}", courseId))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$[0].attended").value(1))
+                        .andExpect(jsonPath("$[0].seriousReason").value(1));
+            }
+        };
+    }
+
+    @Test
+    void importFromCsv__studentNotInCourse__invalid() {
+        new WithUser(ADMIN_USERNAME, ADMIN_PASSWORD, false) {
+            @Override
+            void run() throws Exception {
+                long studentId = ef.createStudent();
+                long courseId = ef.createCourse();
+                String csv = """
+                        course_id,student_id,attended_date,attended_class,attendance_type
+                        %d,%d,%s,1,ATTENDED
+                        """.formatted(courseId, studentId, LocalDate.now());
+
+                securePerform(post("/attendances/import")
+                        .contentType("text/csv")
+                        .content(csv))
+                        .andExpect(status().isBadRequest());
+            }
+        };
+    }
+
+    @Test
+    void importFromCsv__teacher__invalid() {
+        new WithUser(USERNAME, PASSWORD, UserRole.TEACHER) {
+            @Override
+            void run() throws Exception {
+                securePerform(post("/attendances/import")
+                        .contentType("text/csv")
+                        .content("course_id,student_id,attended_date,attended_class,attendance_type\n"))
+                        .andExpect(status().isForbidden());
+            }
+        };
+    }
+
     // =================================================================================================================
 
     RequestContext<ObjectNode> getPutAttendanceRequest(long studentId, long courseId,
@@ -15,6 +15,7 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultMatcher;
@@ -24,6 +25,7 @@ import java.util.List;
 import java.util.function.Function;
 
 import static com.a6raywa1cher.coursejournalbackend.TestUtils.getIdFromResult;
+import static org.hamcrest.Matchers.contains;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -39,6 +41,9 @@ public class CourseControllerIntegrationTests extends AbstractIntegrationTests {
     @Autowired
     EmployeeRepository employeeRepository;
 
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
     @Test
     void getCourses__admin__valid() {
         new WithUser(ADMIN_USERNAME, ADMIN_PASSWORD, false) {
@@ -221,6 +226,32 @@ public class CourseControllerIntegrationTests extends AbstractIntegrationTests {
         };
     }
 
+    @Test
+    void getCourseById__transferredByAnotherInstance__invalid() {
+        new WithUser(USERNAME, PASSWORD) {
+            @Override
+            void run() throws Exception {
+                long id = courseService.create(CourseFullDto.builder()
+                        .name(faker.lorem().sentence())
+                        .owner(getSelfEmployeeIdAsLong())
+                        .build()).getId();
+                long otherOwner = ef.createEmployee();
+
+                securePerform(get("/courses/{id}", id))
+                        .andExpect(status().isOk());
+
+                // what CourseServiceImpl of another instance leaves in the database, none of its in-memory state
+                courseRepository.flush();
+                jdbcTemplate.update("update course set owner_id = ? where id = ?", otherOwner, id);
+                jdbcTemplate.update("update auth_user set authority_version = authority_version + 1 where employee_id in (?, ?)",
+                        getSelfEmployeeIdAsLong(), otherOwner);
+
+                securePerform(get("/courses/{id}", id))
+                        .andExpect(status().isForbidden());
+            }
+        };
+    }
+
     @Test
     void getCourseById__otherAsAdmin__valid() {
         new WithUser(USERNAME, PASSWORD) {
@@ -239,6 +270,68 @@ public class CourseControllerIntegrationTests extends AbstractIntegrationTests {
         };
     }
 
+    @Test
+    void getAllCoursesById__mixedAsTeacher__onlyPermitted() {
+        new WithUser(USERNAME, PASSWORD) {
+            @Override
+            void run() throws Exception {
+                long own = courseService.create(CourseFullDto.builder()
+                        .name(faker.lorem().sentence())
+                        .owner(getSelfEmployeeIdAsLong())
+                        .build()).getId();
+                long other = courseService.create(CourseFullDto.builder()
+                        .name(faker.lorem().sentence())
+                        .owner(ef.createEmployee())
+                        .build()).getId();
+
+                securePerform(get("/courses/batch")
+                        .param("ids", String.valueOf(other), String.valueOf(own), "0"))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$[*].id", contains(Math.toIntExact(own))));
+            }
+        };
+    }
+
+    @Test
+    void getAllCoursesById__mixedAsAdmin__allExisting() {
+        new WithUser(USERNAME, PASSWORD, UserRole.ADMIN) {
+            @Override
+            void run() throws Exception {
+                long first = ef.createCourse();
+                long second = ef.createCourse();
+
+                securePerform(get("/courses/batch")
+                        .param("ids", String.valueOf(second), "0", String.valueOf(first)))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$[*].id", contains(Math.toIntExact(second), Math.toIntExact(first))));
+            }
+        };
+    }
+
+    @Test
+    void getAllCoursesById__mixedWithCourseToken__onlyTokenCourse() {
+        long id = ef.createCourse();
+        long other = ef.createCourse();
+
+        new WithCourseToken(id, true) {
+            @Override
+            void run() throws Exception {
+                securePerform(get("/courses/batch")
+                        .param("ids", String.valueOf(other), String.valueOf(id)))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$[*].id", contains(Math.toIntExact(id))));
+            }
+        };
+    }
+
+    @Test
+    void getAllCoursesById__notAuthenticated__invalid() throws Exception {
+        long id = ef.createCourse();
+
+        mvc.perform(get("/courses/batch").param("ids", String.valueOf(id)))
+                .andExpect(status().isUnauthorized());
+    }
+
     @Test
     void getCourseById__otherAsTeacher__invalid() {
         new WithUser(USERNAME, PASSWORD) {
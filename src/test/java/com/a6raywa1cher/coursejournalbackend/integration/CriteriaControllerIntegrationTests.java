@@ -17,6 +17,7 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.ResultMatcher;
 
+import javax.persistence.EntityManager;
 import java.util.List;
 import java.util.function.Function;
 import java.util.stream.IntStream;
@@ -34,6 +35,9 @@ public class CriteriaControllerIntegrationTests extends AbstractIntegrationTests
     @Autowired
     TaskService taskService;
 
+    @Autowired
+    EntityManager em;
+
     @Test
     void getCriteriaById__self__valid() {
         new WithUser(USERNAME, PASSWORD) {
@@ -1016,6 +1020,49 @@ public class CriteriaControllerIntegrationTests extends AbstractIntegrationTests
         };
     }
 
+    @Test
+    void setCriteriaForTask__swapNames__self__valid() {
+        new WithUser(USERNAME, PASSWORD) {
+            @Override
+            void run() throws Exception {
+                // GIVEN
+                long taskId = ef.createTask(getSelfEmployeeIdAsLong());
+                String name1 = faker.lorem().sentence();
+                String name2 = faker.lorem().sentence();
+                List<Long> criteria = List.of(
+                        ef.createCriteria(ef.bag().withTaskId(taskId)
+                                .withDto(CriteriaDto.builder().name(name1).build())),
+                        ef.createCriteria(ef.bag().withTaskId(taskId)
+                                .withDto(CriteriaDto.builder().name(name2).build()))
+                );
+
+                var ctx = getSetForTaskContext(List.of(
+                        new CriteriaInfo(name2, faker.number().numberBetween(20, 80)),
+                        new CriteriaInfo(name1, faker.number().numberBetween(20, 80))
+                ));
+                ObjectNode request = ctx.getRequest();
+
+                // WHEN
+                securePerform(post("/criteria/task/{id}/set", taskId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(request.toString()))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$[*].id", contains(criteria.stream().map(Math::toIntExact).toArray())))
+                        .andExpectAll(ctx.getMatchers());
+
+                // THEN
+                // the test transaction is never committed, so the deferred uniqueness is checked right away
+                em.flush();
+                em.createNativeQuery("set constraints all immediate").executeUpdate();
+
+                securePerform(get("/criteria/task/{id}", taskId))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$", hasSize(2)))
+                        .andExpectAll(ctx.getMatchers());
+            }
+        };
+    }
+
     @Test
     void setCriteriaForTask__otherAsAdmin__valid() {
         new WithUser(ADMIN_USERNAME, ADMIN_PASSWORD, false) {
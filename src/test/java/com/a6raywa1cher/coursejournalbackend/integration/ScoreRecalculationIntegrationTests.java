@@ -0,0 +1,82 @@
+package com.a6raywa1cher.coursejournalbackend.integration;
+
+import com.a6raywa1cher.coursejournalbackend.dto.CourseFullDto;
+import com.a6raywa1cher.coursejournalbackend.dto.CriteriaDto;
+import com.a6raywa1cher.coursejournalbackend.dto.SubmissionDto;
+import com.a6raywa1cher.coursejournalbackend.dto.TaskDto;
+import com.a6raywa1cher.coursejournalbackend.service.FacultyService;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// the background runs see committed data only, so nothing here runs in a test transaction
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "app.score-recalculation.async=true",
+        "app.score-recalculation.delay=PT0.1S",
+        // the schema is shared with the contexts of the other tests
+        "spring.jpa.hibernate.ddl-auto=update"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ScoreRecalculationIntegrationTests extends AbstractIntegrationTests {
+    @Autowired
+    FacultyService facultyService;
+
+    @Test
+    void patchTask__maxScoreChanged__recalculatedInBackground() {
+        long employeeId = ef.createEmployee();
+        long facultyId = ef.createFaculty();
+        try {
+            long studentId = ef.createStudent(ef.bag().withFacultyId(facultyId));
+            long courseId = ef.createCourse(ef.bag().withEmployeeId(employeeId)
+                    .withDto(CourseFullDto.builder().students(List.of(studentId)).build()));
+            long taskId = ef.createTask(ef.bag().withCourseId(courseId)
+                    .withDto(TaskDto.builder().maxScore(10).deadlinesEnabled(false).build()));
+            long criteriaId = ef.createCriteria(ef.bag().withTaskId(taskId)
+                    .withDto(CriteriaDto.builder().criteriaPercent(100).build()));
+            long submissionId = ef.createSubmission(ef.bag().withTaskId(taskId).withStudentId(studentId)
+                    .withDto(SubmissionDto.builder().satisfiedCriteria(List.of(criteriaId)).build()));
+
+            new WithUser(ADMIN_USERNAME, ADMIN_PASSWORD, false) {
+                @Override
+                void run() throws Exception {
+                    securePerform(patch("/tasks/{id}", taskId)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.createObjectNode().put("maxScore", 20).toString()))
+                            .andExpect(status().isOk())
+                            .andExpect(jsonPath("$.scoresPending").value(true));
+
+                    boolean pending = true;
+                    for (int attempt = 0; pending && attempt < 100; attempt++) {
+                        Thread.sleep(100);
+                        String content = securePerform(get("/tasks/{id}", taskId))
+                                .andExpect(status().isOk())
+                                .andReturn().getResponse().getContentAsString();
+                        pending = JsonPath.read(content, "$.scoresPending");
+                    }
+                    assertThat(pending).isFalse();
+
+                    securePerform(get("/submissions/{id}", submissionId))
+                            .andExpect(status().isOk())
+                            .andExpect(jsonPath("$.mainScore").value(20d));
+                }
+            };
+        } finally {
+            employeeService.delete(employeeId);
+            facultyService.delete(facultyId);
+        }
+    }
+}
@@ -4,8 +4,11 @@ import com.a6raywa1cher.coursejournalbackend.RequestContext;
 import com.a6raywa1cher.coursejournalbackend.TestUtils;
 import com.a6raywa1cher.coursejournalbackend.dto.CourseFullDto;
 import com.a6raywa1cher.coursejournalbackend.dto.CriteriaDto;
+import com.a6raywa1cher.coursejournalbackend.dto.GradeSheetDto;
+import com.a6raywa1cher.coursejournalbackend.dto.StudentDto;
 import com.a6raywa1cher.coursejournalbackend.dto.SubmissionDto;
 import com.a6raywa1cher.coursejournalbackend.dto.TaskDto;
+import com.a6raywa1cher.coursejournalbackend.dto.exc.NoDataPresentedException;
 import com.a6raywa1cher.coursejournalbackend.dto.exc.StudentDoesntBelongToCourseException;
 import com.a6raywa1cher.coursejournalbackend.dto.exc.VariousParentEntitiesException;
 import com.a6raywa1cher.coursejournalbackend.integration.models.ExtendedSubmissionInfo;
@@ -19,6 +22,8 @@ import com.a6raywa1cher.coursejournalbackend.service.SubmissionService;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.jayway.jsonpath.JsonPath;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
@@ -26,7 +31,14 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultMatcher;
 
+import javax.persistence.EntityManager;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -36,6 +48,7 @@ import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.hamcrest.Matchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -51,6 +64,10 @@ public class SubmissionControllerIntegrationTests extends AbstractIntegrationTes
     CourseRepository courseRepository;
     @Autowired
     StudentService studentService;
+    @Autowired
+    EntityManager em;
+    @Autowired
+    DataSource dataSource;
 
     RequestContext<Long> createGetSubmissionByIdContextWithCourse(long courseId) {
         ZonedDateTime submittedAt = ZonedDateTime.now().minusDays(1);
@@ -308,6 +325,295 @@ public class SubmissionControllerIntegrationTests extends AbstractIntegrationTes
 
     // ================================================================================================================
 
+    @Test
+    void getGradeSheetByCourse__self__valid() {
+        new WithUser(USERNAME, PASSWORD) {
+            @Override
+            void run() throws Exception {
+                long studentId1 = ef.createStudent(ef.bag().withDto(StudentDto.builder().lastName("Aaa").build()));
+                long studentId2 = ef.createStudent(ef.bag().withDto(StudentDto.builder().lastName("Bbb").build()));
+                long courseId = ef.createCourse(ef.bag()
+                        .withEmployeeId(getSelfEmployeeIdAsLong())
+                        .withDto(CourseFullDto.builder()
+                                .students(List.of(studentId2, studentId1))
+                                .build()));
+                long taskId = ef.createTask(ef.bag().withCourseId(courseId));
+                long criteriaId1 = ef.createCriteria(ef.bag().withTaskId(taskId));
+                long criteriaId2 = ef.createCriteria(ef.bag().withTaskId(taskId));
+                long submissionId = ef.createSubmission(ef.bag().withTaskId(taskId).withStudentId(studentId2)
+                        .withDto(SubmissionDto.builder().satisfiedCriteria(List.of(criteriaId1)).build()));
+
+                securePerform(get("/submissions/course/{id}/sheet", courseId))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.tasks.id", contains(Math.toIntExact(taskId))))
+                        .andExpect(jsonPath("$.criteria.id", contains(Math.toIntExact(criteriaId1), Math.toIntExact(criteriaId2))))
+                        .andExpect(jsonPath("$.criteria.task", contains(0, 0)))
+                        .andExpect(jsonPath("$.students.id", contains(Math.toIntExact(studentId1), Math.toIntExact(studentId2))))
+                        .andExpect(jsonPath("$.submissions.id", contains(Math.toIntExact(submissionId))))
+                        .andExpect(jsonPath("$.submissions.task", contains(0)))
+                        .andExpect(jsonPath("$.submissions.student", contains(1)))
+                        .andExpect(jsonPath("$.submissions.mainScore[0]").isNumber())
+                        .andExpect(jsonPath("$.submissions.satisfiedCriteria[0]", contains(Math.toIntExact(criteriaId1))));
+            }
+        };
+    }
+
+    @Test
+    void getGradeSheetByCourse__otherAsTeacher__invalid() {
+        long id = ef.createCourse();
+
+        new WithUser(USERNAME, PASSWORD) {
+            @Override
+            void run() throws Exception {
+                securePerform(get("/submissions/course/{id}/sheet", id))
+                        .andExpect(status().isForbidden());
+            }
+        };
+    }
+
+    @Test
+    void getGradeSheetByCourse__notAuthenticated__invalid() throws Exception {
+        long id = ef.createCourse();
+        mvc.perform(get("/submissions/course/{id}/sheet", id)).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void getGradeSheetByCourse__manyStudents__constantStatementCount() {
+        long fewStatements = countGradeSheetStatements(2);
+        long manyStatements = countGradeSheetStatements(40);
+
+        assertThat(manyStatements).isEqualTo(fewStatements);
+    }
+
+    long countGradeSheetStatements(int studentCount) {
+        List<Long> studentIds = new ArrayList<>();
+        for (int i = 0; i < studentCount; i++) {
+            studentIds.add(ef.createStudent());
+        }
+        long courseId = ef.createCourse(ef.bag().withDto(CourseFullDto.builder()
+                .students(studentIds)
+                .build()));
+        for (int i = 0; i < 2; i++) {
+            long taskId = ef.createTask(ef.bag().withCourseId(courseId));
+            long criteriaId = ef.createCriteria(ef.bag().withTaskId(taskId));
+            for (long studentId : studentIds) {
+                ef.createSubmission(ef.bag().withTaskId(taskId).withStudentId(studentId)
+                        .withDto(SubmissionDto.builder().satisfiedCriteria(List.of(criteriaId)).build()));
+            }
+        }
+        em.flush();
+        em.clear();
+
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        try {
+            GradeSheetDto sheet = submissionService.getGradeSheetByCourse(courseId);
+            assertThat(sheet.getSubmissions().getId()).hasSize(studentCount * 2);
+            return statistics.getPrepareStatementCount();
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
+    // ================================================================================================================
+
+    @Test
+    void getRankingByCourse__self__valid() {
+        new WithUser(USERNAME, PASSWORD) {
+            @Override
+            void run() throws Exception {
+                long studentId1 = ef.createStudent();
+                long studentId2 = ef.createStudent();
+                long studentId3 = ef.createStudent();
+                long courseId = ef.createCourse(ef.bag()
+                        .withEmployeeId(getSelfEmployeeIdAsLong())
+                        .withDto(CourseFullDto.builder()
+                                .students(List.of(studentId1, studentId2, studentId3))
+                                .build()));
+                // no criteria and no deadlines: the main score is the max score
+                long taskId = ef.createTask(ef.bag().withCourseId(courseId)
+                        .withDto(TaskDto.builder().maxScore(10).deadlinesEnabled(false).build()));
+                ef.createSubmission(ef.bag().withTaskId(taskId).withStudentId(studentId1)
+                        .withDto(SubmissionDto.builder().additionalScore(1d).build()));
+                long submissionId2 = ef.createSubmission(ef.bag().withTaskId(taskId).withStudentId(studentId2)
+                        .withDto(SubmissionDto.builder().additionalScore(3d).build()));
+
+                securePerform(get("/submissions/course/{id}/ranking", courseId))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.totalElements").value(3))
+                        .andExpect(jsonPath("$.content[*].student", contains(
+                                Math.toIntExact(studentId2), Math.toIntExact(studentId1), Math.toIntExact(studentId3)
+                        )))
+                        .andExpect(jsonPath("$.content[0].totalScore", closeTo(13, 0.001)))
+                        .andExpect(jsonPath("$.content[1].totalScore", closeTo(11, 0.001)))
+                        .andExpect(jsonPath("$.content[2].totalScore", closeTo(0, 0.001)))
+                        .andExpect(jsonPath("$.content[2].submissionCount").value(0));
+
+                securePerform(delete("/submissions/{id}", submissionId2))
+                        .andExpect(status().isOk());
+
+                securePerform(get("/submissions/course/{id}/ranking", courseId)
+                        .queryParam("direction", "ASC")
+                        .queryParam("size", "2"))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.totalElements").value(3))
+                        .andExpect(jsonPath("$.content[*].student", contains(
+                                Math.toIntExact(Math.min(studentId2, studentId3)),
+                                Math.toIntExact(Math.max(studentId2, studentId3))
+                        )));
+            }
+        };
+    }
+
+    @Test
+    void getRankingByCourse__otherAsTeacher__invalid() {
+        long id = ef.createCourse();
+
+        new WithUser(USERNAME, PASSWORD) {
+            @Override
+            void run() throws Exception {
+                securePerform(get("/submissions/course/{id}/ranking", id))
+                        .andExpect(status().isForbidden());
+            }
+        };
+    }
+
+    @Test
+    void getByCourseModifiedSince__self__valid() {
+        new WithUser(USERNAME, PASSWORD) {
+            @Override
+            void run() throws Exception {
+                long studentId1 = ef.createStudent();
+                long studentId2 = ef.createStudent();
+                long studentId3 = ef.createStudent();
+                long courseId = ef.createCourse(ef.bag()
+                        .withEmployeeId(getSelfEmployeeIdAsLong())
+                        .withDto(CourseFullDto.builder()
+                                .students(List.of(studentId1, studentId2, studentId3))
+                                .build()));
+                long taskId = ef.createTask(ef.bag().withCourseId(courseId)
+                        .withDto(TaskDto.builder().maxScore(10).deadlinesEnabled(false).build()));
+                long submissionId1 = ef.createSubmission(ef.bag().withTaskId(taskId).withStudentId(studentId1)
+                        .withDto(SubmissionDto.builder().additionalScore(1d).build()));
+                long submissionId2 = ef.createSubmission(ef.bag().withTaskId(taskId).withStudentId(studentId2)
+                        .withDto(SubmissionDto.builder().additionalScore(2d).build()));
+                ef.createSubmission(ef.bag().withTaskId(taskId).withStudentId(studentId3)
+                        .withDto(SubmissionDto.builder().additionalScore(3d).build()));
+
+                String since = DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(ZonedDateTime.now(ZoneOffset.UTC));
+
+                securePerform(patch("/submissions/{id}", submissionId1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.createObjectNode().put("additionalScore", 4d).toString()))
+                        .andExpect(status().isOk());
+                securePerform(delete("/submissions/{id}", submissionId2))
+                        .andExpect(status().isOk());
+
+                securePerform(get("/submissions/course/{id}", courseId).param("since", since))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.changed[*].id", contains(Math.toIntExact(submissionId1))))
+                        .andExpect(jsonPath("$.changed[0].additionalScore").value(4d))
+                        .andExpect(jsonPath("$.deleted", contains(Math.toIntExact(submissionId2))))
+                        .andExpect(jsonPath("$.watermark").isNotEmpty());
+            }
+        };
+    }
+
+    @Test
+    void getByCourseModifiedSince__writerRunningDuringRead__watermarkBeforeWriter() {
+        new WithUser(USERNAME, PASSWORD) {
+            @Override
+            void run() throws Exception {
+                long studentId = ef.createStudent();
+                long courseId = ef.createCourse(ef.bag()
+                        .withEmployeeId(getSelfEmployeeIdAsLong())
+                        .withDto(CourseFullDto.builder().students(List.of(studentId)).build()));
+                long taskId = ef.createTask(ef.bag().withCourseId(courseId)
+                        .withDto(TaskDto.builder().maxScore(10).deadlinesEnabled(false).build()));
+                long submissionId = ef.createSubmission(ef.bag().withTaskId(taskId).withStudentId(studentId)
+                        .withDto(SubmissionDto.builder().additionalScore(1d).build()));
+
+                String since = DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(ZonedDateTime.now(ZoneOffset.UTC));
+                String watermark;
+                // a writer on another connection has started its transaction before the read...
+                try (Connection writer = dataSource.getConnection()) {
+                    writer.setAutoCommit(false);
+                    OffsetDateTime writerStartedAt;
+                    try (ResultSet rs = writer.createStatement().executeQuery("select now()")) {
+                        rs.next();
+                        writerStartedAt = rs.getObject(1, OffsetDateTime.class);
+                    }
+
+                    MvcResult mvcResult = securePerform(get("/submissions/course/{id}", courseId).param("since", since))
+                            .andExpect(status().isOk())
+                            .andExpect(jsonPath("$.changed", hasSize(0)))
+                            .andReturn();
+                    watermark = JsonPath.read(mvcResult.getResponse().getContentAsString(), "$.watermark");
+
+                    // ...so whatever it stamps after the read is not older than the watermark
+                    assertThat(ZonedDateTime.parse(watermark).toInstant()).isBeforeOrEqualTo(writerStartedAt.toInstant());
+                    writer.rollback();
+                }
+
+                securePerform(patch("/submissions/{id}", submissionId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.createObjectNode().put("additionalScore", 2d).toString()))
+                        .andExpect(status().isOk());
+
+                securePerform(get("/submissions/course/{id}", courseId).param("since", watermark))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.changed[*].id", contains(Math.toIntExact(submissionId))))
+                        .andExpect(jsonPath("$.changed[0].additionalScore").value(2d));
+            }
+        };
+    }
+
+    @Test
+    void getByCourseModifiedSince__criteriaDeleted__submissionReturned() {
+        new WithUser(USERNAME, PASSWORD) {
+            @Override
+            void run() throws Exception {
+                long studentId = ef.createStudent();
+                long courseId = ef.createCourse(ef.bag()
+                        .withEmployeeId(getSelfEmployeeIdAsLong())
+                        .withDto(CourseFullDto.builder().students(List.of(studentId)).build()));
+                long taskId = ef.createTask(ef.bag().withCourseId(courseId)
+                        .withDto(TaskDto.builder().maxScore(10).deadlinesEnabled(false).build()));
+                long criteriaId = ef.createCriteria(ef.bag().withTaskId(taskId));
+                long submissionId = ef.createSubmission(ef.bag().withTaskId(taskId).withStudentId(studentId)
+                        .withDto(SubmissionDto.builder().satisfiedCriteria(List.of(criteriaId)).build()));
+
+                String since = DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(ZonedDateTime.now(ZoneOffset.UTC));
+
+                securePerform(delete("/criteria/{id}", criteriaId))
+                        .andExpect(status().isOk());
+
+                securePerform(get("/submissions/course/{id}", courseId).param("since", since))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.changed[*].id", contains(Math.toIntExact(submissionId))))
+                        .andExpect(jsonPath("$.changed[0].satisfiedCriteria", hasSize(0)))
+                        .andExpect(jsonPath("$.deleted", hasSize(0)));
+            }
+        };
+    }
+
+    @Test
+    void getByCourseModifiedSince__otherAsTeacher__invalid() {
+        long id = ef.createCourse();
+
+        new WithUser(USERNAME, PASSWORD) {
+            @Override
+            void run() throws Exception {
+                securePerform(get("/submissions/course/{id}", id)
+                        .param("since", DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(ZonedDateTime.now(ZoneOffset.UTC))))
+                        .andExpect(status().isForbidden());
+            }
+        };
+    }
+
+    // ================================================================================================================
+
     RequestContext<Long> createGetSubmissionsByTaskContext(long taskId, long studentId) {
         ZonedDateTime submittedAt = ZonedDateTime.now().minusDays(1);
         double additionalScore = faker.number().randomDouble(2, 0, 5);
@@ -1450,6 +1756,43 @@ public class SubmissionControllerIntegrationTests extends AbstractIntegrationTes
         };
     }
 
+    @Test
+    void setSubmissionsForCourse__noSubmittedAt__invalid() {
+        new WithUser(USERNAME, PASSWORD) {
+            @Override
+            void run() throws Exception {
+                // GIVEN
+                long courseId = ef.createCourse(getSelfEmployeeIdAsLong());
+                long taskId = ef.createTask(ef.bag().withCourseId(courseId));
+                long studentId = ef.createStudent(ef.bag());
+                connect(courseId, studentId);
+
+                ObjectNode request = objectMapper.createObjectNode();
+                request.putArray("submissions").addObject()
+                        .put("task", taskId)
+                        .put("student", studentId)
+                        .put("additionalScore", 1d)
+                        .putArray("satisfiedCriteria");
+
+                // WHEN
+                securePerform(post("/submissions/course/{cid}/set", courseId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(request.toString()))
+                        // THEN
+                        .andExpect(status().isBadRequest());
+
+                SubmissionDto dto = SubmissionDto.builder()
+                        .task(taskId)
+                        .student(studentId)
+                        .satisfiedCriteria(List.of())
+                        .additionalScore(1d)
+                        .build();
+                assertThatThrownBy(() -> submissionService.setForCourse(courseId, List.of(dto)))
+                        .isInstanceOf(NoDataPresentedException.class);
+            }
+        };
+    }
+
     @Test
     void setSubmissionsForCourse__otherAsAdmin__valid() {
         new WithUser(ADMIN_USERNAME, ADMIN_PASSWORD, false) {
@@ -1587,6 +1930,64 @@ public class SubmissionControllerIntegrationTests extends AbstractIntegrationTes
         };
     }
 
+    @Test
+    void setSubmissionsForCourse__manyStudents__constantStatementCount() {
+        long fewStatements = countSetForCourseStatements(2);
+        long manyStatements = countSetForCourseStatements(40);
+
+        assertThat(manyStatements).isEqualTo(fewStatements);
+    }
+
+    long countSetForCourseStatements(int studentCount) {
+        List<Long> studentIds = new ArrayList<>();
+        for (int i = 0; i < studentCount + 1; i++) {
+            studentIds.add(ef.createStudent());
+        }
+        long courseId = ef.createCourse(ef.bag().withDto(CourseFullDto.builder()
+                .students(studentIds)
+                .build()));
+        long taskId1 = ef.createTask(ef.bag().withCourseId(courseId));
+        long taskId2 = ef.createTask(ef.bag().withCourseId(courseId));
+        long task1Criteria1 = ef.createCriteria(ef.bag().withTaskId(taskId1));
+        long task1Criteria2 = ef.createCriteria(ef.bag().withTaskId(taskId1));
+        long task2Criteria = ef.createCriteria(ef.bag().withTaskId(taskId2));
+
+        // the last student loses the submission, every other one swaps a criteria in task1 and gets a new one in task2
+        ef.createSubmission(ef.bag().withTaskId(taskId1).withStudentId(studentIds.get(studentCount))
+                .withDto(SubmissionDto.builder().satisfiedCriteria(List.of(task1Criteria1)).build()));
+        List<SubmissionDto> dtoList = new ArrayList<>();
+        ZonedDateTime now = ZonedDateTime.now();
+        for (long studentId : studentIds.subList(0, studentCount)) {
+            ef.createSubmission(ef.bag().withTaskId(taskId1).withStudentId(studentId)
+                    .withDto(SubmissionDto.builder().satisfiedCriteria(List.of(task1Criteria1)).build()));
+            dtoList.add(SubmissionDto.builder()
+                    .task(taskId1)
+                    .student(studentId)
+                    .submittedAt(now)
+                    .satisfiedCriteria(List.of(task1Criteria2))
+                    .build());
+            dtoList.add(SubmissionDto.builder()
+                    .task(taskId2)
+                    .student(studentId)
+                    .submittedAt(now)
+                    .satisfiedCriteria(List.of(task2Criteria))
+                    .build());
+        }
+        em.flush();
+        em.clear();
+
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        try {
+            assertThat(submissionService.setForCourse(courseId, dtoList)).hasSize(studentCount * 2);
+            em.flush();
+            return statistics.getPrepareStatementCount();
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
     @Test
     void setSubmissionsForCourse__notAuthenticated__invalid() throws Exception {
         // GIVEN
@@ -1,6 +1,7 @@
 package com.a6raywa1cher.coursejournalbackend.integration;
 
 import com.a6raywa1cher.coursejournalbackend.TestUtils;
+import com.a6raywa1cher.coursejournalbackend.dto.SubmissionDto;
 import com.a6raywa1cher.coursejournalbackend.dto.TaskDto;
 import com.a6raywa1cher.coursejournalbackend.service.CourseService;
 import com.a6raywa1cher.coursejournalbackend.service.TaskService;
@@ -12,6 +13,7 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.ResultMatcher;
 
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 
 import static org.hamcrest.Matchers.containsString;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -1848,6 +1850,36 @@ public class TaskControllerIntegrationTests extends AbstractIntegrationTests {
         };
     }
 
+    @Test
+    void patchTask__maxScore__submissionsRecalculated() {
+        new WithUser(USERNAME, PASSWORD) {
+            @Override
+            void run() throws Exception {
+                long courseId = ef.createCourse(getSelfEmployeeIdAsLong());
+                long taskId = ef.createTask(ef.bag().withCourseId(courseId)
+                        .withDto(TaskDto.builder().maxScore(10).deadlinesEnabled(false).build()));
+                long studentId = ef.createStudent(ef.bag().withCourseId(courseId));
+                long submissionId = ef.createSubmission(ef.bag().withTaskId(taskId).withStudentId(studentId)
+                        .withDto(SubmissionDto.builder().satisfiedCriteria(new ArrayList<>()).build()));
+
+                securePerform(get("/submissions/{id}", submissionId))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.mainScore").value(10d));
+
+                securePerform(patch("/tasks/{id}", taskId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.createObjectNode()
+                                .put("maxScore", 20)
+                                .toString()))
+                        .andExpect(status().isOk());
+
+                securePerform(get("/submissions/{id}", submissionId))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.mainScore").value(20d));
+            }
+        };
+    }
+
     @Test
     void patchTask__notAuthenticated__invalid() throws Exception {
         long courseId = ef.createCourse(ef.createEmployee());
@@ -0,0 +1,75 @@
+package com.a6raywa1cher.coursejournalbackend.unit;
+
+import com.a6raywa1cher.coursejournalbackend.model.Course;
+import com.a6raywa1cher.coursejournalbackend.model.repo.CourseRepository;
+import com.a6raywa1cher.coursejournalbackend.security.AccessChecker;
+import com.a6raywa1cher.coursejournalbackend.security.ActionType;
+import com.a6raywa1cher.coursejournalbackend.security.OwnershipResolver;
+import com.a6raywa1cher.coursejournalbackend.security.OwnershipResolver.Owner;
+import com.a6raywa1cher.coursejournalbackend.security.Permission;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static com.a6raywa1cher.coursejournalbackend.security.PermissionTarget.COURSE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class AccessCheckerBatchUnitTests {
+    private static Authentication authentication(String... authorities) {
+        return new UsernamePasswordAuthenticationToken("user", null,
+                List.of(authorities).stream().map(SimpleGrantedAuthority::new).toList());
+    }
+
+    private static AccessChecker accessChecker() {
+        OwnershipResolver resolver = mock(OwnershipResolver.class);
+        Map<Long, Owner> owners = Map.of(
+                1L, new Owner(COURSE, 1L),
+                2L, new Owner(COURSE, 2L),
+                3L, new Owner(COURSE, 3L)
+        );
+        when(resolver.resolveAll(eq(Course.class), anyCollection())).thenReturn(owners);
+        when(resolver.resolve(eq(Course.class), anyLong()))
+                .thenAnswer(invocation -> Optional.ofNullable(owners.get(invocation.<Long>getArgument(1))));
+        return new AccessChecker(mock(CourseRepository.class), resolver);
+    }
+
+    @Test
+    void getPermittedIds__mixed__permittedAndMissingInOrder() {
+        Authentication authentication = authentication(
+                Permission.getPermissionForCourse(3, ActionType.READ),
+                Permission.getPermissionForCourse(1, ActionType.READ),
+                Permission.getPermissionForCourse(2, ActionType.WRITE)
+        );
+
+        assertThat(accessChecker().getPermittedIds(List.of(3L, 2L, 1L, 4L), Course.class, ActionType.READ, authentication))
+                .containsExactly(3L, 1L, 4L);
+    }
+
+    @Test
+    void getPermittedIds__admin__all() {
+        assertThat(accessChecker().getPermittedIds(List.of(1L, 2L, 3L, 4L), Course.class, ActionType.READ,
+                authentication("ROLE_ADMIN")))
+                .containsExactly(1L, 2L, 3L, 4L);
+    }
+
+    @Test
+    void getPermittedIds__sameAsSingleCheck() {
+        Authentication authentication = authentication(Permission.getPermissionForCourse(2, ActionType.READ));
+        AccessChecker accessChecker = accessChecker();
+
+        for (long id = 1; id <= 4; id++) {
+            assertThat(accessChecker.getPermittedIds(List.of(id), Course.class, ActionType.READ, authentication).contains(id))
+                    .isEqualTo(accessChecker.hasAuthority(id, Course.class, ActionType.READ, authentication));
+        }
+    }
+}
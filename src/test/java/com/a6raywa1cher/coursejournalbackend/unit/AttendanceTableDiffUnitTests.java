@@ -0,0 +1,115 @@
+package com.a6raywa1cher.coursejournalbackend.unit;
+
+import com.a6raywa1cher.coursejournalbackend.dto.TableDto;
+import com.a6raywa1cher.coursejournalbackend.model.AttendanceType;
+import com.a6raywa1cher.coursejournalbackend.model.repo.AttendanceCell;
+import com.a6raywa1cher.coursejournalbackend.service.impl.AttendanceTableDiff;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.a6raywa1cher.coursejournalbackend.model.AttendanceType.ATTENDED;
+import static com.a6raywa1cher.coursejournalbackend.model.AttendanceType.SERIOUS_REASON;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AttendanceTableDiffUnitTests {
+    private static final LocalDate DATE = LocalDate.of(2022, 9, 1);
+
+    private static TableDto table(List<TableDto.TableHeaderElement> header, TableDto.TableBodyElement... body) {
+        TableDto tableDto = new TableDto();
+        tableDto.setHeader(header);
+        tableDto.setBody(new ArrayList<>(List.of(body)));
+        return tableDto;
+    }
+
+    private static TableDto.TableBodyElement row(long studentId, AttendanceType... attendances) {
+        return new TableDto.TableBodyElement(studentId, Arrays.asList(attendances), "Student", 1L);
+    }
+
+    @Test
+    void compute__sameTable__empty() {
+        List<AttendanceCell> existing = List.of(
+                new AttendanceCell(1L, DATE, 1, ATTENDED),
+                new AttendanceCell(2L, DATE, 1, SERIOUS_REASON)
+        );
+        TableDto tableDto = table(
+                List.of(new TableDto.TableHeaderElement(DATE, 1)),
+                row(1, ATTENDED),
+                row(2, SERIOUS_REASON)
+        );
+
+        AttendanceTableDiff diff = AttendanceTableDiff.compute(existing, tableDto);
+
+        assertThat(diff.isEmpty()).isTrue();
+        assertThat(diff.getResult()).containsExactlyElementsOf(existing);
+    }
+
+    @Test
+    void compute__changes__minimalSets() {
+        List<AttendanceCell> existing = List.of(
+                new AttendanceCell(1L, DATE, 1, ATTENDED),
+                new AttendanceCell(2L, DATE, 1, ATTENDED),
+                new AttendanceCell(1L, DATE, 2, ATTENDED)
+        );
+        TableDto tableDto = table(
+                List.of(
+                        new TableDto.TableHeaderElement(DATE, 1),
+                        new TableDto.TableHeaderElement(DATE, 2),
+                        new TableDto.TableHeaderElement(DATE.plusDays(1), 1)
+                ),
+                row(1, SERIOUS_REASON, null, ATTENDED),
+                row(2, ATTENDED, null, null)
+        );
+
+        AttendanceTableDiff diff = AttendanceTableDiff.compute(existing, tableDto);
+
+        assertThat(diff.getToUpdate()).containsExactly(new AttendanceCell(1L, DATE, 1, SERIOUS_REASON));
+        assertThat(diff.getReplaced()).containsExactly(new AttendanceCell(1L, DATE, 1, ATTENDED));
+        assertThat(diff.getToDelete()).containsExactly(new AttendanceCell(1L, DATE, 2, ATTENDED));
+        assertThat(diff.getToInsert()).containsExactly(new AttendanceCell(1L, DATE.plusDays(1), 1, ATTENDED));
+        assertThat(diff.getResult()).containsExactly(
+                new AttendanceCell(1L, DATE, 1, SERIOUS_REASON),
+                new AttendanceCell(2L, DATE, 1, ATTENDED),
+                new AttendanceCell(1L, DATE.plusDays(1), 1, ATTENDED)
+        );
+    }
+
+    @Test
+    void compute__studentNotInTable__untouched() {
+        List<AttendanceCell> existing = List.of(
+                new AttendanceCell(1L, DATE, 1, ATTENDED),
+                new AttendanceCell(2L, DATE, 1, ATTENDED)
+        );
+        TableDto tableDto = table(List.of(new TableDto.TableHeaderElement(DATE, 1)), row(1, (AttendanceType) null));
+
+        AttendanceTableDiff diff = AttendanceTableDiff.compute(existing, tableDto);
+
+        assertThat(diff.getToDelete()).containsExactly(new AttendanceCell(1L, DATE, 1, ATTENDED));
+        assertThat(diff.getToInsert()).isEmpty();
+        assertThat(diff.getToUpdate()).isEmpty();
+        assertThat(diff.getResult()).containsExactly(new AttendanceCell(2L, DATE, 1, ATTENDED));
+    }
+
+    @Test
+    void compute__columnNotInHeader__untouched() {
+        List<AttendanceCell> existing = List.of(
+                new AttendanceCell(1L, DATE, 1, ATTENDED),
+                new AttendanceCell(1L, DATE, 2, ATTENDED),
+                new AttendanceCell(1L, DATE.plusDays(1), 1, SERIOUS_REASON)
+        );
+        TableDto tableDto = table(List.of(new TableDto.TableHeaderElement(DATE, 2)), row(1, (AttendanceType) null));
+
+        AttendanceTableDiff diff = AttendanceTableDiff.compute(existing, tableDto);
+
+        assertThat(diff.getToDelete()).containsExactly(new AttendanceCell(1L, DATE, 2, ATTENDED));
+        assertThat(diff.getToInsert()).isEmpty();
+        assertThat(diff.getToUpdate()).isEmpty();
+        assertThat(diff.getResult()).containsExactly(
+                new AttendanceCell(1L, DATE, 1, ATTENDED),
+                new AttendanceCell(1L, DATE.plusDays(1), 1, SERIOUS_REASON)
+        );
+    }
+}
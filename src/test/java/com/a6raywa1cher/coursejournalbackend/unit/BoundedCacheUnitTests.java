@@ -0,0 +1,92 @@
+package com.a6raywa1cher.coursejournalbackend.unit;
+
+import com.a6raywa1cher.coursejournalbackend.utils.BoundedCache;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BoundedCacheUnitTests {
+    @Test
+    void get__repeated__loadedOnce() {
+        BoundedCache<Long, String> cache = new BoundedCache<>(10, Duration.ofMinutes(1));
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(1L, k -> "v" + loads.incrementAndGet());
+        String value = cache.get(1L, k -> "v" + loads.incrementAndGet());
+
+        assertThat(value).isEqualTo("v1");
+        assertThat(cache.hitCount()).isEqualTo(1);
+        assertThat(cache.missCount()).isEqualTo(1);
+    }
+
+    @Test
+    void get__null__notCached() {
+        BoundedCache<Long, String> cache = new BoundedCache<>(10, Duration.ofMinutes(1));
+
+        cache.get(1L, k -> null);
+
+        assertThat(cache.size()).isZero();
+        assertThat(cache.get(1L, k -> "v")).isEqualTo("v");
+    }
+
+    @Test
+    void get__aboveMaximumSize__evicted() {
+        BoundedCache<Long, String> cache = new BoundedCache<>(2, Duration.ofMinutes(1));
+
+        cache.get(1L, k -> "a");
+        cache.get(2L, k -> "b");
+        cache.get(3L, k -> "c");
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.evictionCount()).isEqualTo(1);
+    }
+
+    @Test
+    void get__invalidatedWhileLoading__notCached() {
+        BoundedCache<Long, String> cache = new BoundedCache<>(10, Duration.ofMinutes(1));
+
+        String value = cache.get(1L, k -> {
+            cache.invalidate(k);
+            return "stale";
+        });
+
+        assertThat(value).isEqualTo("stale");
+        assertThat(cache.get(1L, k -> "fresh")).isEqualTo("fresh");
+    }
+
+    @Test
+    void put__invalidatedAllSinceGeneration__ignored() {
+        BoundedCache<Long, String> cache = new BoundedCache<>(10, Duration.ofMinutes(1));
+        long loadedAt = cache.generation();
+
+        cache.invalidateAll();
+        cache.put(1L, "stale", loadedAt);
+
+        assertThat(cache.getIfPresent(1L)).isNull();
+    }
+
+    @Test
+    void get__expired__reloaded() {
+        BoundedCache<Long, String> cache = new BoundedCache<>(10, Duration.ZERO);
+
+        cache.get(1L, k -> "a");
+
+        assertThat(cache.get(1L, k -> "b")).isEqualTo("b");
+    }
+
+    @Test
+    void invalidateIf__matchingValues__removed() {
+        BoundedCache<Long, String> cache = new BoundedCache<>(10, Duration.ofMinutes(1));
+        cache.get(1L, k -> "a");
+        cache.get(2L, k -> "b");
+        cache.get(3L, k -> "a");
+
+        cache.invalidateIf((k, v) -> v.equals("a"));
+
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.get(2L, k -> "reloaded")).isEqualTo("b");
+    }
+}
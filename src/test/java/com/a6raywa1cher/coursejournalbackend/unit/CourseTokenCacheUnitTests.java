@@ -0,0 +1,86 @@
+package com.a6raywa1cher.coursejournalbackend.unit;
+
+import com.a6raywa1cher.coursejournalbackend.component.CourseTokenCache;
+import com.a6raywa1cher.coursejournalbackend.model.repo.CourseTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+public class CourseTokenCacheUnitTests {
+    private static CourseTokenCache cache(CourseTokenRepository repository) {
+        return new CourseTokenCache(repository, new SimpleMeterRegistry(),
+                100, Duration.ofMinutes(1), 100, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void getCourseId__repeated__loadedOnce() {
+        CourseTokenRepository repository = mock(CourseTokenRepository.class);
+        when(repository.findCourseIdByToken("abc")).thenReturn(Optional.of(5L));
+        CourseTokenCache cache = cache(repository);
+
+        for (int i = 0; i < 1000; i++) {
+            assertThat(cache.getCourseId("abc")).contains(5L);
+        }
+
+        verify(repository, times(1)).findCourseIdByToken("abc");
+    }
+
+    @Test
+    void getCourseId__unknown__negativeCached() {
+        CourseTokenRepository repository = mock(CourseTokenRepository.class);
+        when(repository.findCourseIdByToken(anyString())).thenReturn(Optional.empty());
+        CourseTokenCache cache = cache(repository);
+
+        assertThat(cache.getCourseId("probe")).isEmpty();
+        assertThat(cache.getCourseId("probe")).isEmpty();
+
+        verify(repository, times(1)).findCourseIdByToken("probe");
+    }
+
+    @Test
+    void getCourseId__manyUnknown__knownNotEvicted() {
+        CourseTokenRepository repository = mock(CourseTokenRepository.class);
+        when(repository.findCourseIdByToken(anyString())).thenReturn(Optional.empty());
+        when(repository.findCourseIdByToken("abc")).thenReturn(Optional.of(5L));
+        CourseTokenCache cache = cache(repository);
+
+        cache.getCourseId("abc");
+        for (int i = 0; i < 1000; i++) {
+            cache.getCourseId("probe" + i);
+        }
+        cache.getCourseId("abc");
+
+        verify(repository, times(1)).findCourseIdByToken("abc");
+    }
+
+    @Test
+    void invalidate__unknownTokenCreated__reloaded() {
+        CourseTokenRepository repository = mock(CourseTokenRepository.class);
+        when(repository.findCourseIdByToken("abc")).thenReturn(Optional.empty());
+        CourseTokenCache cache = cache(repository);
+        cache.getCourseId("abc");
+
+        when(repository.findCourseIdByToken("abc")).thenReturn(Optional.of(5L));
+        cache.invalidate("abc");
+
+        assertThat(cache.getCourseId("abc")).contains(5L);
+    }
+
+    @Test
+    void invalidateCourse__known__reloaded() {
+        CourseTokenRepository repository = mock(CourseTokenRepository.class);
+        when(repository.findCourseIdByToken("abc")).thenReturn(Optional.of(5L));
+        CourseTokenCache cache = cache(repository);
+        cache.getCourseId("abc");
+
+        when(repository.findCourseIdByToken("abc")).thenReturn(Optional.empty());
+        cache.invalidateCourse(5);
+
+        assertThat(cache.getCourseId("abc")).isEmpty();
+    }
+}
@@ -0,0 +1,88 @@
+package com.a6raywa1cher.coursejournalbackend.unit;
+
+import com.a6raywa1cher.coursejournalbackend.model.AuthUser;
+import com.a6raywa1cher.coursejournalbackend.model.Employee;
+import com.a6raywa1cher.coursejournalbackend.model.UserRole;
+import com.a6raywa1cher.coursejournalbackend.model.repo.CourseRepository;
+import com.a6raywa1cher.coursejournalbackend.security.ActionType;
+import com.a6raywa1cher.coursejournalbackend.security.AuthorityVersions;
+import com.a6raywa1cher.coursejournalbackend.security.GrantedAuthorityServiceImpl;
+import com.a6raywa1cher.coursejournalbackend.security.Permission;
+import com.a6raywa1cher.jsonrestsecurity.component.checker.UserEnabledChecker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+public class GrantedAuthorityServiceUnitTests {
+    private CourseRepository courseRepository;
+
+    private AuthorityVersions versions;
+
+    private GrantedAuthorityServiceImpl service;
+
+    private AuthUser teacher;
+
+    @BeforeEach
+    void setup() {
+        courseRepository = mock(CourseRepository.class);
+        UserEnabledChecker enabledChecker = mock(UserEnabledChecker.class);
+        when(enabledChecker.check(any())).thenReturn(true);
+        versions = mock(AuthorityVersions.class);
+        service = new GrantedAuthorityServiceImpl(enabledChecker, courseRepository, versions,
+                new SimpleMeterRegistry(), 100, Duration.ofMinutes(1));
+
+        Employee employee = new Employee();
+        employee.setId(7L);
+        teacher = new AuthUser();
+        teacher.setId(3L);
+        teacher.setUserRole(UserRole.TEACHER);
+        teacher.setEmployee(employee);
+    }
+
+    @Test
+    void getAuthorities__repeated__coursesQueriedOnce() {
+        when(courseRepository.findByOwner(teacher.getEmployee())).thenReturn(List.of(10L));
+
+        service.getAuthorities(teacher);
+        var authorities = service.getAuthorities(teacher);
+
+        assertThat(authorities).contains(
+                new SimpleGrantedAuthority(Permission.getPermissionForCourse(10, ActionType.WRITE)),
+                new SimpleGrantedAuthority("ENABLED")
+        );
+        verify(courseRepository, times(1)).findByOwner(teacher.getEmployee());
+    }
+
+    @Test
+    void getAuthorities__versionMoved__rebuilt() {
+        when(courseRepository.findByOwner(teacher.getEmployee())).thenReturn(List.of(10L));
+        service.getAuthorities(teacher);
+
+        when(courseRepository.findByOwner(teacher.getEmployee())).thenReturn(List.of(10L, 11L));
+        when(versions.ofUser(3L)).thenReturn(1L);
+
+        assertThat(service.getAuthorities(teacher)).contains(
+                new SimpleGrantedAuthority(Permission.getPermissionForCourse(11, ActionType.WRITE))
+        );
+        verify(courseRepository, times(2)).findByOwner(teacher.getEmployee());
+    }
+
+    @Test
+    void getAuthorities__otherUserVersionMoved__notRebuilt() {
+        when(courseRepository.findByOwner(teacher.getEmployee())).thenReturn(List.of(10L));
+        service.getAuthorities(teacher);
+
+        when(versions.ofUser(4L)).thenReturn(1L);
+        service.getAuthorities(teacher);
+
+        verify(courseRepository, times(1)).findByOwner(teacher.getEmployee());
+        verify(versions, times(2)).ofUser(3L);
+    }
+}
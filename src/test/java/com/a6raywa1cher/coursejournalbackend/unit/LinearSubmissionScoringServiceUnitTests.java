@@ -3,13 +3,15 @@ package com.a6raywa1cher.coursejournalbackend.unit;
 import com.a6raywa1cher.coursejournalbackend.dto.CriteriaDto;
 import com.a6raywa1cher.coursejournalbackend.dto.SubmissionDto;
 import com.a6raywa1cher.coursejournalbackend.dto.TaskDto;
+import com.a6raywa1cher.coursejournalbackend.service.TaskScoringContext;
 import com.a6raywa1cher.coursejournalbackend.service.impl.LinearSubmissionScoringService;
 import org.assertj.core.data.Offset;
 import org.junit.jupiter.api.Test;
 
 import java.time.ZonedDateTime;
-import java.util.Collections;
-import java.util.List;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -337,4 +339,112 @@ public class LinearSubmissionScoringServiceUnitTests {
         double actual = scoringService.getMainScore(submissionDto, taskDto, allCriteria);
         assertThat(actual).isCloseTo(4.5d, Offset.offset(0.001d));
     }
+
+    @Test
+    void getMainScore__kernel__sameAsLegacy() {
+        var scoringService = new LinearSubmissionScoringService();
+        Random random = new Random(42);
+        // deadlines and submissions off the minute grid, two days back so the current time is never the earliest
+        ZonedDateTime now = ZonedDateTime.now().truncatedTo(ChronoUnit.SECONDS).minusDays(2);
+        List<CriteriaDto> allCriteria = new ArrayList<>();
+        for (long id = 10; id > 0; id--) {
+            allCriteria.add(CriteriaDto.builder().id(id).criteriaPercent(random.nextInt(30)).build());
+        }
+        TaskDto taskDto = TaskDto.builder()
+                .maxScore(15)
+                .maxPenaltyPercent(60)
+                .softDeadlineAt(now.plusSeconds(30))
+                .hardDeadlineAt(now.plusSeconds(600 * 60 + 17))
+                .deadlinesEnabled(true)
+                .build();
+        TaskScoringContext context = TaskScoringContext.of(taskDto, allCriteria);
+        long[] satisfied = new long[allCriteria.size()];
+
+        for (int i = 0; i < 10_000; i++) {
+            List<Long> satisfiedCriteria = new ArrayList<>();
+            for (CriteriaDto criteria : allCriteria) {
+                if (random.nextBoolean()) satisfiedCriteria.add(criteria.getId());
+            }
+            ZonedDateTime submittedAt = now.plusSeconds(random.nextInt(1200 * 60) - 300 * 60);
+            SubmissionDto submissionDto = SubmissionDto.builder()
+                    .satisfiedCriteria(satisfiedCriteria)
+                    .submittedAt(submittedAt)
+                    .build();
+            int count = 0;
+            for (long id : satisfiedCriteria.stream().mapToLong(Long::longValue).sorted().toArray()) {
+                satisfied[count++] = id;
+            }
+
+            double expected = legacyMainScore(submissionDto, taskDto, allCriteria);
+            assertThat(scoringService.getMainScore(submissionDto, taskDto, allCriteria)).isEqualTo(expected);
+            assertThat(scoringService.getMainScore(context, TaskScoringContext.toEpochSecond(submittedAt), satisfied, count))
+                    .isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void getMainScore__lateLessThanMinuteAcrossMinuteBoundary__notLate() {
+        var scoringService = new LinearSubmissionScoringService();
+        ZonedDateTime softDeadlineAt = ZonedDateTime.now().truncatedTo(ChronoUnit.HOURS).minusDays(1).plusSeconds(30);
+        SubmissionDto submissionDto = SubmissionDto.builder()
+                .satisfiedCriteria(List.of())
+                .submittedAt(softDeadlineAt.plusSeconds(40))
+                .build();
+        TaskDto taskDto = TaskDto.builder()
+                .maxScore(10)
+                .maxPenaltyPercent(50)
+                .softDeadlineAt(softDeadlineAt)
+                .hardDeadlineAt(softDeadlineAt.plusMinutes(60))
+                .deadlinesEnabled(true)
+                .build();
+        TaskScoringContext context = TaskScoringContext.of(taskDto, List.of());
+
+        assertThat(scoringService.getMainScore(submissionDto, taskDto, List.of())).isCloseTo(10d, Offset.offset(0.001d));
+        assertThat(scoringService.getMainScore(context, TaskScoringContext.toEpochSecond(submissionDto.getSubmittedAt()), new long[0], 0))
+                .isCloseTo(10d, Offset.offset(0.001d));
+    }
+
+    @Test
+    void getMainScore__duplicateSatisfiedCriteria__countedOnce() {
+        var scoringService = new LinearSubmissionScoringService();
+        List<CriteriaDto> allCriteria = List.of(
+                CriteriaDto.builder().id(1L).criteriaPercent(20).build(),
+                CriteriaDto.builder().id(2L).criteriaPercent(30).build()
+        );
+        TaskDto taskDto = TaskDto.builder()
+                .maxScore(10)
+                .deadlinesEnabled(false)
+                .build();
+        TaskScoringContext context = TaskScoringContext.of(taskDto, allCriteria);
+
+        double actual = scoringService.getMainScore(context, 0, new long[]{1, 1, 3}, 3);
+        assertThat(actual).isCloseTo(4d, Offset.offset(0.001d));
+    }
+
+    private static double legacyMainScore(SubmissionDto submission, TaskDto task, List<CriteriaDto> allCriteria) {
+        ZonedDateTime zero = Stream.of(task.getHardDeadlineAt(), task.getSoftDeadlineAt(), submission.getSubmittedAt(), ZonedDateTime.now())
+                .min(Comparator.naturalOrder())
+                .orElseThrow()
+                .minusDays(1);
+        long hardDeadline = zero.until(task.getHardDeadlineAt(), ChronoUnit.MINUTES);
+        long softDeadline = zero.until(task.getSoftDeadlineAt(), ChronoUnit.MINUTES);
+        long submitted = zero.until(submission.getSubmittedAt(), ChronoUnit.MINUTES);
+        double mpd = task.getMaxPenaltyPercent() / 100d;
+        double p = hardDeadline == softDeadline ?
+                (submitted <= softDeadline ? 1 : mpd) :
+                Math.min(1d, Math.max(1d - mpd, 1d - mpd * (submitted - softDeadline) / ((double) (hardDeadline - softDeadline))));
+
+        Set<Long> satisfiedCriteriaIds = new HashSet<>(submission.getSatisfiedCriteria());
+        int satisfiedScore = 0, allScore = 0;
+        for (CriteriaDto criteria : allCriteria) {
+            allScore += criteria.getCriteriaPercent();
+            if (satisfiedCriteriaIds.contains(criteria.getId())) {
+                satisfiedScore += criteria.getCriteriaPercent();
+            }
+        }
+        double c = allScore == 0 ? 1 : satisfiedScore / ((double) allScore);
+
+        double scaleFactor = Math.pow(10, 2);
+        return Math.round(p * c * task.getMaxScore() * scaleFactor) / scaleFactor;
+    }
 }
@@ -0,0 +1,110 @@
+package com.a6raywa1cher.coursejournalbackend.unit;
+
+import com.a6raywa1cher.coursejournalbackend.security.ActionType;
+import com.a6raywa1cher.coursejournalbackend.security.Permission;
+import com.a6raywa1cher.coursejournalbackend.security.PermissionIndex;
+import com.a6raywa1cher.coursejournalbackend.utils.LongHashSet;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.a6raywa1cher.coursejournalbackend.security.PermissionTarget.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PermissionIndexUnitTests {
+    @Test
+    void of__mixedAuthorities__parsed() {
+        var index = PermissionIndex.of(List.of(
+                new SimpleGrantedAuthority("ROLE_TEACHER"),
+                new SimpleGrantedAuthority("ENABLED"),
+                new SimpleGrantedAuthority(Permission.getPermissionForCourse(12, ActionType.WRITE)),
+                new SimpleGrantedAuthority(Permission.getPermissionForEmployee(3, ActionType.WRITE_CASCADE)),
+                new SimpleGrantedAuthority(Permission.getPermissionForGroup(0, ActionType.WRITE_ATTENDANCE)),
+                new SimpleGrantedAuthority("COURSE_x_READ"),
+                new SimpleGrantedAuthority("COURSE_5_DELETE")
+        ));
+
+        assertThat(index.has(COURSE, 12, ActionType.WRITE)).isTrue();
+        assertThat(index.has(COURSE, 12, ActionType.READ)).isFalse();
+        assertThat(index.has(GROUP, 12, ActionType.WRITE)).isFalse();
+        assertThat(index.has(EMPLOYEE, 3, ActionType.WRITE_CASCADE)).isTrue();
+        assertThat(index.has(EMPLOYEE, 3, ActionType.WRITE)).isFalse();
+        assertThat(index.has(GROUP, 0, ActionType.WRITE_ATTENDANCE)).isTrue();
+        assertThat(index.hasAuthority("ROLE_TEACHER")).isTrue();
+        assertThat(index.hasAuthority("ENABLED")).isTrue();
+        assertThat(index.hasAuthority("COURSE_x_READ")).isTrue();
+        assertThat(index.hasAuthority("COURSE_5_DELETE")).isTrue();
+        assertThat(index.hasAuthority(Permission.getPermissionForCourse(12, ActionType.WRITE))).isFalse();
+    }
+
+    @Test
+    void of__sameAuthenticationInRequest__reused() {
+        var authentication = new UsernamePasswordAuthenticationToken("user", null,
+                List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        try {
+            assertThat(PermissionIndex.of(authentication)).isSameAs(PermissionIndex.of(authentication));
+            assertThat(PermissionIndex.of(authentication).hasAuthority("ROLE_ADMIN")).isTrue();
+            assertThat(PermissionIndex.of((UsernamePasswordAuthenticationToken) null).hasAuthority("ROLE_ADMIN")).isFalse();
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    @Test
+    void of__anotherRequest__rebuilt() {
+        var authentication = new UsernamePasswordAuthenticationToken("user", null,
+                List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+
+        PermissionIndex first;
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        try {
+            first = PermissionIndex.of(authentication);
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+
+        assertThat(PermissionIndex.of(authentication)).isNotSameAs(first);
+        assertThat(PermissionIndex.of(authentication)).isNotSameAs(PermissionIndex.of(authentication));
+    }
+
+    @Test
+    void of__manyCourses__allFound() {
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        for (long id = 1; id <= 500; id++) {
+            authorities.add(new SimpleGrantedAuthority(Permission.getPermissionForCourse(id * 7919, ActionType.READ)));
+        }
+        var index = PermissionIndex.of(authorities);
+
+        for (long id = 1; id <= 500; id++) {
+            assertThat(index.has(COURSE, id * 7919, ActionType.READ)).isTrue();
+            assertThat(index.has(COURSE, id * 7919 + 1, ActionType.READ)).isFalse();
+        }
+    }
+
+    @Test
+    void longHashSet__addAndContains() {
+        var set = new LongHashSet();
+
+        assertThat(set.add(0)).isTrue();
+        assertThat(set.add(0)).isFalse();
+        assertThat(set.add(-1)).isTrue();
+        assertThat(set.add(Long.MAX_VALUE)).isTrue();
+        for (long i = 1; i <= 100; i++) set.add(i << 32);
+
+        assertThat(set.size()).isEqualTo(103);
+        assertThat(set.contains(0)).isTrue();
+        assertThat(set.contains(-1)).isTrue();
+        assertThat(set.contains(Long.MAX_VALUE)).isTrue();
+        assertThat(set.contains(50L << 32)).isTrue();
+        assertThat(set.contains(1)).isFalse();
+    }
+}
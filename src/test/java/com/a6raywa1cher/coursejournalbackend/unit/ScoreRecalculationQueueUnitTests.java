@@ -0,0 +1,88 @@
+package com.a6raywa1cher.coursejournalbackend.unit;
+
+import com.a6raywa1cher.coursejournalbackend.component.ScoreRecalculationQueue;
+import com.a6raywa1cher.coursejournalbackend.component.TaskScoringContextCache;
+import com.a6raywa1cher.coursejournalbackend.model.repo.PendingScoreRecalculationRepository;
+import com.a6raywa1cher.coursejournalbackend.service.SubmissionService;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+public class ScoreRecalculationQueueUnitTests {
+    private static PendingScoreRecalculationRepository pendingRepository() {
+        PendingScoreRecalculationRepository repository = mock(PendingScoreRecalculationRepository.class);
+        when(repository.getVersion(anyLong())).thenReturn(Optional.of(1L));
+        return repository;
+    }
+
+    private static ScoreRecalculationQueue queue(SubmissionService submissionService, PendingScoreRecalculationRepository repository,
+                                                 boolean async) {
+        return new ScoreRecalculationQueue(submissionService, mock(TaskScoringContextCache.class), repository,
+                async, Duration.ofMillis(200), Duration.ofMillis(400), 1);
+    }
+
+    @Test
+    void schedule__repeatedForSameTask__coalesced() {
+        SubmissionService submissionService = mock(SubmissionService.class);
+        var queue = queue(submissionService, pendingRepository(), true);
+
+        queue.schedule(1);
+        queue.schedule(1);
+        queue.schedule(1);
+        queue.schedule(2);
+
+        assertThat(queue.isPending(1)).isTrue();
+        verify(submissionService, timeout(2000).times(1)).recalculateMainScoreForTask(1);
+        verify(submissionService, timeout(2000).times(1)).recalculateMainScoreForTask(2);
+        assertThat(queue.isPending(1)).isFalse();
+        queue.shutdown();
+    }
+
+    @Test
+    void schedule__sync__runsInCaller() {
+        SubmissionService submissionService = mock(SubmissionService.class);
+        var queue = queue(submissionService, pendingRepository(), false);
+
+        queue.schedule(1);
+
+        verify(submissionService).recalculateMainScoreForTask(1);
+        assertThat(queue.isPending(1)).isFalse();
+        queue.shutdown();
+    }
+
+    @Test
+    void schedule__failed__pendingUntilRetrySucceeds() {
+        SubmissionService submissionService = mock(SubmissionService.class);
+        PendingScoreRecalculationRepository repository = pendingRepository();
+        doThrow(new IllegalStateException()).doNothing().when(submissionService).recalculateMainScoreForTask(1);
+        var queue = queue(submissionService, repository, true);
+
+        queue.schedule(1);
+
+        verify(submissionService, timeout(2000).times(1)).recalculateMainScoreForTask(1);
+        assertThat(queue.isPending(1)).isTrue();
+        verify(submissionService, timeout(2000).times(2)).recalculateMainScoreForTask(1);
+        verify(repository, timeout(2000)).clear(1, 1);
+        assertThat(queue.isPending(1)).isFalse();
+        queue.shutdown();
+    }
+
+    @Test
+    void resumePending__marked__recalculated() {
+        SubmissionService submissionService = mock(SubmissionService.class);
+        PendingScoreRecalculationRepository repository = pendingRepository();
+        when(repository.getAllTaskIds()).thenReturn(List.of(5L));
+        var queue = queue(submissionService, repository, true);
+
+        queue.resumePending();
+
+        verify(submissionService, timeout(2000)).recalculateMainScoreForTask(5);
+        verify(repository, timeout(2000)).clear(5, 1);
+        queue.shutdown();
+    }
+}
@@ -0,0 +1,77 @@
+package com.a6raywa1cher.coursejournalbackend.unit;
+
+import com.a6raywa1cher.coursejournalbackend.component.SubmissionScoringRegistry;
+import com.a6raywa1cher.coursejournalbackend.dto.TaskDto;
+import com.a6raywa1cher.coursejournalbackend.model.ScoringPolicy;
+import com.a6raywa1cher.coursejournalbackend.service.TaskScoringContext;
+import com.a6raywa1cher.coursejournalbackend.service.impl.*;
+import org.assertj.core.data.Offset;
+import org.junit.jupiter.api.Test;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SubmissionScoringPoliciesUnitTests {
+    private static final long SOFT = 1_000_000;
+    private static final long HARD = SOFT + 3 * 24 * 60;
+
+    @Test
+    void step__calculateDeadlineFactor() {
+        var scoringService = new StepSubmissionScoringService();
+
+        assertThat(scoringService.calculateDeadlineFactor(SOFT, HARD, 50, SOFT)).isCloseTo(1d, Offset.offset(0.001d));
+        assertThat(scoringService.calculateDeadlineFactor(SOFT, HARD, 50, SOFT + 1)).isCloseTo(0.75d, Offset.offset(0.001d));
+        assertThat(scoringService.calculateDeadlineFactor(SOFT, HARD, 50, HARD)).isCloseTo(0.75d, Offset.offset(0.001d));
+        assertThat(scoringService.calculateDeadlineFactor(SOFT, HARD, 50, HARD + 1)).isCloseTo(0.5d, Offset.offset(0.001d));
+    }
+
+    @Test
+    void exponentialDecay__calculateDeadlineFactor() {
+        var scoringService = new ExponentialDecaySubmissionScoringService();
+
+        assertThat(scoringService.calculateDeadlineFactor(SOFT, HARD, 50, SOFT)).isCloseTo(1d, Offset.offset(0.001d));
+        assertThat(scoringService.calculateDeadlineFactor(SOFT, HARD, 50, HARD)).isCloseTo(0.525d, Offset.offset(0.001d));
+        assertThat(scoringService.calculateDeadlineFactor(SOFT, HARD, 50, HARD * 2)).isCloseTo(0.5d, Offset.offset(0.001d));
+        assertThat(scoringService.calculateDeadlineFactor(SOFT, SOFT, 50, SOFT + 1)).isCloseTo(0.5d, Offset.offset(0.001d));
+    }
+
+    @Test
+    void cappedLatePenalty__calculateDeadlineFactor() {
+        var scoringService = new CappedLatePenaltySubmissionScoringService();
+
+        assertThat(scoringService.calculateDeadlineFactor(SOFT, HARD, 60, SOFT)).isCloseTo(1d, Offset.offset(0.001d));
+        assertThat(scoringService.calculateDeadlineFactor(SOFT, HARD, 60, SOFT + 1)).isCloseTo(0.8d, Offset.offset(0.001d));
+        assertThat(scoringService.calculateDeadlineFactor(SOFT, HARD, 60, SOFT + 24 * 60)).isCloseTo(0.8d, Offset.offset(0.001d));
+        assertThat(scoringService.calculateDeadlineFactor(SOFT, HARD, 60, SOFT + 24 * 60 + 1)).isCloseTo(0.6d, Offset.offset(0.001d));
+        assertThat(scoringService.calculateDeadlineFactor(SOFT, HARD, 60, HARD + 10 * 24 * 60)).isCloseTo(0.4d, Offset.offset(0.001d));
+    }
+
+    @Test
+    void registry__policyFromContext() {
+        var registry = new SubmissionScoringRegistry(List.of(
+                new LinearSubmissionScoringService(),
+                new StepSubmissionScoringService(),
+                new ExponentialDecaySubmissionScoringService(),
+                new CappedLatePenaltySubmissionScoringService()
+        ));
+        ZonedDateTime now = ZonedDateTime.now();
+        TaskDto taskDto = TaskDto.builder()
+                .maxScore(10)
+                .maxPenaltyPercent(50)
+                .softDeadlineAt(now)
+                .hardDeadlineAt(now.plusMinutes(60))
+                .deadlinesEnabled(true)
+                .build();
+        long submittedAt = TaskScoringContext.toEpochSecond(now.plusMinutes(30));
+
+        TaskScoringContext linear = TaskScoringContext.of(taskDto, List.of(), null);
+        TaskScoringContext step = TaskScoringContext.of(taskDto, List.of(), ScoringPolicy.STEP);
+
+        assertThat(registry.get(null)).isInstanceOf(LinearSubmissionScoringService.class);
+        assertThat(registry.getMainScore(linear, submittedAt, new long[0], 0)).isCloseTo(7.5d, Offset.offset(0.001d));
+        assertThat(registry.getMainScore(step, submittedAt, new long[0], 0)).isCloseTo(7.5d, Offset.offset(0.001d));
+        assertThat(registry.getMainScore(step, submittedAt + 60 * 60, new long[0], 0)).isCloseTo(5d, Offset.offset(0.001d));
+    }
+}
@@ -0,0 +1,138 @@
+package com.a6raywa1cher.coursejournalbackend.unit;
+
+import com.a6raywa1cher.coursejournalbackend.dto.TableDto;
+import com.a6raywa1cher.coursejournalbackend.dto.TableDtoBuilder;
+import com.a6raywa1cher.coursejournalbackend.model.AttendanceType;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TableDtoBuilderUnitTests {
+    private record Student(long id, String name, long group) {
+    }
+
+    private record Cell(long studentId, LocalDate date, int classNumber, AttendanceType type) {
+    }
+
+    private static TableDto buildLegacy(List<Student> students, List<Cell> cells) {
+        TableDto tableDto = new TableDto();
+        if (cells.isEmpty()) {
+            for (Student student : students) {
+                tableDto.addTableBodyElement(student.id(), 0, student.name(), student.group());
+            }
+            return tableDto;
+        }
+        Map<Long, Integer> studentsToIndexMap = new HashMap<>();
+        for (Cell cell : cells) {
+            tableDto.addTableHeaderElement(cell.date(), cell.classNumber());
+        }
+        for (Student student : students) {
+            tableDto.addTableBodyElement(student.id(), tableDto.getHeader().size(), student.name(), student.group());
+            studentsToIndexMap.put(student.id(), tableDto.getBody().size() - 1);
+        }
+        int indexOfHeaderElement = 0;
+        int classNumber = cells.get(0).classNumber();
+        LocalDate date = cells.get(0).date();
+        for (Cell cell : cells) {
+            if (!cell.date().equals(date) || cell.classNumber() != classNumber) {
+                indexOfHeaderElement++;
+                classNumber = cell.classNumber();
+                date = cell.date();
+            }
+            tableDto.addAttendanceToBody(studentsToIndexMap.get(cell.studentId()), indexOfHeaderElement, cell.type());
+        }
+        return tableDto;
+    }
+
+    private static TableDto buildDense(List<Student> students, List<Cell> cells) {
+        TableDtoBuilder builder = new TableDtoBuilder();
+        for (Cell cell : cells) {
+            builder.addColumn(cell.date(), cell.classNumber());
+        }
+        for (Student student : students) {
+            builder.addRow(student.id(), student.name(), student.group());
+        }
+        for (Cell cell : cells) {
+            builder.set(cell.studentId(), cell.date(), cell.classNumber(), cell.type());
+        }
+        return builder.build();
+    }
+
+    private static List<Student> createStudents(int count) {
+        List<Student> students = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            students.add(new Student(i + 1, "Student " + i, i % 3));
+        }
+        return students;
+    }
+
+    private static List<Cell> createCells(List<Student> students, LocalDate from, int days, int classes, Random random) {
+        List<Cell> cells = new ArrayList<>();
+        AttendanceType[] types = AttendanceType.values();
+        for (int day = 0; day < days; day++) {
+            for (int classNumber = 1; classNumber <= classes; classNumber++) {
+                for (Student student : students) {
+                    if (random.nextInt(4) == 0) continue;
+                    cells.add(new Cell(student.id(), from.plusDays(day), classNumber, types[random.nextInt(types.length)]));
+                }
+            }
+        }
+        return cells;
+    }
+
+    @Test
+    void build__empty__sameAsLegacy() {
+        List<Student> students = createStudents(3);
+
+        TableDto legacy = buildLegacy(students, List.of());
+        TableDto dense = buildDense(students, List.of());
+
+        assertThat(dense).isEqualTo(legacy);
+        assertThat(dense.getHeader()).isEmpty();
+        assertThat(dense.getBody()).hasSize(3);
+    }
+
+    @Test
+    void build__sparse__sameAsLegacy() {
+        Random random = new Random(42);
+        List<Student> students = createStudents(25);
+        List<Cell> cells = createCells(students, LocalDate.of(2022, 9, 1), 14, 4, random);
+
+        TableDto legacy = buildLegacy(students, cells);
+        TableDto dense = buildDense(students, cells);
+
+        assertThat(dense).isEqualTo(legacy);
+        assertThat(dense.getHeader()).hasSize(14 * 4);
+    }
+
+    @Test
+    void build__columnWithoutStudents__sameAsLegacy() {
+        List<Student> students = createStudents(2);
+        LocalDate date = LocalDate.of(2022, 9, 1);
+        List<Cell> cells = List.of(
+                new Cell(1, date, 1, AttendanceType.ATTENDED),
+                new Cell(2, date, 2, AttendanceType.SERIOUS_REASON),
+                new Cell(2, date.plusDays(1), 1, AttendanceType.ATTENDED)
+        );
+
+        TableDto legacy = buildLegacy(students, cells);
+        TableDto dense = buildDense(students, cells);
+
+        assertThat(dense).isEqualTo(legacy);
+        assertThat(dense.getBody().get(0).getAttendances()).containsExactly(AttendanceType.ATTENDED, null, null);
+    }
+
+    @Test
+    void set__unknownStudent__skipped() {
+        TableDtoBuilder builder = new TableDtoBuilder();
+        LocalDate date = LocalDate.of(2022, 9, 1);
+        builder.addColumn(date, 1);
+        builder.addRow(1, "Student", 1);
+
+        assertThat(builder.set(2, date, 1, AttendanceType.ATTENDED)).isFalse();
+        assertThat(builder.build().getBody().get(0).getAttendances()).containsExactly((AttendanceType) null);
+    }
+}